@@ -0,0 +1,22 @@
+package commands;
+
+import java.io.IOException;
+import java.util.List;
+
+import errors.LogosException;
+import tasklist.TaskList;
+import tasks.Task;
+import ui.Ui;
+
+public class ArchiveCommand implements Command {
+    @Override
+    public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
+        List<Task> archived = taskList.archiveDoneTasks();
+        if (archived.isEmpty()) {
+            return(ui.respond("There are no done tasks to archive."));
+        }
+        return(ui.respond(
+                String.format("Archived %d done task(s). Use 'list /archived' to see them.", archived.size()),
+                String.format("Now you have %d tasks in the list~", taskList.size())));
+    }
+}
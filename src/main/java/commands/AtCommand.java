@@ -0,0 +1,35 @@
+package commands;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import errors.LogosException;
+import tasklist.Occurrence;
+import tasklist.TaskList;
+import ui.Ui;
+
+public class AtCommand implements Command {
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
+
+    private final LocalDateTime instant;
+
+    public AtCommand(LocalDateTime instant) {
+        this.instant = instant;
+    }
+
+    @Override
+    public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
+        List<Occurrence> occurrences = taskList.findEventOccurrencesAt(instant);
+        String when = instant.format(DISPLAY_FORMAT);
+        if (occurrences.isEmpty()) {
+            return(ui.respond("There are no events on at " + when + "."));
+        }
+        List<String> tasks = taskList.filterOccurrences(occurrences);
+        return(ui.showTasksWithOriginalIndexes(
+                Occurrence.indexesOf(occurrences),
+                tasks,
+                "Here are the events on at " + when + ":"));
+    }
+}
@@ -9,6 +9,7 @@ import ui.Ui;
 public class ByeCommand implements Command {
     @Override
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
+        taskList.flushStorage();
         return(ui.showExit());
     }
 }
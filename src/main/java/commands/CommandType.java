@@ -12,7 +12,17 @@ public enum CommandType {
     DELETE("delete"),
     BYE("bye"),
     FIND("find"),
-    SORT("sort");
+    SORT("sort"),
+    DUE("due"),
+    UPCOMING("upcoming"),
+    NEXT("next"),
+    AT("at"),
+    STATS("stats"),
+    UNDO("undo"),
+    REDO("redo"),
+    ARCHIVE("archive");
+
+    private static final CommandType[] VALUES = values();
 
     private final String keyword;
 
@@ -35,4 +45,22 @@ public enum CommandType {
         }
         throw new UnknownCommandException(input);
     }
+
+    /**
+     * Parses the keyword at the start of a line of input into a CommandType, ignoring case like
+     * {@link #fromString(String)}, without copying the keyword out of the line.
+     *
+     * @param line the line of input
+     * @param length the length of the keyword at the start of the line
+     * @return the command type with that keyword
+     * @throws UnknownCommandException if no command has the keyword
+     */
+    public static CommandType fromString(String line, int length) throws UnknownCommandException {
+        for (CommandType cmd : VALUES) {
+            if (cmd.keyword.length() == length && line.regionMatches(true, 0, cmd.keyword, 0, length)) {
+                return cmd;
+            }
+        }
+        throw new UnknownCommandException(line.substring(0, length));
+    }
 }
@@ -21,9 +21,10 @@ public class DeadlineCommand implements Command {
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
         Deadline newDeadline = taskList.addDeadline(taskName, deadline);
         return(ui.respond(
-                String.format("Deadline added: \"%s\", (by: %s)",
+                String.format("Deadline added: \"%s\", (by: %s) (ID #%d)",
                         newDeadline.getDescription(),
-                        newDeadline.getDeadlineString()),
+                        newDeadline.getDeadlineString(),
+                        newDeadline.getId()),
                 String.format("Now you have %d tasks in the list~", taskList.size()),
                 "Use the command 'list' to view your current task list"));
     }
@@ -1,24 +1,39 @@
 package commands;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import errors.LogosException;
 import tasklist.TaskList;
+import tasklist.TaskSelection;
 import tasks.Task;
 import ui.Ui;
 
 public class DeleteCommand implements Command {
-    private final int taskIndex;
+    private final TaskSelection selection;
 
-    public DeleteCommand(int taskIndex) {
-        this.taskIndex = taskIndex;
+    public DeleteCommand(TaskSelection selection) {
+        this.selection = selection;
     }
 
     @Override
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
-        Task selectedTask = taskList.deleteTask(taskIndex);
-        return(ui.respond("Todo removed: \"" + selectedTask.getDescription() + "\"",
-                String.format("Now you have %d tasks in the list~", taskList.size()),
-                "Use the command 'list' to view your current task list"));
+        List<Task> removedTasks = taskList.deleteTasks(selection);
+        if (removedTasks.isEmpty()) {
+            return(ui.respond(String.format("There are no tasks matching '%s' to delete.", selection)));
+        }
+        List<String> lines = new ArrayList<>();
+        if (removedTasks.size() == 1) {
+            lines.add("Todo removed: \"" + removedTasks.get(0).getDescription() + "\"");
+        } else {
+            lines.add(String.format("%d tasks removed:", removedTasks.size()));
+            for (Task task : removedTasks) {
+                lines.add("  " + task.getAsListItem());
+            }
+        }
+        lines.add(String.format("Now you have %d tasks in the list~", taskList.size()));
+        lines.add("Use the command 'list' to view your current task list");
+        return(ui.respond(lines.toArray(new String[0])));
     }
 }
@@ -0,0 +1,37 @@
+package commands;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import errors.LogosException;
+import tasklist.Occurrence;
+import tasklist.TaskList;
+import ui.Ui;
+
+public class DueCommand implements Command {
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public DueCommand(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
+        List<Occurrence> occurrences = taskList.findDueOccurrences(from, to);
+        String range = String.format("between %s and %s", from.format(DISPLAY_FORMAT), to.format(DISPLAY_FORMAT));
+        if (occurrences.isEmpty()) {
+            return(ui.respond("There are no deadlines or events " + range + "."));
+        }
+        List<String> tasks = taskList.filterOccurrences(occurrences);
+        return(ui.showTasksWithOriginalIndexes(
+                Occurrence.indexesOf(occurrences),
+                tasks,
+                "Here are the deadlines and events " + range + ":"));
+    }
+}
@@ -2,32 +2,75 @@ package commands;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import errors.LogosException;
+import tasklist.Occurrence;
 import tasklist.TaskList;
 import tasks.Event;
+import tasks.Recurrence;
 import ui.Ui;
 
 public class EventCommand implements Command {
     private final String taskName;
     private final LocalDateTime startDateTime;
     private final LocalDateTime endDateTime;
+    private final Recurrence recurrence;
 
     public EventCommand(String taskName, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        this(taskName, startDateTime, endDateTime, null);
+    }
+
+    /**
+     * Creates a command that adds an event, which repeats if a recurrence is given.
+     *
+     * @param taskName the description of the event
+     * @param startDateTime the start of the event, or of its first occurrence
+     * @param endDateTime the end of the event, or of its first occurrence
+     * @param recurrence how often the event repeats, or null for a one-off event
+     */
+    public EventCommand(String taskName, LocalDateTime startDateTime, LocalDateTime endDateTime,
+            Recurrence recurrence) {
         this.taskName = taskName;
         this.startDateTime = startDateTime;
         this.endDateTime = endDateTime;
+        this.recurrence = recurrence;
     }
 
     @Override
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
-        Event newEvent = taskList.addEvent(taskName, startDateTime, endDateTime);
-        return(ui.respond(
-                String.format("Event added: \"%s\", (from: %s, to: %s)",
-                        newEvent.getDescription(),
-                        newEvent.getStartDateTimeString(),
-                        newEvent.getEndDateTimeString()),
-                String.format("Now you have %d tasks in the list~", taskList.size()),
-                "Use the command 'list' to view your current task list"));
+        List<String> lines = new ArrayList<>();
+        Event newEvent;
+        if (recurrence == null) {
+            newEvent = taskList.addEvent(taskName, startDateTime, endDateTime);
+            lines.add(String.format("Event added: \"%s\", (from: %s, to: %s) (ID #%d)",
+                    newEvent.getDescription(),
+                    newEvent.getStartDateTimeString(),
+                    newEvent.getEndDateTimeString(),
+                    newEvent.getId()));
+        } else {
+            newEvent = taskList.addRecurringEvent(taskName, startDateTime, endDateTime, recurrence);
+            lines.add(String.format("Recurring event added: \"%s\", (from: %s, to: %s, every %s) (ID #%d)",
+                    newEvent.getDescription(),
+                    newEvent.getStartDateTimeString(),
+                    newEvent.getEndDateTimeString(),
+                    recurrence.getKeyword(),
+                    newEvent.getId()));
+        }
+        lines.add(String.format("Now you have %d tasks in the list~", taskList.size()));
+
+        List<Occurrence> clashes = taskList.findClashingOccurrences(newEvent);
+        if (!clashes.isEmpty()) {
+            lines.add(recurrence == null
+                    ? "Heads up! This event overlaps with:"
+                    : "Heads up! Within a year of its first occurrence, this event overlaps with:");
+            List<String> clashingEvents = taskList.filterOccurrences(clashes);
+            for (int i = 0; i < clashes.size(); i++) {
+                lines.add((clashes.get(i).getIndex() + 1) + ". " + clashingEvents.get(i));
+            }
+        }
+        lines.add("Use the command 'list' to view your current task list");
+        return(ui.respond(lines.toArray(new String[0])));
     }
 }
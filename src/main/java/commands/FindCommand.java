@@ -1,30 +1,77 @@
 package commands;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import errors.LogosException;
+import tasklist.ListedTasks;
 import tasklist.TaskList;
 import ui.Ui;
 
 public class FindCommand implements Command {
     private final String searchWord;
+    private final boolean isFuzzy;
+    private final boolean isIncludingArchive;
 
     public FindCommand(String searchWord) {
+        this(searchWord, false);
+    }
+
+    public FindCommand(String searchWord, boolean isFuzzy) {
+        this(searchWord, isFuzzy, false);
+    }
+
+    /**
+     * Creates a command that finds tasks in the task list, and optionally also in the archive.
+     *
+     * @param searchWord the query to search for
+     * @param isFuzzy whether to find words spelled like the query rather than containing it
+     * @param isIncludingArchive whether to also search the archived tasks
+     */
+    public FindCommand(String searchWord, boolean isFuzzy, boolean isIncludingArchive) {
         this.searchWord = searchWord;
+        this.isFuzzy = isFuzzy;
+        this.isIncludingArchive = isIncludingArchive;
     }
 
     @Override
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
-        List<Integer> indexes = taskList.findIndexes(searchWord);
-        if (indexes.isEmpty()) {
+        if (isIncludingArchive) {
+            return findAll(taskList, ui);
+        }
+        ListedTasks found = isFuzzy ? taskList.findFuzzyTasks(searchWord) : taskList.findTasks(searchWord);
+        if (found.isEmpty()) {
             return(ui.respond(
                     String.format("There are no matching tasks in your task list for '%s'.", searchWord)));
         }
-        List<String> tasks = taskList.filterByIndexes(indexes);
         return(ui.showTasksWithOriginalIndexes(
-                indexes, 
-                tasks,
-                String.format("Here are the matching tasks in your list for '%s':", searchWord)));
+                found.getIndexes(),
+                found.getItems(),
+                isFuzzy
+                        ? String.format("Here are the tasks in your list with words like '%s', closest first:",
+                                searchWord)
+                        : String.format("Here are the matching tasks in your list for '%s':", searchWord)));
+    }
+
+    private String findAll(TaskList taskList, Ui ui) throws IOException {
+        ListedTasks found = taskList.findTasks(searchWord);
+        List<String> archived = taskList.findArchivedTasks(searchWord);
+        if (found.isEmpty() && archived.isEmpty()) {
+            return(ui.respond(String.format(
+                    "There are no matching tasks in your task list or your archive for '%s'.", searchWord)));
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Here are the matching tasks for '%s':", searchWord));
+        for (int i = 0; i < found.size(); i++) {
+            lines.add((found.getIndexes().get(i) + 1) + ". " + found.getItems().get(i));
+        }
+        if (!archived.isEmpty()) {
+            lines.add("In your archive:");
+            for (String task : archived) {
+                lines.add("- " + task);
+            }
+        }
+        return(ui.respond(lines.toArray(new String[0])));
     }
 }
@@ -8,12 +8,80 @@ import tasklist.TaskList;
 import ui.Ui;
 
 public class ListCommand implements Command {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final int page;
+    private final int pageSize;
+    private final boolean isArchived;
+
+    public ListCommand() {
+        this(0, 0);
+    }
+
+    public ListCommand(int page, int pageSize) {
+        this(page, pageSize, false);
+    }
+
+    /**
+     * Creates a command that lists one page of the task list.
+     *
+     * @param page the 1-based number of the page to show, or 0 to show every task
+     * @param pageSize the number of tasks on each page
+     * @param isArchived whether to list the archived tasks instead of the task list
+     */
+    public ListCommand(int page, int pageSize, boolean isArchived) {
+        this.page = page;
+        this.pageSize = pageSize;
+        this.isArchived = isArchived;
+    }
+
     @Override
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
-        List<String> list = taskList.listTasks();
-        if (list.isEmpty()) {
+        if (isArchived) {
+            return listArchived(taskList, ui);
+        }
+        int size = taskList.size();
+        if (size == 0) {
             return(ui.respond("There are no tasks in your task list currently."));
         }
-        return(ui.showList(list, "Here's your current tasks:"));
+        if (page == 0) {
+            return(ui.streamList(taskList.listItems(0, size), 1, "Here's your current tasks:"));
+        }
+
+        int pageCount = (size + pageSize - 1) / pageSize;
+        if (page > pageCount) {
+            return(ui.respond(String.format("There is no page %d. Your %d tasks fit on %d page(s) of %d.",
+                    page, size, pageCount, pageSize)));
+        }
+        int fromIndex = (page - 1) * pageSize;
+        int toIndex = Math.min(size, fromIndex + pageSize);
+        String pretext = String.format("Here's page %d of %d of your tasks (%d-%d of %d):",
+                page, pageCount, fromIndex + 1, toIndex, size);
+        if (page == pageCount) {
+            return(ui.streamList(taskList.listItems(fromIndex, toIndex), fromIndex + 1, pretext));
+        }
+        String sizeOption = pageSize == DEFAULT_PAGE_SIZE ? "" : " /size " + pageSize;
+        return(ui.streamList(taskList.listItems(fromIndex, toIndex), fromIndex + 1, pretext,
+                String.format("Use 'list /page %d%s' to see the next page.", page + 1, sizeOption)));
+    }
+
+    private String listArchived(TaskList taskList, Ui ui) throws IOException {
+        List<String> archived = taskList.listArchivedTasks();
+        if (archived.isEmpty()) {
+            return(ui.respond("There are no archived tasks."));
+        }
+        if (page == 0) {
+            return(ui.showList(archived, "Here are your archived tasks:"));
+        }
+        int pageCount = (archived.size() + pageSize - 1) / pageSize;
+        if (page > pageCount) {
+            return(ui.respond(String.format("There is no page %d. Your %d archived tasks fit on %d page(s) of %d.",
+                    page, archived.size(), pageCount, pageSize)));
+        }
+        int fromIndex = (page - 1) * pageSize;
+        int toIndex = Math.min(archived.size(), fromIndex + pageSize);
+        return(ui.streamList(archived.subList(fromIndex, toIndex).iterator(), fromIndex + 1,
+                String.format("Here's page %d of %d of your archived tasks (%d-%d of %d):",
+                        page, pageCount, fromIndex + 1, toIndex, archived.size())));
     }
 }
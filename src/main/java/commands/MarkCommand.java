@@ -1,22 +1,35 @@
 package commands;
 
 import java.io.IOException;
+import java.util.List;
 
 import errors.LogosException;
+import tasklist.ListedTasks;
 import tasklist.TaskList;
-import tasks.Task;
+import tasklist.TaskSelection;
 import ui.Ui;
 
 public class MarkCommand implements Command {
-    private final int taskIndex;
+    private final TaskSelection selection;
 
-    public MarkCommand(int taskIndex) {
-        this.taskIndex = taskIndex;
+    public MarkCommand(TaskSelection selection) {
+        this.selection = selection;
     }
 
     @Override
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
-        Task selectedTask = taskList.markTask(taskIndex);
-        return(ui.respond("Task marked as done:", selectedTask.getAsListItem()));
+        ListedTasks marked = taskList.markTasks(selection);
+        List<Integer> indexes = marked.getIndexes();
+        if (indexes.isEmpty()) {
+            return(ui.respond(String.format("There are no tasks matching '%s' to mark.", selection)));
+        }
+        List<String> tasks = marked.getItems();
+        if (indexes.size() == 1) {
+            return(ui.respond("Task marked as done:", tasks.get(0)));
+        }
+        return(ui.showTasksWithOriginalIndexes(
+                indexes,
+                tasks,
+                String.format("%d tasks marked as done:", indexes.size())));
     }
 }
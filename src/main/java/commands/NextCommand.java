@@ -0,0 +1,31 @@
+package commands;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import errors.LogosException;
+import tasklist.Occurrence;
+import tasklist.TaskList;
+import ui.Ui;
+
+public class NextCommand implements Command {
+    private final int count;
+
+    public NextCommand(int count) {
+        this.count = count;
+    }
+
+    @Override
+    public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
+        List<Occurrence> occurrences = taskList.findNextOccurrences(LocalDateTime.now(), count);
+        if (occurrences.isEmpty()) {
+            return(ui.respond("There are no upcoming deadlines or events left to do."));
+        }
+        List<String> tasks = taskList.filterOccurrences(occurrences);
+        return(ui.showTasksWithOriginalIndexes(
+                Occurrence.indexesOf(occurrences),
+                tasks,
+                "Here are the next deadlines and events you still have to do:"));
+    }
+}
@@ -0,0 +1,17 @@
+package commands;
+
+import java.io.IOException;
+
+import errors.LogosException;
+import tasklist.TaskList;
+import ui.Ui;
+
+public class RedoCommand implements Command {
+    @Override
+    public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
+        String change = taskList.redo();
+        return(ui.respond(
+                "Okay! I've redone the change: " + change + ".",
+                String.format("Now you have %d tasks in the list~", taskList.size())));
+    }
+}
@@ -8,13 +8,43 @@ import tasklist.TaskList;
 import ui.Ui;
 
 public class SortCommand implements Command {
+    public enum Mode {
+        ONCE,
+        KEEP,
+        OFF
+    }
+
+    private final Mode mode;
+
+    public SortCommand() {
+        this(Mode.ONCE);
+    }
+
+    public SortCommand(Mode mode) {
+        this.mode = mode;
+    }
+
     @Override
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
+        if (mode == Mode.OFF) {
+            taskList.setKeepingSorted(false);
+            return(ui.respond("Okay! New tasks will be added to the end of your task list again."));
+        }
+        if (mode == Mode.KEEP) {
+            taskList.setKeepingSorted(true);
+        }
         if (taskList.size() == 0) {
-            return(ui.respond("There are no tasks to sort in your task list currently!"));
+            return(ui.respond(mode == Mode.KEEP
+                    ? "Okay! I'll keep your task list sorted as you add tasks."
+                    : "There are no tasks to sort in your task list currently!"));
         }
-        taskList.sortTasks();
+        boolean isReordered = taskList.sortTasks();
         List<String> list = taskList.listTasks();
-        return(ui.showList(list, "Here's your freshly sorted tasks, in chronological order:"));
+        if (mode == Mode.KEEP) {
+            return(ui.showList(list, "Here's your sorted task list. I'll keep it in order as you add tasks:"));
+        }
+        return(ui.showList(list, isReordered
+                ? "Here's your freshly sorted tasks, in chronological order:"
+                : "Your tasks are already in chronological order:"));
     }
 }
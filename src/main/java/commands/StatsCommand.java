@@ -0,0 +1,42 @@
+package commands;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import errors.LogosException;
+import tasklist.TaskCounts;
+import tasklist.TaskList;
+import tasks.TaskType;
+import ui.Ui;
+
+public class StatsCommand implements Command {
+    @Override
+    public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
+        TaskCounts counts = taskList.getCounts(LocalDate.now());
+        return(ui.respond(
+                "Here are some statistics about your task list:",
+                String.format("Tasks: %d (%d done, %d not done)", counts.getTotal(), counts.getDone(),
+                        counts.getUndone()),
+                formatType("Todos", counts, TaskType.TODO),
+                formatType("Deadlines", counts, TaskType.DEADLINE),
+                formatType("Events", counts, TaskType.EVENT),
+                "Overdue deadlines: " + counts.getOverdueCount(),
+                "Deadlines due today: " + counts.getDueTodayCount(),
+                "Distinct descriptions: " + counts.getDistinctDescriptionCount(),
+                "Memory saved by sharing identical descriptions: " + formatBytes(counts.getBytesShared())));
+    }
+
+    private static String formatType(String name, TaskCounts counts, TaskType type) {
+        return String.format("%s: %d done, %d not done", name, counts.getDone(type), counts.getUndone(type));
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+}
@@ -17,7 +17,7 @@ public class TodoCommand implements Command {
     @Override
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
         Todo newTodo = taskList.addTodo(taskName);
-        return(ui.respond("Todo added: \"" + newTodo.getDescription() + "\"",
+        return(ui.respond("Todo added: \"" + newTodo.getDescription() + "\" (ID #" + newTodo.getId() + ")",
                 String.format("Now you have %d tasks in the list~", taskList.size()),
                 "Use the command 'list' to view your current task list"));
     }
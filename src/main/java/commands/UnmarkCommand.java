@@ -1,22 +1,35 @@
 package commands;
 
 import java.io.IOException;
+import java.util.List;
 
 import errors.LogosException;
+import tasklist.ListedTasks;
 import tasklist.TaskList;
-import tasks.Task;
+import tasklist.TaskSelection;
 import ui.Ui;
 
 public class UnmarkCommand implements Command {
-    private final int taskIndex;
+    private final TaskSelection selection;
 
-    public UnmarkCommand(int taskIndex) {
-        this.taskIndex = taskIndex;
+    public UnmarkCommand(TaskSelection selection) {
+        this.selection = selection;
     }
 
     @Override
     public String execute(TaskList taskList, Ui ui) throws LogosException, IOException {
-        Task selectedTask = taskList.unmarkTask(taskIndex);
-        return(ui.respond("Task marked as not done yet:", selectedTask.getAsListItem()));
+        ListedTasks unmarked = taskList.unmarkTasks(selection);
+        List<Integer> indexes = unmarked.getIndexes();
+        if (indexes.isEmpty()) {
+            return(ui.respond(String.format("There are no tasks matching '%s' to unmark.", selection)));
+        }
+        List<String> tasks = unmarked.getItems();
+        if (indexes.size() == 1) {
+            return(ui.respond("Task marked as not done yet:", tasks.get(0)));
+        }
+        return(ui.showTasksWithOriginalIndexes(
+                indexes,
+                tasks,
+                String.format("%d tasks marked as not done yet:", indexes.size())));
     }
 }
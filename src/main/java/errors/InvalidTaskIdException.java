@@ -0,0 +1,7 @@
+package errors;
+
+public class InvalidTaskIdException extends LogosException {
+    public InvalidTaskIdException(int id) {
+        super(String.format("There is no task with ID #%d. It may have been deleted already.", id));
+    }
+}
@@ -0,0 +1,214 @@
+package localstorage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import tasks.Deadline;
+import tasks.DescriptionPool;
+import tasks.Event;
+import tasks.Recurrence;
+import tasks.RecurringEvent;
+import tasks.Task;
+import tasks.Todo;
+
+/**
+ * Reads and writes tasks in a compact binary format.
+ * <p>
+ * A file starts with a header made of the magic number {@code "LOGS"}, a format version and the
+ * number of tasks in the file. Each task is then stored as:
+ * <pre>
+ *   type (1 byte) | flags (1 byte, bit 0 = done) | description length (4 bytes) | UTF-8 description
+ *   | due or start time (8 bytes, deadlines and events) | end time (8 bytes, events only)
+ * </pre>
+ * Bits 1 to 3 of the flags of an event hold how often it recurs: 0 for a one-off event, otherwise
+ * one more than the ordinal of its {@link Recurrence}. Files written before recurring events existed
+ * have these bits clear, so they still read the same.
+ * Times are stored as minutes since the epoch, which matches the precision of the
+ * {@code yyyy-MM-dd HHmm} input format; seconds are not kept.
+ */
+public class BinaryTaskFormat {
+    /** The bytes {@code "LOGS"}, used to recognise binary data files. */
+    public static final int MAGIC = 0x4C4F4753;
+    /** The version of the format written by this class. */
+    public static final short VERSION = 1;
+
+    private static final byte TYPE_TODO = 0;
+    private static final byte TYPE_DEADLINE = 1;
+    private static final byte TYPE_EVENT = 2;
+    private static final byte FLAG_DONE = 1;
+    private static final int RECURRENCE_SHIFT = 1;
+    private static final int RECURRENCE_MASK = 0x0e;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Writes the given tasks to a file in binary format, replacing its contents.
+     *
+     * @param tasks the tasks to write
+     * @param path the file to write to
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(List<Task> tasks, Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path.toFile()), BUFFER_BYTES))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+        }
+    }
+
+    /**
+     * Reads every task in a binary file and appends them to the given list.
+     *
+     * @param path the file to read from
+     * @param tasks the list to which the tasks are added
+     * @throws IOException if the file cannot be read, is not a binary data file,
+     *     was written by a newer version, or is truncated
+     */
+    public static void read(Path path, List<Task> tasks) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(path.toFile()), BUFFER_BYTES))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a binary data file: " + path);
+            }
+            short version = in.readShort();
+            if (version > VERSION) {
+                throw new IOException("Unsupported binary data file version " + version + ": " + path);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Binary data file is truncated: " + path, e);
+        }
+    }
+
+    /**
+     * Returns whether the given file starts with the binary format's magic number.
+     *
+     * @param path the file to check
+     * @return true if the file looks like a binary data file
+     */
+    public static boolean isBinaryFile(Path path) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(path.toFile()))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Converts a date and time to minutes since the epoch, dropping seconds.
+     *
+     * @param dateTime the date and time to convert
+     * @return the number of minutes since 1970-01-01T00:00
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Converts minutes since the epoch back to a date and time.
+     *
+     * @param epochMinute the number of minutes since 1970-01-01T00:00
+     * @return the corresponding date and time
+     */
+    public static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the code stored for how often a task recurs: 0 if it does not, otherwise one more than the
+     * ordinal of its {@link Recurrence}.
+     *
+     * @param task the task
+     * @return the recurrence code of the task
+     */
+    static int recurrenceCode(Task task) {
+        return task instanceof RecurringEvent recurring ? recurring.getRecurrence().ordinal() + 1 : 0;
+    }
+
+    /**
+     * Creates an event, recurring if the given recurrence code is not 0.
+     *
+     * @throws IOException if the recurrence code is unknown
+     */
+    static Event event(String description, LocalDateTime start, LocalDateTime end, int recurrenceCode)
+            throws IOException {
+        if (recurrenceCode == 0) {
+            return new Event(description, start, end);
+        }
+        if (recurrenceCode > Recurrence.values().length) {
+            throw new IOException("Unknown recurrence: " + recurrenceCode);
+        }
+        return new RecurringEvent(description, start, end, Recurrence.values()[recurrenceCode - 1]);
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        switch (task.getTaskType()) {
+        case TODO:
+            out.writeByte(TYPE_TODO);
+            break;
+        case DEADLINE:
+            out.writeByte(TYPE_DEADLINE);
+            break;
+        case EVENT:
+            out.writeByte(TYPE_EVENT);
+            break;
+        default:
+            throw new IOException("Unsupported task type: " + task.getTaskType());
+        }
+        out.writeByte((task.isDone() ? FLAG_DONE : 0) | recurrenceCode(task) << RECURRENCE_SHIFT);
+        out.writeInt(description.length);
+        out.write(description);
+
+        if (task instanceof Deadline deadline) {
+            out.writeLong(toEpochMinute(deadline.getDeadline()));
+        } else if (task instanceof Event event) {
+            out.writeLong(toEpochMinute(event.getStartDateTime()));
+            out.writeLong(toEpochMinute(event.getEndDateTime()));
+        }
+    }
+
+    private static Task readTask(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        byte flags = in.readByte();
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid description length: " + length);
+        }
+        byte[] description = new byte[length];
+        in.readFully(description);
+        String text = DescriptionPool.intern(new String(description, StandardCharsets.UTF_8));
+
+        Task task = switch (type) {
+        case TYPE_TODO -> new Todo(text);
+        case TYPE_DEADLINE -> new Deadline(text, fromEpochMinute(in.readLong()));
+        case TYPE_EVENT -> event(text, fromEpochMinute(in.readLong()), fromEpochMinute(in.readLong()),
+                (flags & RECURRENCE_MASK) >> RECURRENCE_SHIFT);
+        default -> throw new IOException("Unknown task type: " + type);
+        };
+        if ((flags & FLAG_DONE) != 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+}
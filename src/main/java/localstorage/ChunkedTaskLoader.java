@@ -0,0 +1,257 @@
+package localstorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import errors.LogosException;
+import tasks.Task;
+
+/**
+ * Loads a text data file by memory-mapping it and parsing line-aligned chunks in parallel.
+ * <p>
+ * The file is split into roughly equal chunks whose boundaries are moved forward to the next
+ * line break, so that every line belongs to exactly one chunk. Each chunk is decoded and parsed
+ * on the common {@link ForkJoinPool}, and the parsed chunks are merged back in file order.
+ */
+public class ChunkedTaskLoader {
+    /** Smallest chunk worth handing to another thread. */
+    private static final long MIN_CHUNK_BYTES = 256 * 1024;
+    /** Largest chunk that can be mapped in one go. */
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE / 2;
+    /** How many chunks to create per available core, so that uneven chunks still balance out. */
+    private static final int CHUNKS_PER_CORE = 4;
+    private static final int SCAN_BUFFER_BYTES = 8 * 1024;
+
+    private final Path path;
+    private final Charset charset;
+
+    /**
+     * Creates a loader for the given data file.
+     *
+     * @param path the data file to load
+     * @param charset the charset the data file was written in
+     */
+    public ChunkedTaskLoader(Path path, Charset charset) {
+        this.path = path;
+        this.charset = charset;
+    }
+
+    /**
+     * Parses every line of the data file into a {@link Task}, appending them to the given list
+     * in file order. Lines that cannot be parsed are skipped.
+     *
+     * @param tasks the list to which loaded tasks will be added
+     * @return the number of lines that could not be parsed
+     * @throws IOException if the data file cannot be read
+     */
+    public int load(List<Task> tasks) throws IOException {
+        return load(tasks, 0);
+    }
+
+    /**
+     * Loads the data file as {@link #load(List)} does, but aiming for the given number of chunks.
+     *
+     * @param tasks the list to which loaded tasks will be added
+     * @param chunkCount the number of chunks to aim for, or 0 to choose it from the file size and core count
+     * @return the number of lines that could not be parsed
+     * @throws IOException if the data file cannot be read
+     */
+    int load(List<Task> tasks, int chunkCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = findChunkBoundaries(channel, chunkCount);
+            List<ParsedChunk> chunks;
+            try {
+                chunks = ForkJoinPool.commonPool().invoke(new LoadAll(channel, boundaries, charset));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            int failedCount = 0;
+            int totalCount = 0;
+            for (ParsedChunk chunk : chunks) {
+                totalCount += chunk.tasks.size();
+            }
+            if (tasks instanceof ArrayList<Task> arrayList) {
+                arrayList.ensureCapacity(tasks.size() + totalCount);
+            }
+            for (ParsedChunk chunk : chunks) {
+                tasks.addAll(chunk.tasks);
+                failedCount += chunk.failedCount;
+            }
+            return failedCount;
+        }
+    }
+
+    /**
+     * Splits the file into chunks, returning the start offset of every chunk followed by the file size.
+     * Every offset except the last is the start of a line. The split points aimed for are
+     * {@code size * i / chunkCount}, each moved forward to the start of the next line.
+     */
+    private static long[] findChunkBoundaries(FileChannel channel, int requestedChunkCount) throws IOException {
+        long size = channel.size();
+        int cores = Runtime.getRuntime().availableProcessors();
+        long chunkCount = requestedChunkCount > 0
+                ? requestedChunkCount
+                : Math.max(1, Math.min((long) cores * CHUNKS_PER_CORE, size / MIN_CHUNK_BYTES));
+        chunkCount = Math.max(chunkCount, size / MAX_CHUNK_BYTES + 1);
+
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        for (int i = 1; i < chunkCount; i++) {
+            long lineStart = nextLineStart(channel, size * i / chunkCount, buffer);
+            if (lineStart > starts.get(starts.size() - 1) && lineStart < size) {
+                starts.add(lineStart);
+            }
+        }
+
+        long[] boundaries = new long[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+            boundaries[i] = starts.get(i);
+        }
+        boundaries[starts.size()] = size;
+        return boundaries;
+    }
+
+    /**
+     * Returns the offset just after the first line break at or after the given offset.
+     */
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        long offset = position;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Decodes and parses the lines of one chunk of the file.
+     */
+    private static ParsedChunk parseChunk(FileChannel channel, long start, long end, Charset charset)
+            throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        String text = charset.decode(mapped).toString();
+
+        List<Task> tasks = new ArrayList<>();
+        int failedCount = 0;
+        int lineStart = 0;
+        while (lineStart < text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = text.length();
+            }
+            int contentEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            Task task = parseLine(text.substring(lineStart, contentEnd));
+            if (task == null) {
+                failedCount++;
+            } else {
+                tasks.add(task);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new ParsedChunk(tasks, failedCount);
+    }
+
+    /**
+     * Parses a single line, returning null if it is not a valid task.
+     */
+    static Task parseLine(String line) {
+        try {
+            return Task.fromStorageLine(line);
+        } catch (LogosException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The tasks parsed from one chunk, and the number of lines in it that could not be parsed.
+     */
+    private static class ParsedChunk {
+        private final List<Task> tasks;
+        private final int failedCount;
+
+        ParsedChunk(List<Task> tasks, int failedCount) {
+            this.tasks = tasks;
+            this.failedCount = failedCount;
+        }
+    }
+
+    /**
+     * Forks one task per chunk and joins them in file order.
+     */
+    private static class LoadAll extends RecursiveTask<List<ParsedChunk>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FileChannel channel;
+        private final long[] boundaries;
+        private final transient Charset charset;
+
+        LoadAll(FileChannel channel, long[] boundaries, Charset charset) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.charset = charset;
+        }
+
+        @Override
+        protected List<ParsedChunk> compute() {
+            List<LoadChunk> subtasks = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                LoadChunk subtask = new LoadChunk(channel, boundaries[i], boundaries[i + 1], charset);
+                subtask.fork();
+                subtasks.add(subtask);
+            }
+            List<ParsedChunk> chunks = new ArrayList<>();
+            for (LoadChunk subtask : subtasks) {
+                chunks.add(subtask.join());
+            }
+            return chunks;
+        }
+    }
+
+    /**
+     * Parses a single chunk of the file.
+     */
+    private static class LoadChunk extends RecursiveTask<ParsedChunk> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FileChannel channel;
+        private final long start;
+        private final long end;
+        private final transient Charset charset;
+
+        LoadChunk(FileChannel channel, long start, long end, Charset charset) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.charset = charset;
+        }
+
+        @Override
+        protected ParsedChunk compute() {
+            try {
+                return parseChunk(channel, start, end, charset);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
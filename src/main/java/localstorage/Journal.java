@@ -0,0 +1,292 @@
+package localstorage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import errors.LogosException;
+import tasks.Task;
+
+/**
+ * An append-only log of task list mutations, kept next to the snapshot file.
+ * <p>
+ * Each mutation is written as a single line, so the cost of persisting a change
+ * does not depend on how many tasks are in the list. Replaying the journal on top
+ * of the last snapshot reproduces the current task list. The record formats are:
+ * <pre>
+ *   + | &lt;storage line&gt;            appends a task to the end of the list
+ *   I | &lt;index&gt; | &lt;storage line&gt;  inserts a task at a 0-based index
+ *   S | &lt;index&gt; | &lt;0 or 1&gt;        sets the done status of the task at a 0-based index
+ *   - | &lt;index&gt;                   removes the task at a 0-based index
+ * </pre>
+ */
+public class Journal {
+    private static final String SEPARATOR = " | ";
+
+    private final File file;
+    private int recordCount;
+    private long byteCount;
+
+    /**
+     * Creates a journal backed by the given file. The file is created lazily on the first append.
+     *
+     * @param filePath the path of the journal file
+     */
+    public Journal(String filePath) {
+        this.file = new File(filePath);
+        this.recordCount = 0;
+        this.byteCount = 0;
+    }
+
+    /**
+     * Returns the record describing a task appended to the end of the list.
+     *
+     * @param task the task that was added
+     * @return the journal record
+     */
+    public static String additionRecord(Task task) {
+        return "+" + SEPARATOR + task.toStorageLine();
+    }
+
+    /**
+     * Returns the record describing a task inserted at a position in the list.
+     *
+     * @param index the 0-based index the task was inserted at
+     * @param task the task that was inserted
+     * @return the journal record
+     */
+    public static String insertionRecord(int index, Task task) {
+        return "I" + SEPARATOR + index + SEPARATOR + task.toStorageLine();
+    }
+
+    /**
+     * Returns the record describing a change to the done status of a task.
+     *
+     * @param index the 0-based index of the task
+     * @param isDone the new done status of the task
+     * @return the journal record
+     */
+    public static String statusRecord(int index, boolean isDone) {
+        return "S" + SEPARATOR + index + SEPARATOR + (isDone ? 1 : 0);
+    }
+
+    /**
+     * Returns the record describing the removal of a task.
+     *
+     * @param index the 0-based index of the removed task
+     * @return the journal record
+     */
+    public static String deletionRecord(int index) {
+        return "-" + SEPARATOR + index;
+    }
+
+    /**
+     * Appends a single record to the end of the journal.
+     *
+     * @param record the record to append
+     * @throws IOException if the journal file cannot be written
+     */
+    public void append(String record) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
+            writer.write(record);
+            writer.newLine();
+        }
+        recordCount++;
+        byteCount += encodedLength(record) + encodedLength(System.lineSeparator());
+    }
+
+    /**
+     * Appends several records to the end of the journal with a single write.
+     *
+     * @param records the records to append, in order
+     * @throws IOException if the journal file cannot be written
+     */
+    public void appendAll(List<String> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String record : records) {
+            sb.append(record).append(System.lineSeparator());
+        }
+        String text = sb.toString();
+        try (FileWriter writer = new FileWriter(file, true)) {
+            writer.write(text);
+        }
+        recordCount += records.size();
+        byteCount += encodedLength(text);
+    }
+
+    /**
+     * Returns the number of bytes a string takes in the journal file, which is written by a
+     * {@link FileWriter} in the default charset, so that {@link #getByteCount()} matches the file length.
+     */
+    private static long encodedLength(String s) {
+        return s.getBytes(Charset.defaultCharset()).length;
+    }
+
+    /**
+     * Replays every record in the journal on top of the given list of tasks.
+     * <p>
+     * Replay stops at the first record that cannot be applied, which is usually a record
+     * that was only partially written when the program last exited. That record and
+     * everything after it are then cut off, so that new records are not appended to a torn line.
+     *
+     * @param tasks the tasks loaded from the snapshot, updated in place
+     * @return the number of records that were applied
+     * @throws IOException if the journal file cannot be read
+     */
+    public int replay(List<Task> tasks) throws IOException {
+        recordCount = 0;
+        byteCount = 0;
+        if (!file.isFile()) {
+            return 0;
+        }
+        byteCount = file.length();
+
+        boolean isTorn = false;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    apply(line, tasks);
+                } catch (LogosException | RuntimeException e) {
+                    System.out.println("Stopped replaying journal at an unreadable record: " + line);
+                    isTorn = true;
+                    break;
+                }
+                recordCount++;
+            }
+        }
+        if (isTorn) {
+            truncate(recordCount);
+        }
+        return recordCount;
+    }
+
+    /**
+     * Rewrites the journal file so that it only contains its first {@code validRecords} records.
+     */
+    private void truncate(int validRecords) throws IOException {
+        Path path = file.toPath();
+        Path tempPath = Path.of(file.getPath() + ".tmp");
+        List<String> lines = Files.readAllLines(path, Charset.defaultCharset());
+        Files.write(tempPath, lines.subList(0, validRecords), Charset.defaultCharset());
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        byteCount = file.length();
+    }
+
+    /**
+     * Applies a single journal record to the given list of tasks.
+     */
+    private static void apply(String record, List<Task> tasks) throws LogosException {
+        String[] parts = record.split(" \\| ", 2);
+        switch (parts[0]) {
+        case "+":
+            Task task = Task.fromStorageLine(parts[1]);
+            if (task == null) {
+                throw new LogosException("Invalid task in journal record: " + record);
+            }
+            tasks.add(task);
+            break;
+        case "I":
+            String[] insertion = parts[1].split(" \\| ", 2);
+            Task inserted = Task.fromStorageLine(insertion[1]);
+            if (inserted == null) {
+                throw new LogosException("Invalid task in journal record: " + record);
+            }
+            tasks.add(Integer.parseInt(insertion[0]), inserted);
+            break;
+        case "S":
+            String[] status = parts[1].split(" \\| ");
+            int index = Integer.parseInt(status[0]);
+            Task target = tasks.get(index);
+            if (Integer.parseInt(status[1]) == 1) {
+                target.markAsDone();
+            } else {
+                target.markAsNotDone();
+            }
+            // The list may hand out copies of its tasks, so put the changed task back
+            tasks.set(index, target);
+            break;
+        case "-":
+            tasks.remove(Integer.parseInt(parts[1]));
+            break;
+        default:
+            throw new LogosException("Unknown journal record: " + record);
+        }
+    }
+
+    /**
+     * Returns the number of records written to or replayed from the journal
+     * since it was last cleared.
+     *
+     * @return the number of records in the journal
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the size of the journal file in bytes.
+     *
+     * @return the size of the journal in bytes
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Returns whether the journal file currently exists on disk.
+     *
+     * @return true if the journal file exists
+     */
+    public boolean exists() {
+        return file.isFile();
+    }
+
+    /**
+     * Moves every record in this journal to the end of another journal, leaving this journal empty.
+     * <p>
+     * If the other journal does not exist yet, the file is simply renamed, which is atomic.
+     *
+     * @param target the journal that receives the records
+     * @throws IOException if the records cannot be moved
+     */
+    public void moveTo(Journal target) throws IOException {
+        target.recordCount += recordCount;
+        target.byteCount += byteCount;
+        if (file.isFile()) {
+            if (target.exists()) {
+                Files.write(target.file.toPath(), Files.readAllBytes(file.toPath()), StandardOpenOption.APPEND);
+                clear();
+            } else if (!file.renameTo(target.file)) {
+                throw new IOException("Could not move journal to: " + target.file.getPath());
+            }
+        }
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Deletes the journal file, discarding every record in it.
+     *
+     * @throws IOException if the journal file exists but cannot be deleted
+     */
+    public void clear() throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not clear journal: " + file.getPath());
+        }
+        recordCount = 0;
+        byteCount = 0;
+    }
+}
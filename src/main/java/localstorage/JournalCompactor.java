@@ -0,0 +1,82 @@
+package localstorage;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decides when a {@link Journal} has grown large enough to be folded back into the data file,
+ * and runs the compaction on a background thread.
+ * <p>
+ * At most one compaction is queued or running at any time. The thread is a daemon thread, so an
+ * unfinished compaction never keeps the program alive; {@link Storage} recovers from a compaction
+ * that was cut short the next time it starts.
+ */
+public class JournalCompactor {
+    /** Default journal size, in bytes, above which a compaction is started. */
+    public static final long DEFAULT_MAX_JOURNAL_BYTES = 1024 * 1024;
+    /** Default number of journal records above which a compaction is started. */
+    public static final int DEFAULT_MAX_JOURNAL_RECORDS = 10_000;
+
+    private final Storage storage;
+    private final ExecutorService executor;
+    private final AtomicBoolean isPending = new AtomicBoolean(false);
+
+    private volatile long maxJournalBytes = DEFAULT_MAX_JOURNAL_BYTES;
+    private volatile int maxJournalRecords = DEFAULT_MAX_JOURNAL_RECORDS;
+
+    /**
+     * Creates a compactor for the given storage.
+     *
+     * @param storage the storage whose journal is compacted
+     */
+    public JournalCompactor(Storage storage) {
+        this.storage = storage;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "logos-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the journal size and record count above which a compaction is started.
+     *
+     * @param maxJournalBytes the maximum journal size, in bytes
+     * @param maxJournalRecords the maximum number of journal records
+     */
+    public void setThresholds(long maxJournalBytes, int maxJournalRecords) {
+        this.maxJournalBytes = maxJournalBytes;
+        this.maxJournalRecords = maxJournalRecords;
+    }
+
+    /**
+     * Starts a background compaction if the given journals together exceed either threshold.
+     * Returns immediately; the caller never waits for the compaction.
+     *
+     * @param journals the journals whose records have not been folded into the data file yet
+     */
+    public void compactIfNeeded(Journal... journals) {
+        long bytes = 0;
+        long records = 0;
+        for (Journal journal : journals) {
+            bytes += journal.getByteCount();
+            records += journal.getRecordCount();
+        }
+        if (bytes < maxJournalBytes && records < maxJournalRecords) {
+            return;
+        }
+        if (!isPending.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            isPending.set(false);
+            try {
+                storage.compactJournal();
+            } catch (IOException e) {
+                System.out.println("Could not compact the journal: " + e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,378 @@
+package localstorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import tasks.Deadline;
+import tasks.DescriptionPool;
+import tasks.Event;
+import tasks.Task;
+import tasks.Todo;
+
+/**
+ * A data file in which every task occupies a fixed-size, addressable slot.
+ * <p>
+ * Because every slot has the same size, the slot of a task can be found from its number alone.
+ * Marking or unmarking a task is a single one-byte positioned write, and deleting a task only
+ * overwrites the state byte of its slot with a tombstone. New tasks are appended as new slots.
+ * Tombstones are reclaimed by rewriting the file once they outnumber the live tasks, and a
+ * description too long for the current slot size also triggers a rewrite with larger slots.
+ * <p>
+ * The file starts with a header made of the magic number {@code "LOGT"}, a format version and
+ * the slot size. Each slot is laid out as:
+ * <pre>
+ *   state (1 byte: 0 = tombstone, 1 = live) | type (1 byte) | done (1 byte) | recurrence (1 byte)
+ *   | description length (4 bytes) | due or start time (8 bytes) | end time (8 bytes)
+ *   | UTF-8 description (padded to the end of the slot)
+ * </pre>
+ * Times are stored as minutes since the epoch, and how often an event recurs is coded, as in
+ * {@link BinaryTaskFormat}; the recurrence byte is 0 for every other task.
+ */
+public class SlotFile {
+    /** The bytes {@code "LOGT"}, used to recognise slot files. */
+    public static final int MAGIC = 0x4C4F4754;
+    /** The version of the format written by this class. */
+    public static final short VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_HEADER_BYTES = 24;
+    private static final int DEFAULT_SLOT_BYTES = 128;
+    private static final int MIN_TOMBSTONES_TO_RECLAIM = 1024;
+    private static final int BATCH_BYTES = 64 * 1024;
+
+    private static final int STATE_OFFSET = 0;
+    private static final int DONE_OFFSET = 2;
+    private static final byte STATE_TOMBSTONE = 0;
+    private static final byte STATE_LIVE = 1;
+    private static final byte TYPE_TODO = 0;
+    private static final byte TYPE_DEADLINE = 1;
+    private static final byte TYPE_EVENT = 2;
+
+    private final Path path;
+    private FileChannel channel;
+    private int slotBytes;
+    private int slotCount;
+
+    // slots[i] is the number of the slot that holds the task at 0-based index i
+    private int[] slots = new int[16];
+    private int liveCount;
+
+    /**
+     * Creates a slot file at the given path. The file is opened by {@link #load(List)}
+     * or {@link #rewrite(List)}.
+     *
+     * @param path the path of the slot file
+     */
+    public SlotFile(Path path) {
+        this.path = path;
+        this.slotBytes = DEFAULT_SLOT_BYTES;
+    }
+
+    /**
+     * Reads every live task in the file and appends them to the given list, in file order.
+     *
+     * @param tasks the list to which loaded tasks will be added
+     * @throws IOException if the file cannot be read or is not a slot file
+     */
+    public synchronized void load(List<Task> tasks) throws IOException {
+        open();
+        liveCount = 0;
+        if (channel.size() == 0) {
+            writeHeader(channel, slotBytes);
+            slotCount = 0;
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException("Not a slot file: " + path);
+        }
+        short version = header.getShort();
+        if (version > VERSION) {
+            throw new IOException("Unsupported slot file version " + version + ": " + path);
+        }
+        header.getShort();
+        slotBytes = header.getInt();
+        // A slot that was only partly appended when the program last exited is ignored
+        slotCount = (int) ((channel.size() - HEADER_BYTES) / slotBytes);
+
+        ByteBuffer batch = ByteBuffer.allocate(Math.max(1, BATCH_BYTES / slotBytes) * slotBytes);
+        int slotsPerBatch = batch.capacity() / slotBytes;
+        for (int first = 0; first < slotCount; first += slotsPerBatch) {
+            int batchSlots = Math.min(slotsPerBatch, slotCount - first);
+            batch.clear().limit(batchSlots * slotBytes);
+            while (batch.hasRemaining()) {
+                if (channel.read(batch, slotOffset(first) + batch.position()) < 0) {
+                    throw new IOException("Slot file is truncated: " + path);
+                }
+            }
+            for (int i = 0; i < batchSlots; i++) {
+                ByteBuffer slot = batch.slice(i * slotBytes, slotBytes);
+                if (slot.get(STATE_OFFSET) == STATE_LIVE) {
+                    tasks.add(decode(slot));
+                    addSlot(first + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given task fits into a slot of the current size.
+     *
+     * @param task the task to check
+     * @return true if the task can be appended without a rewrite
+     */
+    public synchronized boolean fits(Task task) {
+        return requiredSlotBytes(task) <= slotBytes;
+    }
+
+    /**
+     * Appends a task to the end of the file.
+     *
+     * @param task the task to append; must {@link #fits(Task) fit} into a slot
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void append(Task task) throws IOException {
+        assert fits(task) : "Task does not fit into a slot";
+        ensureLoaded();
+        ByteBuffer slot = ByteBuffer.allocate(slotBytes);
+        encode(task, slot, slotBytes);
+        writeFully(channel, slot, slotOffset(slotCount));
+        addSlot(slotCount);
+        slotCount++;
+    }
+
+    /**
+     * Overwrites the done status of the task at the given index in place.
+     *
+     * @param index the 0-based index of the task
+     * @param isDone the new done status
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void writeStatus(int index, boolean isDone) throws IOException {
+        ensureLoaded();
+        ByteBuffer done = ByteBuffer.wrap(new byte[] {(byte) (isDone ? 1 : 0)});
+        channel.write(done, slotOffset(slots[index]) + DONE_OFFSET);
+    }
+
+    /**
+     * Marks the slot of the task at the given index as a tombstone.
+     *
+     * @param index the 0-based index of the deleted task
+     * @return true if tombstones now outnumber live tasks and the file should be rewritten
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized boolean delete(int index) throws IOException {
+        return deleteAll(new int[] {index});
+    }
+
+    /**
+     * Marks the slots of the tasks at the given indexes as tombstones. The remaining slots are
+     * shifted into place in a single pass, however many tasks are deleted.
+     *
+     * @param indexes the distinct 0-based indexes of the deleted tasks, in ascending order
+     * @return true if tombstones now outnumber live tasks and the file should be rewritten
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized boolean deleteAll(int[] indexes) throws IOException {
+        ensureLoaded();
+        for (int index : indexes) {
+            ByteBuffer tombstone = ByteBuffer.wrap(new byte[] {STATE_TOMBSTONE});
+            channel.write(tombstone, slotOffset(slots[index]) + STATE_OFFSET);
+        }
+        int kept = indexes.length == 0 ? liveCount : indexes[0];
+        int next = 0;
+        for (int i = kept; i < liveCount; i++) {
+            if (next < indexes.length && indexes[next] == i) {
+                next++;
+            } else {
+                slots[kept++] = slots[i];
+            }
+        }
+        liveCount = kept;
+
+        int tombstoneCount = slotCount - liveCount;
+        return tombstoneCount >= MIN_TOMBSTONES_TO_RECLAIM && tombstoneCount > liveCount;
+    }
+
+    /**
+     * Replaces the contents of the file with the given tasks, dropping every tombstone.
+     * The slot size grows if needed to fit the longest description.
+     *
+     * @param tasks the tasks to write, in order
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void rewrite(List<Task> tasks) throws IOException {
+        int newSlotBytes = Math.max(slotBytes, DEFAULT_SLOT_BYTES);
+        for (Task task : tasks) {
+            while (requiredSlotBytes(task) > newSlotBytes) {
+                newSlotBytes *= 2;
+            }
+        }
+
+        Path tempPath = Path.of(path + ".tmp");
+        try (FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(out, newSlotBytes);
+            ByteBuffer batch = ByteBuffer.allocate(Math.max(1, BATCH_BYTES / newSlotBytes) * newSlotBytes);
+            long position = HEADER_BYTES;
+            for (Task task : tasks) {
+                if (batch.remaining() < newSlotBytes) {
+                    position += writeFully(out, batch, position);
+                }
+                encode(task, batch, newSlotBytes);
+            }
+            writeFully(out, batch, position);
+        }
+
+        close();
+        try {
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+
+        slotBytes = newSlotBytes;
+        slotCount = tasks.size();
+        liveCount = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            addSlot(i);
+        }
+    }
+
+    /**
+     * Closes the underlying file channel, if it is open.
+     *
+     * @throws IOException if the channel cannot be closed
+     */
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void open() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+    }
+
+    /**
+     * Builds the slot mapping from the file if the tasks have not been loaded through this instance.
+     */
+    private void ensureLoaded() throws IOException {
+        if (channel == null) {
+            load(new ArrayList<>());
+        }
+    }
+
+    private void addSlot(int slot) {
+        if (liveCount == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        slots[liveCount++] = slot;
+    }
+
+    private long slotOffset(int slot) {
+        return HEADER_BYTES + (long) slot * slotBytes;
+    }
+
+    private static void writeHeader(FileChannel out, int slotBytes) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(slotBytes);
+        header.flip();
+        out.write(header, 0);
+    }
+
+    private static int requiredSlotBytes(Task task) {
+        return SLOT_HEADER_BYTES + task.getDescription().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Writes everything between the start and the position of the buffer at the given file position,
+     * then clears the buffer.
+     *
+     * @return the number of bytes written
+     */
+    private static int writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            out.write(buffer, position + buffer.position());
+        }
+        buffer.clear();
+        return length;
+    }
+
+    /**
+     * Encodes a task as a full slot at the position of the given buffer.
+     */
+    private static void encode(Task task, ByteBuffer slot, int slotBytes) {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int start = slot.position();
+        slot.put(STATE_LIVE);
+        if (task instanceof Deadline deadline) {
+            slot.put(TYPE_DEADLINE).put((byte) (task.isDone() ? 1 : 0)).put((byte) 0);
+            slot.putInt(description.length);
+            slot.putLong(BinaryTaskFormat.toEpochMinute(deadline.getDeadline())).putLong(0);
+        } else if (task instanceof Event event) {
+            slot.put(TYPE_EVENT).put((byte) (task.isDone() ? 1 : 0))
+                    .put((byte) BinaryTaskFormat.recurrenceCode(task));
+            slot.putInt(description.length);
+            slot.putLong(BinaryTaskFormat.toEpochMinute(event.getStartDateTime()));
+            slot.putLong(BinaryTaskFormat.toEpochMinute(event.getEndDateTime()));
+        } else {
+            slot.put(TYPE_TODO).put((byte) (task.isDone() ? 1 : 0)).put((byte) 0);
+            slot.putInt(description.length);
+            slot.putLong(0).putLong(0);
+        }
+        slot.put(description);
+        // Zero the padding, since the buffer may hold an earlier slot
+        while (slot.position() < start + slotBytes) {
+            slot.put((byte) 0);
+        }
+    }
+
+    private static Task decode(ByteBuffer slot) throws IOException {
+        slot.get(); // state
+        byte type = slot.get();
+        boolean isDone = slot.get() == 1;
+        int recurrenceCode = slot.get();
+        int length = slot.getInt();
+        long firstTime = slot.getLong();
+        long secondTime = slot.getLong();
+        if (length < 0 || length > slot.remaining()) {
+            throw new IOException("Invalid description length in slot: " + length);
+        }
+        byte[] description = new byte[length];
+        slot.get(description);
+        String text = DescriptionPool.intern(new String(description, StandardCharsets.UTF_8));
+
+        Task task = switch (type) {
+        case TYPE_TODO -> new Todo(text);
+        case TYPE_DEADLINE -> new Deadline(text, BinaryTaskFormat.fromEpochMinute(firstTime));
+        case TYPE_EVENT -> BinaryTaskFormat.event(text, BinaryTaskFormat.fromEpochMinute(firstTime),
+                BinaryTaskFormat.fromEpochMinute(secondTime), recurrenceCode);
+        default -> throw new IOException("Unknown task type in slot: " + type);
+        };
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+}
@@ -6,7 +6,14 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 import errors.LogosException;
 import tasks.Task;
@@ -14,24 +21,101 @@ import tasks.Task;
 /**
  * Handles persistent storage of {@link Task} objects to and from the local file system.
  * <p>
- * The storage format is defined by {@link Task#toStorageLine()} and {@link Task#fromStorageLine(String)}.
+ * The data file is kept in one of the {@link StorageFormat}s. The text format is defined by
+ * {@link Task#toStorageLine()} and {@link Task#fromStorageLine(String)}, and the binary format by
+ * {@link BinaryTaskFormat}. When the binary format is chosen and only a text data file exists,
+ * the text data file is migrated to the binary format automatically.
+ * <p>
+ * In the slotted format, the data file is a {@link SlotFile} whose records are updated in place,
+ * so marking, unmarking and deleting a task never rewrite the file and no journal is kept.
+ * <p>
+ * In journal mode, individual mutations are appended to a {@link Journal} next to the data file
+ * instead of rewriting the whole file, and the journal is replayed on top of the data file when
+ * tasks are loaded. Full rewrites (e.g. after sorting) fold the journal back into the data file.
+ * Once the journal grows past the thresholds of its {@link JournalCompactor}, it is folded into a
+ * fresh data file on a background thread, which keeps the replay time at startup bounded.
+ * <p>
+ * Both full rewrites and compactions first move the journal into a separate "compacting" segment,
+ * so that new records can keep being appended to a fresh journal while the segment is folded in.
+ * <p>
+ * With write-behind enabled, journal records are handed to a {@link WriteBehindFlusher} and written
+ * in batches on a background thread. The save methods then return before the change is on disk: a
+ * caller takes a {@link #markChanges()} after saving and waits for it with {@link #awaitWritten(long)}
+ * before acknowledging the change, ideally after releasing any lock other writers need, so that their
+ * changes can join the same batch. {@link #flush()} waits until every change made so far is on disk.
+ * <p>
+ * Tasks taken out of the list with {@link #archiveTasks(List, List)} are appended to a compressed
+ * {@link TaskArchive} next to the data file, which is never read by {@link #loadTasks(List)}; they are
+ * only read back by {@link #loadArchivedTasks()}.
  */
 public class Storage {
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String SEGMENT_SUFFIX = ".compacting";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String NEXT_SUFFIX = ".next";
+    private static final String MIGRATED_SUFFIX = ".migrated";
+    private static final String ARCHIVE_EXTENSION = ".archive";
+    /** Data files at least this large are loaded in parallel by a {@link ChunkedTaskLoader}. */
+    private static final long PARALLEL_LOAD_THRESHOLD_BYTES = 1024 * 1024;
+
     private final String filePath;
+    private final StorageFormat format;
+    private final Journal journal;
+    private final Journal compactingSegment;
+    private final JournalCompactor compactor;
+    private final SlotFile slotFile;
+    private final TaskArchive archive;
+    private volatile WriteBehindFlusher writeBehind;
+
+    // Guards appends to the journal against the journal being moved into the compacting segment
+    private final Object journalLock = new Object();
+    // Held for the whole duration of a compaction or full rewrite of the data file
+    private final ReentrantLock rewriteLock = new ReentrantLock();
 
     /**
-     * Creates a new Storage instance for the given file path.
+     * Creates a new Storage instance for the given file path, with journal mode enabled.
      * <p>
      * If the file or its parent directories do not exist, they will be created.
      *
      * @param filePath the path to the file used for persistent storage
      */
     public Storage(String filePath) {
-        this.filePath = filePath;
+        this(filePath, StorageFormat.TEXT, true);
+    }
+
+    /**
+     * Creates a new Storage instance for the given file path.
+     * <p>
+     * If the file or its parent directories do not exist, they will be created. For the binary and
+     * slotted formats, the data file is kept next to {@code filePath} with the format's extension, and
+     * a text data file at {@code filePath} is migrated into it if no such data file exists yet.
+     *
+     * @param filePath the path to the text data file used for persistent storage
+     * @param format the format to keep the data file in
+     * @param isJournaling whether mutations should be appended to a journal instead of
+     *     rewriting the whole file; ignored by the slotted format, which never needs a journal
+     */
+    public Storage(String filePath, StorageFormat format, boolean isJournaling) {
+        this.filePath = dataFilePath(filePath, format);
+        this.format = format;
+        this.slotFile = format == StorageFormat.SLOTTED ? new SlotFile(Path.of(this.filePath)) : null;
+        boolean usesJournal = isJournaling && slotFile == null;
+        this.journal = usesJournal ? new Journal(this.filePath + JOURNAL_SUFFIX) : null;
+        this.compactingSegment = usesJournal ? new Journal(this.filePath + SEGMENT_SUFFIX) : null;
+        this.compactor = usesJournal ? new JournalCompactor(this) : null;
+        // Shared by every format, so that archived tasks stay put when the data file is migrated
+        this.archive = new TaskArchive(Path.of(basePath(filePath) + ARCHIVE_EXTENSION));
+
+        recoverInterruptedSave();
 
-        File f = new File(filePath); // create a File for the given file path
+        File f = new File(this.filePath); // create a File for the given file path
+        if (!f.isFile() && !this.filePath.equals(filePath) && new File(filePath).isFile()) {
+            migrateFromText(filePath);
+        }
         if (!f.isFile()) {
             System.out.println("Could not find existing data file. Creating new data file...");
+            // A journal only makes sense on top of the data file it was written against
+            discardJournal();
             // Ensure parent directories exist
             File parentDir = f.getParentFile();
             if (parentDir != null && !parentDir.exists()) {
@@ -53,32 +137,199 @@ public class Storage {
         }
     }
 
+    /**
+     * Creates a Storage instance configured by the {@code logos.storage.format} ({@code text},
+     * {@code binary} or {@code slotted}, default {@code text}) and {@code logos.storage.journal} ({@code true} or
+     * {@code false}, default {@code true}) system properties. Write-behind is enabled when
+     * {@code logos.storage.writeBehindMillis} is positive, with a batch size given by
+     * {@code logos.storage.writeBehindBatch} (default 256).
+     *
+     * @param filePath the path to the text data file used for persistent storage
+     * @return the configured storage
+     * @throws IllegalArgumentException if {@code logos.storage.format} names an unknown format
+     */
+    public static Storage fromSystemProperties(String filePath) {
+        StorageFormat format = StorageFormat.fromString(System.getProperty("logos.storage.format", "text"));
+        boolean isJournaling = Boolean.parseBoolean(System.getProperty("logos.storage.journal", "true"));
+        Storage storage = new Storage(filePath, format, isJournaling);
+
+        long writeBehindMillis = Long.getLong("logos.storage.writeBehindMillis", 0L);
+        if (storage.isJournaling() && writeBehindMillis > 0) {
+            storage.enableWriteBehind(writeBehindMillis, Integer.getInteger("logos.storage.writeBehindBatch", 256));
+        }
+        return storage;
+    }
+
+    /**
+     * Returns the path of the data file for the given format, based on the path of the text data file.
+     */
+    private static String dataFilePath(String textFilePath, StorageFormat format) {
+        if (format == StorageFormat.TEXT) {
+            return textFilePath;
+        }
+        return basePath(textFilePath) + format.getExtension();
+    }
+
+    /**
+     * Returns the path of the text data file without its extension.
+     */
+    private static String basePath(String textFilePath) {
+        String textExtension = StorageFormat.TEXT.getExtension();
+        return textFilePath.endsWith(textExtension)
+                ? textFilePath.substring(0, textFilePath.length() - textExtension.length())
+                : textFilePath;
+    }
+
+    /**
+     * Copies every task in the text data file (including its journal) into this storage's data file,
+     * then renames the text data file so that it is not migrated again.
+     */
+    private void migrateFromText(String textFilePath) {
+        System.out.println("Migrating tasks from " + textFilePath + " to the " + format.name().toLowerCase()
+                + " format...");
+        Storage textStorage = new Storage(textFilePath, StorageFormat.TEXT, true);
+        List<Task> tasks = new ArrayList<>();
+        textStorage.loadTasks(tasks);
+
+        textStorage.rewriteLock.lock();
+        try {
+            writeSnapshot(tasks);
+            moveAtomically(Path.of(textFilePath), Path.of(textFilePath + MIGRATED_SUFFIX));
+            textStorage.discardJournal();
+            System.out.println("Migration complete. The text data file was kept as " + textFilePath
+                    + MIGRATED_SUFFIX);
+        } catch (IOException e) {
+            System.out.println("An error occurred while migrating the data file.");
+            e.printStackTrace();
+        } finally {
+            textStorage.rewriteLock.unlock();
+        }
+    }
+
+    /**
+     * Makes journal records be written in batches by a background thread instead of one by one.
+     * <p>
+     * A shutdown hook flushes any pending records when the JVM exits.
+     *
+     * @param maxDelayMillis the longest time a change may wait before it is written
+     * @param maxBatchSize the number of pending changes that triggers a write straight away
+     * @throws IllegalStateException if journal mode is disabled
+     */
+    public synchronized void enableWriteBehind(long maxDelayMillis, int maxBatchSize) {
+        if (journal == null) {
+            throw new IllegalStateException("Write-behind requires journal mode");
+        }
+        if (writeBehind != null) {
+            return;
+        }
+        writeBehind = new WriteBehindFlusher(this, maxDelayMillis, maxBatchSize);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                System.out.println("Could not save pending changes: " + e.getMessage());
+            }
+        }, "logos-write-behind-shutdown"));
+    }
+
+    /**
+     * Returns a mark standing for every change passed to this storage so far, to wait for with
+     * {@link #awaitWritten(long)}.
+     *
+     * @return the mark
+     */
+    public long markChanges() {
+        WriteBehindFlusher flusher = writeBehind;
+        return flusher == null ? 0 : flusher.getEnqueuedCount();
+    }
+
+    /**
+     * Blocks until every change passed to this storage before the mark was taken has been written to
+     * disk, which happens once the write-behind batch it is in is due. Returns immediately unless
+     * write-behind is enabled, since changes are otherwise written before the save methods return.
+     *
+     * @param mark a mark returned by {@link #markChanges()}
+     * @throws IOException if the changes could not be written; they remain queued and will be retried
+     */
+    public void awaitWritten(long mark) throws IOException {
+        WriteBehindFlusher flusher = writeBehind;
+        if (flusher != null) {
+            flusher.awaitWritten(mark);
+        }
+    }
+
+    /**
+     * Blocks until every change passed to this storage so far has been written to disk.
+     * Returns immediately unless write-behind is enabled.
+     *
+     * @throws IOException if pending changes could not be written
+     */
+    public void flush() throws IOException {
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+    }
+
+    /**
+     * Returns the format the data file is kept in.
+     *
+     * @return the storage format
+     */
+    public StorageFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Returns whether mutations are appended to a journal instead of rewriting the whole file.
+     *
+     * @return true if journal mode is enabled
+     */
+    public boolean isJournaling() {
+        return journal != null;
+    }
+
+    /**
+     * Returns the compactor that folds the journal back into the data file, if journal mode is enabled.
+     *
+     * @return the journal compactor, or null if journal mode is disabled
+     */
+    public JournalCompactor getCompactor() {
+        return compactor;
+    }
+
     /**
      * Loads tasks from the storage file and appends them to the provided list.
      * <p>
-     * Each line in the file is parsed into a {@link Task} using
-     * {@link Task#fromStorageLine(String)}.
+     * In the text format, each line in the file is parsed into a {@link Task} using
+     * {@link Task#fromStorageLine(String)}; lines that cannot be parsed are skipped and counted
+     * as failed. Large text files are parsed in parallel by a {@link ChunkedTaskLoader}. In journal
+     * mode, the journal is then replayed on top of the loaded tasks.
      *
      * @param tasks the list to which loaded tasks will be added
      */
     public void loadTasks(List<Task> tasks) {
         System.out.println("Loading tasks from local storage...");
 
-        int successCount = 0;
+        int initialSize = tasks.size();
         int failedCount = 0;
-        try (BufferedReader reader = new BufferedReader(new FileReader(this.filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                tasks.add(Task.fromStorageLine(line));
-                successCount++;
+        try {
+            long fileSize = new File(filePath).length();
+            if (format == StorageFormat.SLOTTED) {
+                slotFile.load(tasks);
+            } else if (format == StorageFormat.BINARY) {
+                if (fileSize > 0) {
+                    BinaryTaskFormat.read(Path.of(filePath), tasks);
+                }
+            } else if (fileSize >= PARALLEL_LOAD_THRESHOLD_BYTES) {
+                failedCount = new ChunkedTaskLoader(Path.of(filePath), Charset.defaultCharset()).load(tasks);
+            } else {
+                failedCount = loadSequentially(tasks);
             }
         } catch (IOException e) {
             e.printStackTrace();
             failedCount++;
-        } catch (LogosException e) {
-            System.out.println(e.getMessage());
-            failedCount++;
         }
+        int successCount = tasks.size() - initialSize;
 
         // Show loading results
         if (successCount + failedCount <= 0) {
@@ -91,24 +342,437 @@ public class Storage {
                             successCount,
                             failedCount));
         }
+
+        if (journal != null) {
+            try {
+                int replayedCount = compactingSegment.replay(tasks) + journal.replay(tasks);
+                if (replayedCount > 0) {
+                    System.out.println(String.format("Replayed %d changes from the journal", replayedCount));
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            compactor.compactIfNeeded(compactingSegment, journal);
+        }
+    }
+
+    /**
+     * Parses the data file line by line on the calling thread, returning the number of
+     * lines that could not be parsed.
+     */
+    private int loadSequentially(List<Task> tasks) throws IOException {
+        int failedCount = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(this.filePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Task task = ChunkedTaskLoader.parseLine(line);
+                if (task == null) {
+                    failedCount++;
+                } else {
+                    tasks.add(task);
+                }
+            }
+        }
+        return failedCount;
+    }
+
+    /**
+     * Reads every task in the data file, failing if any line cannot be parsed.
+     */
+    private List<Task> readSnapshot() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        if (format == StorageFormat.BINARY) {
+            if (new File(filePath).length() > 0) {
+                BinaryTaskFormat.read(Path.of(filePath), tasks);
+            }
+            return tasks;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(this.filePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Task task = Task.fromStorageLine(line);
+                if (task == null) {
+                    throw new IOException("Invalid line in data file: " + line);
+                }
+                tasks.add(task);
+            }
+        } catch (LogosException | RuntimeException e) {
+            throw new IOException("Invalid data file: " + e.getMessage(), e);
+        }
+        return tasks;
     }
 
     /**
      * Saves the given tasks to the storage file, overwriting any existing content.
      * <p>
-     * Each task is serialized into a line using {@link Task#toStorageLine()}.
+     * Each task is serialized into a line using {@link Task#toStorageLine()}. The tasks are
+     * written to a temporary file first, which then replaces the storage file, so an
+     * interrupted save never leaves a half-written storage file behind. Any journal
+     * records are folded into the new file and the journal is cleared. If a background
+     * compaction is in progress, or write-behind records are pending, this waits for them first.
      *
      * @param tasks the list of tasks to save
      * @throws IOException if an I/O error occurs while writing to the file
      */
     public void saveTasks(List<Task> tasks) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(this.filePath))) {
-            for (Task task : tasks) {
-                writer.write(task.toStorageLine());
-                writer.newLine();
+        // Pending records describe changes that the new data file already contains
+        flush();
+        rewriteLock.lock();
+        try {
+            if (journal != null) {
+                synchronized (journalLock) {
+                    journal.moveTo(compactingSegment);
+                }
+            }
+            writeSnapshot(tasks);
+        } finally {
+            rewriteLock.unlock();
+        }
+    }
+
+    /**
+     * Folds the compacting segment and the journal into a fresh data file.
+     * <p>
+     * Only the brief move of the journal into the compacting segment excludes journal appends;
+     * reading, replaying and writing the data file happen without blocking them.
+     *
+     * @throws IOException if the data file or the journal cannot be read or written
+     */
+    void compactJournal() throws IOException {
+        rewriteLock.lock();
+        try {
+            synchronized (journalLock) {
+                journal.moveTo(compactingSegment);
+            }
+            if (!compactingSegment.exists()) {
+                return;
+            }
+            List<Task> tasks = readSnapshot();
+            compactingSegment.replay(tasks);
+            writeSnapshot(tasks);
+        } finally {
+            rewriteLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the given tasks to a temporary file, then makes it the new data file and discards
+     * the compacting segment that it supersedes.
+     */
+    private void writeSnapshot(List<Task> tasks) throws IOException {
+        if (slotFile != null) {
+            slotFile.rewrite(tasks);
+            return;
+        }
+        Path tempPath = Path.of(filePath + TEMP_SUFFIX);
+        if (format == StorageFormat.BINARY) {
+            BinaryTaskFormat.write(tasks, tempPath);
+        } else {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(tempPath.toFile()))) {
+                for (Task task : tasks) {
+                    writer.write(task.toStorageLine());
+                    writer.newLine();
+                }
+            }
+        }
+
+        // Once the ".next" file exists, it is the authoritative copy (see recoverInterruptedSave)
+        Path nextPath = Path.of(filePath + NEXT_SUFFIX);
+        moveAtomically(tempPath, nextPath);
+        if (compactingSegment != null) {
+            compactingSegment.clear();
+        }
+        moveAtomically(nextPath, Path.of(filePath));
+    }
+
+    /**
+     * Persists the addition of a task to the end of the list.
+     *
+     * @param tasks the full list of tasks, including the new task
+     * @param task the task that was added
+     * @throws IOException if an I/O error occurs while writing to storage
+     */
+    public void saveAddition(List<Task> tasks, Task task) throws IOException {
+        if (slotFile != null && slotFile.fits(task)) {
+            slotFile.append(task);
+            return;
+        }
+        if (journal == null) {
+            saveTasks(tasks);
+            return;
+        }
+        appendToJournal(Journal.additionRecord(task));
+    }
+
+    /**
+     * Persists the insertion of a task at a position in the list.
+     * <p>
+     * An insertion at the end is saved like any other addition. The slotted format keeps its slots
+     * in list order and cannot insert between them, so it rewrites the file instead.
+     *
+     * @param tasks the full list of tasks, including the new task
+     * @param index the 0-based index the task was inserted at
+     * @throws IOException if an I/O error occurs while writing to storage
+     */
+    public void saveInsertion(List<Task> tasks, int index) throws IOException {
+        if (index == tasks.size() - 1) {
+            saveAddition(tasks, tasks.get(index));
+            return;
+        }
+        if (journal == null) {
+            saveTasks(tasks);
+            return;
+        }
+        appendToJournal(Journal.insertionRecord(index, tasks.get(index)));
+    }
+
+    /**
+     * Persists the insertion of several tasks at once.
+     * <p>
+     * The insertion records are journaled from the lowest index to the highest, so that replaying them
+     * one by one puts every task at its final position. Formats without a journal rewrite the file once.
+     *
+     * @param tasks the full list of tasks, including the new tasks
+     * @param indexes the 0-based indexes the tasks were inserted at, in ascending order
+     * @throws IOException if an I/O error occurs while writing to storage
+     */
+    public void saveInsertions(List<Task> tasks, int[] indexes) throws IOException {
+        if (indexes.length == 0) {
+            return;
+        }
+        if (indexes.length == 1) {
+            saveInsertion(tasks, indexes[0]);
+            return;
+        }
+        if (journal == null) {
+            saveTasks(tasks);
+            return;
+        }
+        List<String> records = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            records.add(Journal.insertionRecord(index, tasks.get(index)));
+        }
+        appendToJournal(records);
+    }
+
+    /**
+     * Persists a change to the done status of a task.
+     *
+     * @param tasks the full list of tasks
+     * @param index the 0-based index of the task whose status changed
+     * @throws IOException if an I/O error occurs while writing to storage
+     */
+    public void saveStatusChange(List<Task> tasks, int index) throws IOException {
+        if (slotFile != null) {
+            slotFile.writeStatus(index, tasks.get(index).isDone());
+            return;
+        }
+        if (journal == null) {
+            saveTasks(tasks);
+            return;
+        }
+        appendToJournal(Journal.statusRecord(index, tasks.get(index).isDone()));
+    }
+
+    /**
+     * Persists the removal of a task.
+     *
+     * @param tasks the full list of tasks, without the removed task
+     * @param index the 0-based index the removed task used to have
+     * @throws IOException if an I/O error occurs while writing to storage
+     */
+    public void saveDeletion(List<Task> tasks, int index) throws IOException {
+        if (slotFile != null) {
+            if (slotFile.delete(index)) {
+                // Tombstones outnumber live tasks, so reclaim their space
+                saveTasks(tasks);
+            }
+            return;
+        }
+        if (journal == null) {
+            saveTasks(tasks);
+            return;
+        }
+        appendToJournal(Journal.deletionRecord(index));
+    }
+
+    /**
+     * Persists changes to the done status of several tasks at once.
+     * <p>
+     * In journal mode, the changes are written as one batch of records; the slotted format
+     * updates each status byte in place. Otherwise the file is rewritten once.
+     *
+     * @param tasks the full list of tasks
+     * @param indexes the 0-based indexes of the tasks whose status changed
+     * @throws IOException if an I/O error occurs while writing to storage
+     */
+    public void saveStatusChanges(List<Task> tasks, int[] indexes) throws IOException {
+        if (indexes.length == 0) {
+            return;
+        }
+        if (slotFile != null) {
+            for (int index : indexes) {
+                slotFile.writeStatus(index, tasks.get(index).isDone());
+            }
+            return;
+        }
+        if (journal == null) {
+            saveTasks(tasks);
+            return;
+        }
+        List<String> records = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            records.add(Journal.statusRecord(index, tasks.get(index).isDone()));
+        }
+        appendToJournal(records);
+    }
+
+    /**
+     * Persists the removal of several tasks at once.
+     * <p>
+     * The deletion records are journaled from the highest index to the lowest, so that replaying
+     * them one by one removes the same tasks.
+     *
+     * @param tasks the full list of tasks, without the removed tasks
+     * @param indexes the 0-based indexes the removed tasks used to have, in ascending order
+     * @throws IOException if an I/O error occurs while writing to storage
+     */
+    public void saveDeletions(List<Task> tasks, int[] indexes) throws IOException {
+        if (indexes.length == 0) {
+            return;
+        }
+        if (slotFile != null) {
+            if (slotFile.deleteAll(indexes)) {
+                // Tombstones outnumber live tasks, so reclaim their space
+                saveTasks(tasks);
+            }
+            return;
+        }
+        if (journal == null) {
+            saveTasks(tasks);
+            return;
+        }
+        List<String> records = new ArrayList<>(indexes.length);
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            records.add(Journal.deletionRecord(indexes[i]));
+        }
+        appendToJournal(records);
+    }
+
+    /**
+     * Moves tasks that have been removed from the list into the archive, then saves the remaining tasks.
+     * <p>
+     * The archived tasks are appended to the archive before the data file is rewritten without them,
+     * so a crash in between leaves them in both places rather than in neither. The rewrite folds the
+     * journal into the data file, which then only holds the tasks still in the list.
+     *
+     * @param tasks the full list of tasks, without the archived tasks
+     * @param archived the tasks to archive, in order
+     * @throws IOException if the archive or the data file cannot be written
+     */
+    public void archiveTasks(List<Task> tasks, List<Task> archived) throws IOException {
+        if (archived.isEmpty()) {
+            return;
+        }
+        archive.append(archived);
+        saveTasks(tasks);
+    }
+
+    /**
+     * Reads every archived task, in the order the tasks were archived. The archive is read from disk on
+     * every call and is not kept in memory.
+     *
+     * @return the archived tasks
+     * @throws IOException if the archive cannot be read
+     */
+    public List<Task> loadArchivedTasks() throws IOException {
+        return archive.load();
+    }
+
+    /**
+     * Appends a record to the journal, or queues it if write-behind is enabled.
+     */
+    private void appendToJournal(String record) throws IOException {
+        appendToJournal(List.of(record));
+    }
+
+    /**
+     * Appends records to the journal in a single write, or queues them if write-behind is enabled.
+     */
+    private void appendToJournal(List<String> records) throws IOException {
+        if (writeBehind != null) {
+            for (String record : records) {
+                writeBehind.enqueue(record);
+            }
+            return;
+        }
+        writeJournalRecords(records);
+    }
+
+    /**
+     * Writes records to the journal and starts a background compaction if the journal has grown too large.
+     *
+     * @param records the records to write, in order
+     * @throws IOException if the journal cannot be written
+     */
+    void writeJournalRecords(List<String> records) throws IOException {
+        synchronized (journalLock) {
+            if (records.size() == 1) {
+                journal.append(records.get(0));
+            } else {
+                journal.appendAll(records);
+            }
+            compactor.compactIfNeeded(journal);
+        }
+    }
+
+    /**
+     * Completes a save that was interrupted after the new storage file was fully written.
+     * <p>
+     * A ".next" file is only ever created from a complete temporary file, so if one exists
+     * it already contains every change in the compacting segment and replaces both the storage file
+     * and that segment. Changes appended to the journal after the segment was moved aside are kept.
+     */
+    private void recoverInterruptedSave() {
+        try {
+            Files.deleteIfExists(Path.of(filePath + TEMP_SUFFIX));
+            Path nextPath = Path.of(filePath + NEXT_SUFFIX);
+            if (Files.exists(nextPath)) {
+                System.out.println("Recovering data file from an interrupted save...");
+                if (compactingSegment != null) {
+                    compactingSegment.clear();
+                }
+                moveAtomically(nextPath, Path.of(filePath));
             }
         } catch (IOException e) {
+            System.out.println("An error occurred while recovering the data file.");
             e.printStackTrace();
         }
     }
+
+    /**
+     * Deletes the journal and the compacting segment, if journal mode is enabled.
+     */
+    private void discardJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.clear();
+            compactingSegment.clear();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Moves a file over another, atomically if the file system supports it.
+     */
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package localstorage;
+
+/**
+ * The on-disk formats that {@link Storage} can keep its data file in.
+ */
+public enum StorageFormat {
+    /** One human-readable line per task, as produced by {@code Task#toStorageLine()}. */
+    TEXT("text", ".txt"),
+    /** The compact, versioned binary format defined by {@link BinaryTaskFormat}. */
+    BINARY("binary", ".bin"),
+    /** Fixed-size records that are updated in place, as defined by {@link SlotFile}. */
+    SLOTTED("slotted", ".slots");
+
+    private final String name;
+    private final String extension;
+
+    StorageFormat(String name, String extension) {
+        this.name = name;
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Returns the format with the given name, ignoring case.
+     *
+     * @param name the name of the format, e.g. {@code "binary"}
+     * @return the matching format
+     * @throws IllegalArgumentException if no format has the given name
+     */
+    public static StorageFormat fromString(String name) {
+        for (StorageFormat format : values()) {
+            if (format.name.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown storage format: " + name);
+    }
+}
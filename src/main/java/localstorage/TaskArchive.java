@@ -0,0 +1,183 @@
+package localstorage;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import errors.LogosException;
+import tasks.Task;
+
+/**
+ * A cold archive of tasks taken out of the task list, kept in a compressed, append-only file.
+ * <p>
+ * The file starts with the magic number {@code "LOGA"} and a format version. Every call to
+ * {@link #append(List)} then adds one batch of tasks:
+ * <pre>
+ *   compressed length (4 bytes) | gzip-compressed storage lines
+ * </pre>
+ * The tasks of a batch are written as the lines of {@link Task#toStorageLine()}, whatever the format of
+ * the data file, and compressed together. Nothing already in the file is rewritten, so archiving costs
+ * the same however large the archive has grown, and the archive is only read when it is asked for:
+ * archived tasks add nothing to loading or saving the task list.
+ * <p>
+ * A batch cut short by a crash is dropped. Reading stops before it, and the next append cuts it off
+ * first, so a new batch is never written after a torn one.
+ */
+public class TaskArchive {
+    /** The bytes {@code "LOGA"}, used to recognise archive files. */
+    public static final int MAGIC = 0x4C4F4741;
+    /** The version of the format written by this class. */
+    public static final short VERSION = 1;
+
+    private static final int HEADER_BYTES = 6;
+    private static final int BATCH_HEADER_BYTES = 4;
+
+    private final Path path;
+    // Whether the end of the file has been checked for a torn batch since this archive was created
+    private boolean isChecked;
+
+    /**
+     * Creates an archive backed by the given file. The file is created on the first append.
+     *
+     * @param path the path of the archive file
+     */
+    public TaskArchive(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns whether anything has been archived yet.
+     *
+     * @return true if the archive file exists
+     */
+    public boolean exists() {
+        return Files.isRegularFile(path);
+    }
+
+    /**
+     * Appends tasks to the archive as one batch, and waits until the batch is on disk.
+     *
+     * @param tasks the tasks to archive, in order
+     * @throws IOException if the archive cannot be written, or the file is not an archive
+     */
+    public synchronized void append(List<Task> tasks) throws IOException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(compressed), StandardCharsets.UTF_8)) {
+            for (Task task : tasks) {
+                writer.write(task.toStorageLine());
+                writer.write('\n');
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long end = isChecked ? channel.size() : validLength(channel);
+            isChecked = true;
+            if (end < channel.size()) {
+                channel.truncate(end);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((end == 0 ? HEADER_BYTES : 0) + BATCH_HEADER_BYTES
+                    + compressed.size());
+            if (end == 0) {
+                buffer.putInt(MAGIC).putShort(VERSION);
+            }
+            buffer.putInt(compressed.size()).put(compressed.toByteArray()).flip();
+            channel.position(end);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Reads every task in the archive, oldest batch first.
+     *
+     * @return the archived tasks, or an empty list if nothing has been archived
+     * @throws IOException if the archive cannot be read, or holds a task that cannot be parsed
+     */
+    public synchronized List<Task> load() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        if (!exists()) {
+            return tasks;
+        }
+        ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (file.remaining() < HEADER_BYTES) {
+            return tasks;
+        }
+        if (file.getInt() != MAGIC) {
+            throw new IOException("Not a task archive");
+        }
+        file.getShort();
+        while (file.remaining() >= BATCH_HEADER_BYTES) {
+            int length = file.getInt();
+            if (length < 0 || length > file.remaining()) {
+                // A torn batch
+                break;
+            }
+            readBatch(file.array(), file.position(), length, tasks);
+            file.position(file.position() + length);
+        }
+        return tasks;
+    }
+
+    /**
+     * Steps over the batches of the file by their headers and returns the position after the last
+     * complete batch, or 0 if the file does not have a complete header.
+     */
+    private static long validLength(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a task archive");
+        }
+        long position = HEADER_BYTES;
+        while (position + BATCH_HEADER_BYTES <= size) {
+            header.clear().limit(BATCH_HEADER_BYTES);
+            channel.read(header, position);
+            int length = header.getInt(0);
+            if (length < 0 || position + BATCH_HEADER_BYTES + length > size) {
+                break;
+            }
+            position += BATCH_HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static void readBatch(byte[] bytes, int offset, int length, List<Task> tasks) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(bytes, offset, length)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Task task = Task.fromStorageLine(line);
+                if (task == null) {
+                    throw new IOException("Invalid task in archive: " + line);
+                }
+                tasks.add(task);
+            }
+        } catch (LogosException | RuntimeException e) {
+            throw new IOException("Invalid archive: " + e.getMessage(), e);
+        }
+    }
+}
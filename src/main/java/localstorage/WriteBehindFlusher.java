@@ -0,0 +1,174 @@
+package localstorage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects journal records and writes them to the journal in batches on a dedicated thread.
+ * <p>
+ * Records are enqueued without waiting for the disk. The flusher thread waits until either
+ * {@code maxBatchSize} records are pending or the oldest pending record is {@code maxDelayMillis}
+ * old, then writes every pending record with a single write. Records are always written in the order
+ * they were enqueued. A change is only acknowledged once {@link #awaitWritten(long)} has returned for
+ * it, so this is group commit: each change waits at most {@code maxDelayMillis} plus one write, and
+ * the changes made by every thread in that time share the write. If a write fails, the records stay
+ * queued and are retried, and the failure is thrown to everyone waiting for them.
+ */
+public class WriteBehindFlusher {
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final Storage storage;
+    private final long maxDelayMillis;
+    private final int maxBatchSize;
+    private final Thread thread;
+
+    // All fields below are guarded by this object's monitor
+    private List<String> pending = new ArrayList<>();
+    private long oldestPendingNanos;
+    private long enqueuedCount;
+    private long writtenCount;
+    private boolean isFlushRequested;
+    private IOException lastFailure;
+
+    /**
+     * Creates and starts a flusher that writes batches of records through the given storage.
+     *
+     * @param storage the storage whose journal receives the records
+     * @param maxDelayMillis the longest time a record may wait before it is written
+     * @param maxBatchSize the number of pending records that triggers a write straight away
+     */
+    public WriteBehindFlusher(Storage storage, long maxDelayMillis, int maxBatchSize) {
+        this.storage = storage;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.thread = new Thread(this::run, "logos-write-behind");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues a record to be written to the journal.
+     *
+     * @param record the record to write
+     * @return the number of records enqueued so far, to pass to {@link #awaitWritten(long)}
+     */
+    public synchronized long enqueue(String record) {
+        boolean wasEmpty = pending.isEmpty();
+        if (wasEmpty) {
+            oldestPendingNanos = System.nanoTime();
+        }
+        pending.add(record);
+        enqueuedCount++;
+        // The flusher sleeps without a timeout while nothing is pending, so start its delay now
+        if (wasEmpty || pending.size() >= maxBatchSize) {
+            notifyAll();
+        }
+        return enqueuedCount;
+    }
+
+    /**
+     * Returns the number of records enqueued so far.
+     *
+     * @return the count, to pass to {@link #awaitWritten(long)}
+     */
+    public synchronized long getEnqueuedCount() {
+        return enqueuedCount;
+    }
+
+    /**
+     * Blocks until the first {@code count} records enqueued have been written to the journal, leaving
+     * the flusher to write them when its batch is due.
+     *
+     * @param count the number of records to wait for, as returned by {@link #enqueue(String)}
+     * @throws IOException if the records could not be written; they remain queued and will be retried
+     */
+    public synchronized void awaitWritten(long count) throws IOException {
+        await(count, false);
+    }
+
+    /**
+     * Blocks until every record enqueued before this call has been written to the journal, writing
+     * them straight away.
+     *
+     * @throws IOException if the records could not be written; they remain queued and will be retried
+     */
+    public synchronized void flush() throws IOException {
+        await(enqueuedCount, true);
+    }
+
+    private void await(long count, boolean isUrgent) throws IOException {
+        while (writtenCount < count) {
+            if (lastFailure != null) {
+                throw lastFailure;
+            }
+            if (isUrgent) {
+                isFlushRequested = true;
+                notifyAll();
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while flushing the journal", e);
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<String> batch;
+            long batchEnd;
+            synchronized (this) {
+                try {
+                    waitForBatch();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                batch = pending;
+                batchEnd = enqueuedCount;
+                pending = new ArrayList<>();
+                isFlushRequested = false;
+            }
+
+            try {
+                storage.writeJournalRecords(batch);
+                synchronized (this) {
+                    writtenCount = batchEnd;
+                    lastFailure = null;
+                    notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    // Put the batch back in front of anything enqueued since, to keep the order
+                    batch.addAll(pending);
+                    pending = batch;
+                    lastFailure = e;
+                    notifyAll();
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until there are pending records and one of the conditions for writing them holds.
+     */
+    private void waitForBatch() throws InterruptedException {
+        while (true) {
+            if (pending.isEmpty()) {
+                wait();
+                continue;
+            }
+            long waitedMillis = (System.nanoTime() - oldestPendingNanos) / 1_000_000;
+            if (isFlushRequested || pending.size() >= maxBatchSize || waitedMillis >= maxDelayMillis) {
+                return;
+            }
+            wait(maxDelayMillis - waitedMillis);
+        }
+    }
+}
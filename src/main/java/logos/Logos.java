@@ -1,6 +1,7 @@
 package logos;
 
 import java.io.IOException;
+import java.time.LocalDate;
 
 import ui.Ui;
 
@@ -28,7 +29,7 @@ public class Logos {
 
     public Logos() {
         // Initialise Tasks
-        this.storage = new Storage(LOCAL_STORAGE_FILE_PATH);
+        this.storage = Storage.fromSystemProperties(LOCAL_STORAGE_FILE_PATH);
         this.taskList = new TaskList(storage);
         taskList.loadFromStorgae();
 
@@ -71,6 +72,6 @@ public class Logos {
     }
 
     public String getWelcome() {
-        return ui.showWelcome("Logos", "Logos");
+        return ui.showWelcome("Logos", "Logos", taskList.getCounts(LocalDate.now()));
     }
 }
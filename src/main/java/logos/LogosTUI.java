@@ -1,6 +1,7 @@
 package logos;
 
 import java.io.IOException;
+import java.time.LocalDate;
 
 import ui.Ui;
 
@@ -22,7 +23,7 @@ public class LogosTUI {
 
     public static void main(String[] args) {
         // Initialise Tasks
-        LogosTUI.storage = new Storage(LOCAL_STORAGE_FILE_PATH);
+        LogosTUI.storage = Storage.fromSystemProperties(LOCAL_STORAGE_FILE_PATH);
         LogosTUI.taskList = new TaskList(storage);
         LogosTUI.taskList.loadFromStorgae();
 
@@ -37,7 +38,7 @@ public class LogosTUI {
                 + "| |__| (_) | (_| | (_) \\__ \\ \n"
                 + "|_____\\___/ \\__, |\\___/|___/ \n"
                 + "            |___/            \n";
-        ui.showWelcome(logo, "Logos");
+        ui.showWelcome(logo, "Logos", taskList.getCounts(LocalDate.now()));
 
         // Input and Response
         boolean isActive = true;
@@ -1,33 +1,59 @@
 package parser;
 
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
+import commands.ArchiveCommand;
+import commands.AtCommand;
 import commands.ByeCommand;
 import commands.Command;
 import commands.CommandType;
 import commands.DeadlineCommand;
 import commands.DeleteCommand;
+import commands.DueCommand;
 import commands.EventCommand;
 import commands.FindCommand;
 import commands.ListCommand;
 import commands.MarkCommand;
+import commands.NextCommand;
+import commands.RedoCommand;
 import commands.SortCommand;
+import commands.StatsCommand;
 import commands.TodoCommand;
+import commands.UndoCommand;
 import commands.UnmarkCommand;
+import commands.UpcomingCommand;
 import errors.InvalidCommandFormatException;
 import errors.LogosException;
 import errors.UnknownCommandException;
+import tasklist.TaskRef;
+import tasklist.TaskSelection;
+import tasks.Recurrence;
 
 /**
  * Parses raw user input into executable {@link Command} objects.
  *
  * Date/time fields are parsed using the pattern {@code yyyy-MM-dd HHmm}
  * (e.g., {@code 2019-12-02 1800}).
+ * <p>
+ * The commands that add tasks or take dates ({@code todo}, {@code deadline}, {@code event}, {@code due}
+ * and {@code at}) are parsed in place: their argument is worked on as a range of positions in the input
+ * line, markers such as {@code /by} are found by a case-insensitive search of that range, and dates are
+ * decoded digit by digit. On valid input, the description is then the only string copied out of the
+ * line. Dates that are not plainly valid, such as February 30, are left to the {@link DateTimeFormatter}
+ * so that they are resolved or rejected exactly as before.
  */
 public class Parser {
     private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    /** The length of a date and time in the {@code yyyy-MM-dd HHmm} format. */
+    private static final int DATE_TIME_LENGTH = 15;
+    /** Stands for the position of the argument when the input has none. */
+    private static final int NO_ARGUMENT = -1;
+    private static final Recurrence[] RECURRENCES = Recurrence.values();
+    private static final String DATE_ERROR = "Date should be yyyy-MM-dd HHmm, e.g., 2019-12-02 1800";
     private CommandType currentCommandType;
 
      /**
@@ -45,24 +71,31 @@ public class Parser {
       * @throws LogosException if another parsing-related error occurs
       */
     public Command parse(String userInput) throws LogosException {
-        String[] parts = userInput.split(" ", 2); // split into [command, argument]
-        assert parts.length >= 1 : "Parser must always find at least one word";
-        String commandKeyword = parts[0];
-        String argument = parts.length > 1 ? parts[1] : null;
-        CommandType commandType = CommandType.fromString(commandKeyword);
+        // The keyword ends at the first space and the argument, if any, is the rest of the line
+        int spacePos = userInput.indexOf(' ');
+        CommandType commandType = CommandType.fromString(userInput, spacePos < 0 ? userInput.length() : spacePos);
         this.currentCommandType = commandType;
+        int argStart = spacePos < 0 ? NO_ARGUMENT : spacePos + 1;
 
         return switch (commandType) {
             case BYE     -> parseBye();
-            case LIST    -> parseList();
-            case TODO    -> parseTodo(argument);
-            case DEADLINE-> parseDeadline(argument);
-            case EVENT   -> parseEvent(argument);
-            case MARK    -> parseMark(argument);
-            case UNMARK  -> parseUnmark(argument);
-            case DELETE  -> parseDelete(argument);
-            case FIND    -> parseFind(argument);
-            case SORT    -> parseSort();
+            case LIST    -> parseList(argumentOf(userInput, argStart));
+            case TODO    -> parseTodo(userInput, argStart);
+            case DEADLINE-> parseDeadline(userInput, argStart);
+            case EVENT   -> parseEvent(userInput, argStart);
+            case MARK    -> parseMark(argumentOf(userInput, argStart));
+            case UNMARK  -> parseUnmark(argumentOf(userInput, argStart));
+            case DELETE  -> parseDelete(argumentOf(userInput, argStart));
+            case FIND    -> parseFind(argumentOf(userInput, argStart));
+            case SORT    -> parseSort(argumentOf(userInput, argStart));
+            case DUE     -> parseDue(userInput, argStart);
+            case UPCOMING-> parseUpcoming(argumentOf(userInput, argStart));
+            case NEXT    -> parseNext(argumentOf(userInput, argStart));
+            case AT      -> parseAt(userInput, argStart);
+            case STATS   -> parseStats(argumentOf(userInput, argStart));
+            case UNDO    -> parseUndo(argumentOf(userInput, argStart));
+            case REDO    -> parseRedo(argumentOf(userInput, argStart));
+            case ARCHIVE -> parseArchive(argumentOf(userInput, argStart));
         };
     }
 
@@ -81,24 +114,60 @@ public class Parser {
     }
 
     /**
-     * Parses a {@code list} command.
+     * Parses a {@code list} command in the format:
+     * <pre>
+     *   list [/archived] [/page &lt;n&gt;] [/size &lt;k&gt;]
+     * </pre>
+     * Without options, every task is listed. With either of {@code /page} and {@code /size}, one page is
+     * listed; the page defaults to the first and the size to {@link ListCommand#DEFAULT_PAGE_SIZE}.
+     * {@code /archived} lists the archived tasks instead of the task list.
      *
-     * @return a {@link ListCommand} that lists all tasks
+     * @param arg the raw argument string, or null if none was given
+     * @return a {@link ListCommand} that lists all tasks or one page of them
+     * @throws InvalidCommandFormatException if an option is unknown or not followed by a positive integer
      */
-    private Command parseList() {
-        return new ListCommand();
+    private Command parseList(String arg) throws InvalidCommandFormatException {
+        if (arg == null || arg.isBlank()) {
+            return new ListCommand();
+        }
+        String usage = "list [/archived] [/page <n>] [/size <k>]";
+        String[] tokens = arg.trim().split("\\s+");
+        boolean isArchived = tokens[0].equalsIgnoreCase("/archived");
+        int first = isArchived ? 1 : 0;
+        if ((tokens.length - first) % 2 != 0) {
+            throw new InvalidCommandFormatException("list", usage);
+        }
+        if (isArchived && tokens.length == 1) {
+            return new ListCommand(0, 0, true);
+        }
+        int page = 1;
+        int pageSize = ListCommand.DEFAULT_PAGE_SIZE;
+        for (int i = first; i < tokens.length; i += 2) {
+            switch (tokens[i].toLowerCase()) {
+            case "/page":
+                page = parseIndex(tokens[i + 1], usage);
+                break;
+            case "/size":
+                pageSize = parseIndex(tokens[i + 1], usage);
+                break;
+            default:
+                throw new InvalidCommandFormatException("list", usage);
+            }
+        }
+        return new ListCommand(page, pageSize, isArchived);
     }
 
     /**
      * Parses a {@code todo} command.
      *
-     * @param arg the raw argument string containing the task description
+     * @param input the input line
+     * @param argStart the position of the argument in the line, or {@link #NO_ARGUMENT}
      * @return a {@link TodoCommand} encapsulating the new task
-     * @throws InvalidCommandFormatException if {@code arg} is null or blank
+     * @throws InvalidCommandFormatException if there is no argument or it is blank
      */
-    private Command parseTodo(String arg) throws InvalidCommandFormatException {
-        String desc = requireArg(arg, "todo <desc>");
-        return new TodoCommand(desc);
+    private Command parseTodo(String input, int argStart) throws InvalidCommandFormatException {
+        int start = requireArg(input, argStart, "todo <desc>");
+        return new TodoCommand(input.substring(start, trimEnd(input, start, input.length())));
     }
 
     /**
@@ -107,127 +176,318 @@ public class Parser {
      *   deadline &lt;desc&gt; /by &lt;yyyy-MM-dd HHmm&gt;
      * </pre>
      *
-     * @param arg the raw argument string containing description and deadline
+     * @param input the input line
+     * @param argStart the position of the argument in the line, or {@link #NO_ARGUMENT}
      * @return a {@link DeadlineCommand} with parsed description and due date
      * @throws InvalidCommandFormatException if required tokens are missing, empty,
      *         or the datetime cannot be parsed
      */
-    private Command parseDeadline(String arg) throws InvalidCommandFormatException {
-        String a = requireArg(arg, "deadline <desc> /by <yyyy-MM-dd HHmm>");
-        int byPos = getPositionOf(
-                a.toLowerCase(), 
-                "/by", 
-                "deadline <desc> /by <yyyy-MM-dd HHmm>");
-        String desc = a.substring(0, byPos).trim();
-        String when = a.substring(byPos + 3).trim(); // len("/by") = 3
-        if (desc.isEmpty() || when.isEmpty()) {
-            throw new InvalidCommandFormatException(
-                    "deadline", 
-                    "deadline <desc> /by <yyyy-MM-dd HHmm>");
+    private Command parseDeadline(String input, int argStart) throws InvalidCommandFormatException {
+        String usage = "deadline <desc> /by <yyyy-MM-dd HHmm>";
+        int start = requireArg(input, argStart, usage);
+        int end = trimEnd(input, start, input.length());
+        int byPos = getPositionOf(input, "/by", start, end, usage);
+        int descEnd = trimEnd(input, start, byPos);
+        int whenStart = skipBlank(input, byPos + 3, end);  // "/by"
+        if (descEnd == start || whenStart == end) {
+            throw new InvalidCommandFormatException("deadline", usage);
         }
-        LocalDateTime dt = parseDateTime(when, "Date should be yyyy-MM-dd HHmm, e.g., 2019-12-02 1800");
-        return new DeadlineCommand(desc, dt);
+        LocalDateTime dt = parseDateTime(input, whenStart, end, DATE_ERROR);
+        return new DeadlineCommand(input.substring(start, descEnd), dt);
     }
 
     /**
      * Parses an {@code event} command in the format:
      * <pre>
      *   event &lt;desc&gt; /from &lt;yyyy-MM-dd HHmm&gt; /to &lt;yyyy-MM-dd HHmm&gt;
+     *   event &lt;desc&gt; /from &lt;yyyy-MM-dd HHmm&gt; /to &lt;yyyy-MM-dd HHmm&gt; /every &lt;day|week|month|year&gt;
      * </pre>
+     * With {@code /every}, the times are those of the first occurrence of an event that repeats with
+     * the given period.
      *
-     * @param arg the raw argument string containing description, start, and end times
-     * @return an {@link EventCommand} with parsed description and time interval
+     * @param input the input line
+     * @param argStart the position of the argument in the line, or {@link #NO_ARGUMENT}
+     * @return an {@link EventCommand} with parsed description, time interval and recurrence
      * @throws InvalidCommandFormatException if required tokens are missing, empty,
-     *         or the datetimes cannot be parsed
+     *         the datetimes cannot be parsed, or the period is unknown
      */
-    private Command parseEvent(String arg) throws InvalidCommandFormatException {
-        String a = requireArg(arg, "event <desc> /from <start> /to <end>");
-        String low = a.toLowerCase();
-        int fromPos = getPositionOf(low, "/from", "event <desc> /from <start> /to <end>");
-        int toPos   = getPositionOf(low, "/to",   "event <desc> /from <start> /to <end>");
+    private Command parseEvent(String input, int argStart) throws InvalidCommandFormatException {
+        String usage = "event <desc> /from <start> /to <end>";
+        int argBegin = requireArg(input, argStart, usage);
+        int argEnd = trimEnd(input, argBegin, input.length());
+        int fromPos = getPositionOf(input, "/from", argBegin, argEnd, usage);
+        int toPos   = getPositionOf(input, "/to",   argBegin, argEnd, usage);
         if (toPos <= fromPos) {
-            throw new InvalidCommandFormatException(
-                    "event", 
-                    "event <desc> /from <start> /to <end>");
+            throw new InvalidCommandFormatException("event", usage);
         }
+        int everyPos = indexOfIgnoreCase(input, "/every", toPos, argEnd);
 
-        String desc = a.substring(0, fromPos).trim();
-        String from = a.substring(fromPos + 5, toPos).trim();  // "/from"
-        String to   = a.substring(toPos + 3).trim();           // "/to"
-        if (desc.isEmpty() || from.isEmpty() || to.isEmpty()) {
-            throw new InvalidCommandFormatException(
-                    "event", 
-                    "event <desc> /from <start> /to <end>");
+        int descEnd = trimEnd(input, argBegin, fromPos);
+        int fromStart = skipBlank(input, fromPos + 5, toPos);  // "/from"
+        int fromEnd = trimEnd(input, fromStart, toPos);
+        int toEnd = everyPos < 0 ? argEnd : everyPos;
+        int toStart = skipBlank(input, toPos + 3, toEnd);  // "/to"
+        toEnd = trimEnd(input, toStart, toEnd);
+        if (descEnd == argBegin || fromStart == fromEnd || toStart == toEnd) {
+            throw new InvalidCommandFormatException("event", usage);
         }
 
-        LocalDateTime start = parseDateTime(from, "Date should be yyyy-MM-dd HHmm, e.g., 2019-12-02 1800");
-        LocalDateTime end   = parseDateTime(to,   "Date should be yyyy-MM-dd HHmm, e.g., 2019-12-02 1800");
+        LocalDateTime start = parseDateTime(input, fromStart, fromEnd, DATE_ERROR);
+        LocalDateTime end   = parseDateTime(input, toStart,   toEnd,   DATE_ERROR);
         if (end.isBefore(start)) {
             throw new InvalidCommandFormatException(
                     "event", 
                     "End time must not be before start time");
         }
-        return new EventCommand(desc, start, end);
+        if (everyPos < 0) {
+            return new EventCommand(input.substring(argBegin, descEnd), start, end);
+        }
+
+        Recurrence recurrence = parseRecurrence(input, skipBlank(input, everyPos + 6, argEnd), argEnd);  // "/every"
+        if (recurrence == null) {
+            throw new InvalidCommandFormatException(
+                    "event",
+                    "event <desc> /from <start> /to <end> /every <day|week|month|year>");
+        }
+        return new EventCommand(input.substring(argBegin, descEnd), start, end, recurrence);
     }
 
     /**
-     * Parses a {@code mark} command.
+     * Parses a {@code mark} command in one of the formats:
+     * <pre>
+     *   mark &lt;taskNumber|#id&gt;
+     *   mark 1-200
+     *   mark 3,7,#12,9-11
+     *   mark /done
+     * </pre>
      *
-     * @param arg the raw argument string containing a 1-based task index
-     * @return a {@link MarkCommand} with the parsed index
-     * @throws InvalidCommandFormatException if {@code arg} is null, empty,
-     *         or not a positive integer
+     * @param arg the raw argument string selecting the tasks
+     * @return a {@link MarkCommand} with the parsed task selection
+     * @throws InvalidCommandFormatException if {@code arg} is null, empty, or not a valid selection
      */
     private Command parseMark(String arg) throws InvalidCommandFormatException {
-        int idx = parseIndex(arg, "mark <taskNumber>");
-        return new MarkCommand(idx);
+        TaskSelection selection = parseSelection(arg, "mark <taskNumber|#id|first-last>[,...] or mark /done");
+        return new MarkCommand(selection);
     }
 
     /**
-     * Parses an {@code unmark} command.
+     * Parses an {@code unmark} command in one of the formats:
+     * <pre>
+     *   unmark &lt;taskNumber|#id&gt;
+     *   unmark 1-200
+     *   unmark 3,7,#12,9-11
+     *   unmark /done
+     * </pre>
      *
-     * @param arg the raw argument string containing a 1-based task index
-     * @return an {@link UnmarkCommand} with the parsed index
-     * @throws InvalidCommandFormatException if {@code arg} is null, empty,
-     *         or not a positive integer
+     * @param arg the raw argument string selecting the tasks
+     * @return an {@link UnmarkCommand} with the parsed task selection
+     * @throws InvalidCommandFormatException if {@code arg} is null, empty, or not a valid selection
      */
     private Command parseUnmark(String arg) throws InvalidCommandFormatException {
-        int idx = parseIndex(arg, "unmark <taskNumber>");
-        return new UnmarkCommand(idx);
+        TaskSelection selection = parseSelection(arg, "unmark <taskNumber|#id|first-last>[,...] or unmark /done");
+        return new UnmarkCommand(selection);
     }
 
     /**
-     * Parses a {@code delete} command.
+     * Parses a {@code delete} command in one of the formats:
+     * <pre>
+     *   delete &lt;taskNumber|#id&gt;
+     *   delete 1-200
+     *   delete 3,7,#12,9-11
+     *   delete /done
+     * </pre>
      *
-     * @param arg the raw argument string containing a 1-based task index
-     * @return a {@link DeleteCommand} with the parsed index
-     * @throws InvalidCommandFormatException if {@code arg} is null, empty,
-     *         or not a positive integer
+     * @param arg the raw argument string selecting the tasks
+     * @return a {@link DeleteCommand} with the parsed task selection
+     * @throws InvalidCommandFormatException if {@code arg} is null, empty, or not a valid selection
      */
     private Command parseDelete(String arg) throws InvalidCommandFormatException {
-        int idx = parseIndex(arg, "delete <taskNumber>");
-        return new DeleteCommand(idx);
+        TaskSelection selection = parseSelection(arg, "delete <taskNumber|#id|first-last>[,...] or delete /done");
+        return new DeleteCommand(selection);
     }
 
     /**
-     * Parses a {@code find} command.
+     * Parses a {@code find} command in one of the formats:
+     * <pre>
+     *   find &lt;keyword&gt;
+     *   find ~&lt;word&gt;
+     *   find /all &lt;keyword&gt;
+     * </pre>
+     * A leading {@code ~} asks for words spelled like the given one rather than containing it, and a
+     * leading {@code /all} also searches the archived tasks.
      *
      * @param arg the raw argument string containing a search keyword
      * @return a {@link FindCommand} with the search query
-     * @throws InvalidCommandFormatException if {@code arg} is null or blank
+     * @throws InvalidCommandFormatException if {@code arg} is null or blank, a fuzzy search is not one word,
+     *         or {@code /all} is not followed by a keyword
      */
     private Command parseFind(String arg) throws InvalidCommandFormatException {
-        String q = requireArg(arg, "find <keyword>");
-        return new FindCommand(q);
+        String q = requireArg(arg, "find <keyword> or find ~<word>");
+        if (q.toLowerCase().startsWith("/all") && (q.length() == 4 || Character.isWhitespace(q.charAt(4)))) {
+            return new FindCommand(requireArg(q.substring(4), "find /all <keyword>"), false, true);
+        }
+        if (!q.startsWith("~")) {
+            return new FindCommand(q, false);
+        }
+        String word = q.substring(1).trim();
+        if (word.isEmpty() || word.matches(".*\\s.*")) {
+            throw new InvalidCommandFormatException("find", "find ~<word>");
+        }
+        return new FindCommand(word, true);
     }
 
     /**
-     * Parses a {@code sort} command.
+     * Parses a {@code sort} command in one of the formats:
+     * <pre>
+     *   sort
+     *   sort /keep
+     *   sort /off
+     * </pre>
+     * {@code /keep} also turns on keep-sorted mode, and {@code /off} turns it off without sorting.
      *
+     * @param arg the raw argument string, or null if none was given
      * @return a {@link SortCommand} that sorts the tasklist in chronological order
+     * @throws InvalidCommandFormatException if the argument is not {@code /keep} or {@code /off}
+     */
+    private Command parseSort(String arg) throws InvalidCommandFormatException {
+        if (arg == null || arg.isBlank()) {
+            return new SortCommand();
+        }
+        return switch (arg.trim().toLowerCase()) {
+            case "/keep" -> new SortCommand(SortCommand.Mode.KEEP);
+            case "/off"  -> new SortCommand(SortCommand.Mode.OFF);
+            default      -> throw new InvalidCommandFormatException("sort", "sort [/keep|/off]");
+        };
+    }
+
+    /**
+     * Parses a {@code due} command in the format:
+     * <pre>
+     *   due /from &lt;yyyy-MM-dd HHmm&gt; /to &lt;yyyy-MM-dd HHmm&gt;
+     * </pre>
+     *
+     * @param input the input line
+     * @param argStart the position of the argument in the line, or {@link #NO_ARGUMENT}
+     * @return a {@link DueCommand} with the parsed range
+     * @throws InvalidCommandFormatException if required tokens are missing, empty,
+     *         the datetimes cannot be parsed, or the range ends before it starts
+     */
+    private Command parseDue(String input, int argStart) throws InvalidCommandFormatException {
+        String usage = "due /from <start> /to <end>";
+        int argBegin = requireArg(input, argStart, usage);
+        int argEnd = trimEnd(input, argBegin, input.length());
+        int fromPos = getPositionOf(input, "/from", argBegin, argEnd, usage);
+        int toPos   = getPositionOf(input, "/to",   argBegin, argEnd, usage);
+        if (toPos <= fromPos) {
+            throw new InvalidCommandFormatException("due", usage);
+        }
+
+        int fromStart = skipBlank(input, fromPos + 5, toPos);  // "/from"
+        int toStart   = skipBlank(input, toPos + 3, argEnd);   // "/to"
+        LocalDateTime start = parseDateTime(input, fromStart, trimEnd(input, fromStart, toPos), DATE_ERROR);
+        LocalDateTime end   = parseDateTime(input, toStart,   argEnd,                           DATE_ERROR);
+        if (end.isBefore(start)) {
+            throw new InvalidCommandFormatException("due", "End time must not be before start time");
+        }
+        return new DueCommand(start, end);
+    }
+
+    /**
+     * Parses an {@code upcoming} command.
+     *
+     * @param arg the raw argument string containing the number of tasks to show
+     * @return an {@link UpcomingCommand} with the parsed count
+     * @throws InvalidCommandFormatException if {@code arg} is null, empty,
+     *         or not a positive integer
+     */
+    private Command parseUpcoming(String arg) throws InvalidCommandFormatException {
+        int count = parseIndex(arg, "upcoming <count>");
+        return new UpcomingCommand(count);
+    }
+
+    /**
+     * Parses a {@code next} command.
+     *
+     * @param arg the raw argument string containing the number of tasks to show
+     * @return a {@link NextCommand} with the parsed count
+     * @throws InvalidCommandFormatException if {@code arg} is null, empty,
+     *         or not a positive integer
+     */
+    private Command parseNext(String arg) throws InvalidCommandFormatException {
+        int count = parseIndex(arg, "next <count>");
+        return new NextCommand(count);
+    }
+
+    /**
+     * Parses an {@code at} command in the format:
+     * <pre>
+     *   at &lt;yyyy-MM-dd HHmm&gt;
+     * </pre>
+     *
+     * @param input the input line
+     * @param argStart the position of the argument in the line, or {@link #NO_ARGUMENT}
+     * @return an {@link AtCommand} with the parsed instant
+     * @throws InvalidCommandFormatException if there is no argument, or it is blank or cannot be parsed
+     */
+    private Command parseAt(String input, int argStart) throws InvalidCommandFormatException {
+        int start = requireArg(input, argStart, "at <yyyy-MM-dd HHmm>");
+        return new AtCommand(parseDateTime(input, start, trimEnd(input, start, input.length()), DATE_ERROR));
+    }
+
+    /**
+     * Parses a {@code stats} command, which takes no arguments.
+     *
+     * @param arg the raw argument string, which must be absent or blank
+     * @return a {@link StatsCommand}
+     * @throws InvalidCommandFormatException if an argument is given
+     */
+    private Command parseStats(String arg) throws InvalidCommandFormatException {
+        if (arg != null && !arg.isBlank()) {
+            throw new InvalidCommandFormatException("stats", "stats");
+        }
+        return new StatsCommand();
+    }
+
+    /**
+     * Parses an {@code undo} command, which takes no arguments.
+     *
+     * @param arg the raw argument string, which must be absent or blank
+     * @return an {@link UndoCommand}
+     * @throws InvalidCommandFormatException if an argument is given
+     */
+    private Command parseUndo(String arg) throws InvalidCommandFormatException {
+        if (arg != null && !arg.isBlank()) {
+            throw new InvalidCommandFormatException("undo", "undo");
+        }
+        return new UndoCommand();
+    }
+
+    /**
+     * Parses a {@code redo} command, which takes no arguments.
+     *
+     * @param arg the raw argument string, which must be absent or blank
+     * @return a {@link RedoCommand}
+     * @throws InvalidCommandFormatException if an argument is given
+     */
+    private Command parseRedo(String arg) throws InvalidCommandFormatException {
+        if (arg != null && !arg.isBlank()) {
+            throw new InvalidCommandFormatException("redo", "redo");
+        }
+        return new RedoCommand();
+    }
+
+    /**
+     * Parses an {@code archive} command, which takes no arguments.
+     *
+     * @param arg the raw argument string, which must be null or blank
+     * @return an {@link ArchiveCommand}
+     * @throws InvalidCommandFormatException if an argument is given
      */
-    private Command parseSort() {
-        return new SortCommand();
+    private Command parseArchive(String arg) throws InvalidCommandFormatException {
+        if (arg != null && !arg.isBlank()) {
+            throw new InvalidCommandFormatException("archive", "archive");
+        }
+        return new ArchiveCommand();
     }
 
     // ── Shared helpers ────────────────────────────────────────────────────
@@ -246,6 +506,69 @@ public class Parser {
         return arg.trim();
     }
 
+    /**
+     * Ensures that a required argument is present and non-blank, without copying it out of the input line.
+     *
+     * @param input    the input line
+     * @param argStart the position of the argument in the line, or {@link #NO_ARGUMENT}
+     * @param usage    the usage string to include in exception messages
+     * @return the position of the first character of the argument that is not blank
+     * @throws InvalidCommandFormatException if there is no argument or it is blank
+     */
+    private static int requireArg(String input, int argStart, String usage) throws InvalidCommandFormatException {
+        int start = argStart == NO_ARGUMENT ? input.length() : skipBlank(input, argStart, input.length());
+        if (start == input.length()) {
+            throw new InvalidCommandFormatException(extractVerb(usage), usage);
+        }
+        return start;
+    }
+
+    /**
+     * Returns the argument of the input line as a string of its own.
+     *
+     * @param input    the input line
+     * @param argStart the position of the argument in the line, or {@link #NO_ARGUMENT}
+     * @return the argument, or null if the line has none
+     */
+    private static String argumentOf(String input, int argStart) {
+        return argStart == NO_ARGUMENT ? null : input.substring(argStart);
+    }
+
+    /**
+     * Returns the position of the first character in {@code [from, to)} that is not blank, in the sense
+     * of {@link String#trim()}, or {@code to} if there is none.
+     */
+    private static int skipBlank(String s, int from, int to) {
+        while (from < to && s.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Returns the end of {@code [from, to)} once blank characters are trimmed from it, in the sense of
+     * {@link String#trim()}.
+     */
+    private static int trimEnd(String s, int from, int to) {
+        while (to > from && s.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    /**
+     * Returns the position of the first occurrence of a lowercase token in {@code [from, to)}, ignoring
+     * case, or -1 if the token does not occur there.
+     */
+    private static int indexOfIgnoreCase(String s, String token, int from, int to) {
+        for (int i = from; i <= to - token.length(); i++) {
+            if (s.regionMatches(true, i, token, 0, token.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Parses a task index argument.
      *
@@ -267,39 +590,142 @@ public class Parser {
     }
 
     /**
-     * Finds the index of a required token in a command string.
+     * Parses a task reference argument: either a 1-based task index or a task ID
+     * written as {@code #id}.
+     *
+     * @param arg   the raw argument string
+     * @param usage the usage string to include in exception messages
+     * @return the parsed task reference
+     * @throws InvalidCommandFormatException if {@code arg} is missing, not numeric,
+     *         or less than 1
+     */
+    private static TaskRef parseTaskRef(String arg, String usage) throws InvalidCommandFormatException {
+        String s = requireArg(arg, usage);
+        if (s.startsWith("#")) {
+            return TaskRef.ofId(parseIndex(s.substring(1), usage));
+        }
+        return TaskRef.ofIndex(parseIndex(s, usage));
+    }
+
+    /**
+     * Parses a task selection argument: {@code /done}, or a comma-separated list of task references
+     * (see {@link #parseTaskRef}) and ranges of 1-based task indexes such as {@code 3-7}.
      *
-     * @param fullString     the lowercased input string to search
-     * @param searchString   the token to search for (e.g., {@code "/by"})
+     * @param arg   the raw argument string
+     * @param usage the usage string to include in exception messages
+     * @return the parsed task selection
+     * @throws InvalidCommandFormatException if {@code arg} is missing, or an item is not a valid task
+     *         reference or range
+     */
+    private static TaskSelection parseSelection(String arg, String usage) throws InvalidCommandFormatException {
+        String s = requireArg(arg, usage);
+        if (s.equalsIgnoreCase("/done")) {
+            return TaskSelection.doneTasks();
+        }
+        TaskSelection selection = new TaskSelection();
+        for (String item : s.split(",", -1)) {
+            int dashPos = item.indexOf('-');
+            if (dashPos < 0) {
+                selection.add(parseTaskRef(item, usage));
+                continue;
+            }
+            int first = parseIndex(item.substring(0, dashPos), usage);
+            int last = parseIndex(item.substring(dashPos + 1), usage);
+            if (first > last) {
+                throw new InvalidCommandFormatException(extractVerb(usage), usage);
+            }
+            selection.addRange(first, last);
+        }
+        return selection;
+    }
+
+    /**
+     * Finds the index of a required token in part of a command string, ignoring case.
+     *
+     * @param fullString     the input string to search
+     * @param searchString   the lowercase token to search for (e.g., {@code "/by"})
+     * @param from           the start of the part to search
+     * @param to             the end of the part to search, exclusive
      * @param commandFormat  the usage string to include in exception messages
-     * @return the index of {@code searchString} in {@code fullString}
+     * @return the index of the first occurrence of {@code searchString} in the part
      * @throws InvalidCommandFormatException if {@code searchString} is not found
      */
     private static int getPositionOf(
             String fullString, 
             String searchString, 
+            int from,
+            int to,
             String commandFormat) throws InvalidCommandFormatException {
-        int p = fullString.indexOf(searchString);
+        int p = indexOfIgnoreCase(fullString, searchString, from, to);
         if (p < 0) throw new InvalidCommandFormatException(extractVerb(commandFormat), commandFormat);
         return p;
     }
 
     /**
-     * Parses a datetime argument using the standard {@code yyyy-MM-dd HHmm} pattern.
+     * Parses a datetime in part of the input using the standard {@code yyyy-MM-dd HHmm} pattern.
+     * <p>
+     * A datetime of exactly that shape whose fields are all in range is decoded from its digits directly.
+     * Anything else is copied out and handed to the {@link DateTimeFormatter}, which resolves dates such
+     * as February 30 or times such as 2400 the way it always has, or rejects them.
      *
-     * @param s     the raw datetime string
+     * @param s     the input string
+     * @param from  the start of the datetime in {@code s}
+     * @param to    the end of the datetime in {@code s}, exclusive
      * @param error the error message to use in case of failure
      * @return a parsed {@link LocalDateTime}
      * @throws InvalidCommandFormatException if parsing fails
      */
-    private static LocalDateTime parseDateTime(String s, String error) throws InvalidCommandFormatException {
+    private static LocalDateTime parseDateTime(String s, int from, int to, String error)
+            throws InvalidCommandFormatException {
+        if (to - from == DATE_TIME_LENGTH && s.charAt(from + 4) == '-' && s.charAt(from + 7) == '-'
+                && s.charAt(from + 10) == ' ') {
+            int year = digits(s, from, 4);
+            int month = digits(s, from + 5, 2);
+            int day = digits(s, from + 8, 2);
+            int hour = digits(s, from + 11, 2);
+            int minute = digits(s, from + 13, 2);
+            if (year >= 1 && month >= 1 && month <= 12 && day >= 1
+                    && day <= Month.of(month).length(Year.isLeap(year))
+                    && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
         try {
-            return LocalDateTime.parse(s, INPUT_FORMAT);
+            return LocalDateTime.parse(s.substring(from, to), INPUT_FORMAT);
         } catch (DateTimeParseException e) {
             throw new InvalidCommandFormatException(extractVerb(error), error);
         }
     }
 
+    /**
+     * Returns the value of the ASCII digits at {@code [from, from + count)}, or -1 if any of them is not one.
+     */
+    private static int digits(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the recurrence whose keyword is exactly {@code [from, to)} of the input, ignoring case, as
+     * {@link Recurrence#fromKeyword(String)} does, or null if there is none.
+     */
+    private static Recurrence parseRecurrence(String s, int from, int to) {
+        for (Recurrence recurrence : RECURRENCES) {
+            String keyword = recurrence.getKeyword();
+            if (keyword.length() == to - from && s.regionMatches(true, from, keyword, 0, keyword.length())) {
+                return recurrence;
+            }
+        }
+        return null;
+    }
+
     /**
      * Extracts the "verb" (first token) from a string.
      * <p>
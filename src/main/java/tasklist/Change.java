@@ -0,0 +1,111 @@
+package tasklist;
+
+import tasks.Task;
+
+/**
+ * A change made to a {@link TaskList}, recorded so that it can be undone and redone.
+ * <p>
+ * A change records only what it touched, not a copy of the list: the positions and tasks that were
+ * inserted or removed, the positions whose done status changed, or, for a sort, the order of the task
+ * IDs before sorting. Undoing and redoing apply the inverse or the same change to the list, so each
+ * entry in the history costs memory in proportion to the size of the change rather than of the list.
+ * Positions are those in the list right after the change (or right before it, for removals), which
+ * is the state the list is in whenever the change is undone or redone.
+ */
+final class Change {
+    enum Kind {
+        INSERTION,
+        DELETION,
+        STATUS,
+        REORDERING
+    }
+
+    private final Kind kind;
+    // The positions of the changed tasks, or for a reordering, the task IDs in their previous order
+    private final int[] indexes;
+    // The inserted or removed tasks, in the same order as their positions
+    private final Task[] tasks;
+    private final boolean isDone;
+    private final String description;
+
+    private Change(Kind kind, int[] indexes, Task[] tasks, boolean isDone, String description) {
+        this.kind = kind;
+        this.indexes = indexes;
+        this.tasks = tasks;
+        this.isDone = isDone;
+        this.description = description;
+    }
+
+    /**
+     * Records the insertion of a task.
+     *
+     * @param index the 0-based position the task was inserted at
+     * @param task the inserted task
+     * @return the change
+     */
+    static Change insertion(int index, Task task) {
+        return new Change(Kind.INSERTION, new int[] {index}, new Task[] {task}, false,
+                "added \"" + task.getDescription() + "\"");
+    }
+
+    /**
+     * Records the removal of tasks.
+     *
+     * @param indexes the 0-based positions the tasks had before the removal, in ascending order
+     * @param tasks the removed tasks, in the same order
+     * @return the change
+     */
+    static Change deletion(int[] indexes, Task[] tasks) {
+        String description = tasks.length == 1
+                ? "deleted \"" + tasks[0].getDescription() + "\""
+                : "deleted " + tasks.length + " tasks";
+        return new Change(Kind.DELETION, indexes, tasks, false, description);
+    }
+
+    /**
+     * Records a change to the done status of tasks.
+     *
+     * @param indexes the 0-based positions of the tasks whose status changed
+     * @param isDone the status the tasks were given
+     * @return the change
+     */
+    static Change statusChange(int[] indexes, boolean isDone) {
+        return new Change(Kind.STATUS, indexes, null, isDone, "marked " + indexes.length
+                + (indexes.length == 1 ? " task" : " tasks") + (isDone ? " as done" : " as not done"));
+    }
+
+    /**
+     * Records the sorting of the list.
+     *
+     * @param previousOrder the IDs of the tasks in list order before sorting
+     * @return the change
+     */
+    static Change reordering(int[] previousOrder) {
+        return new Change(Kind.REORDERING, previousOrder, null, false, "sorted the list");
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    int[] getIndexes() {
+        return indexes;
+    }
+
+    Task[] getTasks() {
+        return tasks;
+    }
+
+    boolean isDone() {
+        return isDone;
+    }
+
+    /**
+     * Returns what the change did, in the past tense, e.g. {@code deleted 3 tasks}.
+     *
+     * @return the description of the change
+     */
+    String getDescription() {
+        return description;
+    }
+}
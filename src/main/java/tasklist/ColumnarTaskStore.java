@@ -0,0 +1,505 @@
+package tasklist;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+
+import tasks.Deadline;
+import tasks.Event;
+import tasks.Recurrence;
+import tasks.RecurringEvent;
+import tasks.Task;
+import tasks.Todo;
+
+/**
+ * A {@link TaskStore} that keeps tasks in parallel arrays of primitives instead of as {@link Task} objects.
+ * <p>
+ * Each task is a position in a handful of columns: a byte holding its type, done status and how often
+ * it recurs, its times as epoch seconds, its ID, and the offset and length of its description in a
+ * shared arena of UTF-8 bytes. A deadline then takes about 40 bytes plus its description, against
+ * roughly 250 bytes for a {@link Deadline} with its {@link String}, {@link LocalDateTime}s and node in a
+ * {@link TaskSequence}, and a whole list is a few large arrays rather than several objects per task for
+ * the garbage collector to trace. The {@link Task}s returned by this store are views built on every call;
+ * changing one does not change the store.
+ * <p>
+ * Getting a task by position or ID takes O(1) time and appending takes amortised O(1), but inserting
+ * or removing anywhere else shifts every later task, in O(n) time. Descriptions are appended to the
+ * arena and never overwritten, so a snapshot can share the arena with the store; once more than half
+ * of the arena belongs to removed tasks, the live descriptions are copied into a new one.
+ * <p>
+ * A snapshot shares the columns too. They are copied on write: only a change that overwrites a position
+ * a snapshot may be reading copies them first, and inserting, removing and sorting already take O(n)
+ * time. Taking a snapshot, appending and marking tasks then never copy the list.
+ */
+class ColumnarTaskStore extends TaskStore {
+    // Type codes, which are also the ranks used by SortKey
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final byte TYPE_MASK = 0x0f;
+    private static final byte DONE = 0x10;
+    // How often an event recurs, in the top three bits: 0 for a one-off event, else 1 + the Recurrence ordinal
+    private static final int RECURRENCE_SHIFT = 5;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_COMPACTED_ARENA = 4096;
+
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    // The due time of a deadline or the start of an event; 0 for todos
+    private long[] starts = new long[INITIAL_CAPACITY];
+    // The end of an event; 0 for other tasks
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] descriptionOffsets = new int[INITIAL_CAPACITY];
+    private int[] descriptionLengths = new int[INITIAL_CAPACITY];
+    private int size;
+    // How many positions of the current columns snapshots may be reading; they are copied before one is changed
+    private int sharedSize;
+
+    private byte[] arena = new byte[INITIAL_CAPACITY * 32];
+    private int arenaSize;
+    private int liveBytes;
+
+    // The position of the task with each ID, or -1 if no task has it
+    private int[] indexById = new int[INITIAL_CAPACITY];
+    private int nextId = 1;
+
+    ColumnarTaskStore() {
+        Arrays.fill(indexById, -1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        return view(flags[index], starts[index], ends[index], ids[index], descriptionAt(index));
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        checkIndex(index);
+        Task previous = get(index);
+        unshareFrom(index);
+        indexById[ids[index]] = -1;
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (!Arrays.equals(description, 0, description.length, arena, descriptionOffsets[index],
+                descriptionOffsets[index] + descriptionLengths[index])) {
+            liveBytes -= descriptionLengths[index];
+            write(index, task, description);
+        } else {
+            // Keep the description already in the arena, as when replaying a change of status
+            writeColumns(index, task);
+        }
+        register(index, task);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (size == flags.length) {
+            grow();
+        }
+        unshareFrom(index);
+        shift(index, index + 1, size - index);
+        size++;
+        write(index, task, description);
+        register(index, task);
+        reindex(index + 1, size);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        unshareFrom(index);
+        indexById[ids[index]] = -1;
+        liveBytes -= descriptionLengths[index];
+        shift(index + 1, index, size - index - 1);
+        size--;
+        reindex(index, size);
+        modCount++;
+        if (arenaSize > MIN_COMPACTED_ARENA && arenaSize - liveBytes > liveBytes) {
+            compactArena();
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            indexById[ids[i]] = -1;
+        }
+        size = 0;
+        if (sharedSize > 0) {
+            // The list is refilled from the start, so new columns are cheaper than copies of the shared ones
+            allocateColumns(INITIAL_CAPACITY);
+        }
+        // Snapshots may still be reading the old arena, so start a new one rather than overwrite it
+        arena = new byte[INITIAL_CAPACITY * 32];
+        arenaSize = 0;
+        liveBytes = 0;
+        modCount++;
+    }
+
+    @Override
+    Task getById(int id) {
+        int index = indexOfId(id);
+        return index < 0 ? null : get(index);
+    }
+
+    @Override
+    int indexOfId(int id) {
+        return id > 0 && id < indexById.length ? indexById[id] : -1;
+    }
+
+    /**
+     * {@inheritDoc} The flag is changed in place, so snapshots that share the columns show the new done
+     * status, as snapshots of a {@link TaskSequence} do.
+     */
+    @Override
+    void setDone(int index, boolean isDone) {
+        checkIndex(index);
+        flags[index] = (byte) (isDone ? flags[index] | DONE : flags[index] & ~DONE);
+    }
+
+    /**
+     * {@inheritDoc} The position is found by binary search over the columns, without building any task.
+     */
+    @Override
+    int sortedPosition(Task task) {
+        byte type = typeOf(task);
+        long start = startOf(task);
+        long end = endOf(task);
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(type, start, end, mid) < 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * {@inheritDoc} The positions are sorted by comparing columns, and every column is then permuted once.
+     */
+    @Override
+    void sortByKey() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        // Arrays.sort on objects is stable
+        Arrays.sort(order, (a, b) -> compare((byte) (flags[a] & TYPE_MASK), starts[a], ends[a], b));
+        byte[] sortedFlags = new byte[flags.length];
+        long[] sortedStarts = new long[starts.length];
+        long[] sortedEnds = new long[ends.length];
+        int[] sortedIds = new int[ids.length];
+        int[] sortedOffsets = new int[descriptionOffsets.length];
+        int[] sortedLengths = new int[descriptionLengths.length];
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            sortedFlags[i] = flags[from];
+            sortedStarts[i] = starts[from];
+            sortedEnds[i] = ends[from];
+            sortedIds[i] = ids[from];
+            sortedOffsets[i] = descriptionOffsets[from];
+            sortedLengths[i] = descriptionLengths[from];
+        }
+        flags = sortedFlags;
+        starts = sortedStarts;
+        ends = sortedEnds;
+        ids = sortedIds;
+        descriptionOffsets = sortedOffsets;
+        descriptionLengths = sortedLengths;
+        sharedSize = 0;
+        reindex(0, size);
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc} Descriptions are kept as bytes in the arena, and every view decodes its own copy.
+     */
+    @Override
+    boolean isSharingDescriptions() {
+        return false;
+    }
+
+    @Override
+    boolean isSortedByKey() {
+        for (int i = 1; i < size; i++) {
+            if (compare((byte) (flags[i] & TYPE_MASK), starts[i], ends[i], i - 1) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} The snapshot shares the columns and the arena, so this takes constant time. The
+     * columns are copied before a later change overwrites one of its positions, and the bytes of a
+     * description are never changed once written. Like {@link #setDone(int, boolean)}, only the done
+     * status of its tasks can change.
+     */
+    @Override
+    TaskSnapshot snapshot() {
+        sharedSize = Math.max(sharedSize, size);
+        return new Snapshot(flags, starts, ends, ids, descriptionOffsets, descriptionLengths, arena, size);
+    }
+
+    private String descriptionAt(int index) {
+        return new String(arena, descriptionOffsets[index], descriptionLengths[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a sort key, given as a type and times, with the key of the task at a position, in the
+     * order of {@link SortKey}.
+     */
+    private int compare(byte type, long start, long end, int index) {
+        int otherType = flags[index] & TYPE_MASK;
+        if (type != otherType) {
+            return Integer.compare(type, otherType);
+        }
+        if (start != starts[index]) {
+            return Long.compare(start, starts[index]);
+        }
+        return Long.compare(end, ends[index]);
+    }
+
+    private void write(int index, Task task, byte[] description) {
+        writeColumns(index, task);
+        if (arenaSize + description.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + description.length));
+        }
+        System.arraycopy(description, 0, arena, arenaSize, description.length);
+        descriptionOffsets[index] = arenaSize;
+        descriptionLengths[index] = description.length;
+        arenaSize += description.length;
+        liveBytes += description.length;
+    }
+
+    private void writeColumns(int index, Task task) {
+        flags[index] = (byte) (typeOf(task) | (task.isDone() ? DONE : 0) | recurrenceCodeOf(task) << RECURRENCE_SHIFT);
+        starts[index] = startOf(task);
+        ends[index] = endOf(task);
+    }
+
+    /**
+     * Gives a task the next free ID if it has none, and records the position of its ID.
+     */
+    private void register(int index, Task task) {
+        if (task.getId() == Task.NO_ID) {
+            task.setId(nextId++);
+        } else {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        if (task.getId() >= indexById.length) {
+            int oldLength = indexById.length;
+            indexById = Arrays.copyOf(indexById, Math.max(oldLength * 2, task.getId() + 1));
+            Arrays.fill(indexById, oldLength, indexById.length, -1);
+        }
+        ids[index] = task.getId();
+        indexById[task.getId()] = index;
+    }
+
+    /**
+     * Records the positions of the tasks from {@code from} to {@code to}, after they have been moved.
+     */
+    private void reindex(int from, int to) {
+        for (int i = from; i < to; i++) {
+            indexById[ids[i]] = i;
+        }
+    }
+
+    private void shift(int from, int to, int count) {
+        System.arraycopy(flags, from, flags, to, count);
+        System.arraycopy(starts, from, starts, to, count);
+        System.arraycopy(ends, from, ends, to, count);
+        System.arraycopy(ids, from, ids, to, count);
+        System.arraycopy(descriptionOffsets, from, descriptionOffsets, to, count);
+        System.arraycopy(descriptionLengths, from, descriptionLengths, to, count);
+    }
+
+    private void grow() {
+        copyColumns(flags.length + (flags.length >> 1) + 1);
+    }
+
+    /**
+     * Copies the columns before a change to the positions from {@code from} on, if a snapshot may be
+     * reading any of them.
+     */
+    private void unshareFrom(int from) {
+        if (from < sharedSize) {
+            copyColumns(flags.length);
+        }
+    }
+
+    /**
+     * Moves the columns into new arrays of the given capacity, leaving the old ones to any snapshots.
+     */
+    private void copyColumns(int capacity) {
+        flags = Arrays.copyOf(flags, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        descriptionOffsets = Arrays.copyOf(descriptionOffsets, capacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+        sharedSize = 0;
+    }
+
+    private void allocateColumns(int capacity) {
+        flags = new byte[capacity];
+        starts = new long[capacity];
+        ends = new long[capacity];
+        ids = new int[capacity];
+        descriptionOffsets = new int[capacity];
+        descriptionLengths = new int[capacity];
+        sharedSize = 0;
+    }
+
+    /**
+     * Copies the descriptions of the tasks in the list into a new arena, dropping those of removed tasks.
+     * Snapshots keep the old arena, which is left unchanged.
+     */
+    private void compactArena() {
+        unshareFrom(0);
+        byte[] compacted = new byte[Math.max(INITIAL_CAPACITY * 32, liveBytes * 2)];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(arena, descriptionOffsets[i], compacted, offset, descriptionLengths[i]);
+            descriptionOffsets[i] = offset;
+            offset += descriptionLengths[i];
+        }
+        arena = compacted;
+        arenaSize = offset;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static byte typeOf(Task task) {
+        if (task instanceof Todo) {
+            return TODO;
+        }
+        if (task instanceof Deadline) {
+            return DEADLINE;
+        }
+        if (task instanceof Event) {
+            return EVENT;
+        }
+        throw new IllegalArgumentException("Unknown kind of task: " + task.getClass().getName());
+    }
+
+    private static int recurrenceCodeOf(Task task) {
+        return task instanceof RecurringEvent recurring ? recurring.getRecurrence().ordinal() + 1 : 0;
+    }
+
+    private static long startOf(Task task) {
+        if (task instanceof Deadline deadline) {
+            return deadline.getDeadline().toEpochSecond(ZoneOffset.UTC);
+        }
+        if (task instanceof Event event) {
+            return event.getStartDateTime().toEpochSecond(ZoneOffset.UTC);
+        }
+        return 0;
+    }
+
+    private static long endOf(Task task) {
+        if (task instanceof Event event) {
+            return event.getEndDateTime().toEpochSecond(ZoneOffset.UTC);
+        }
+        return 0;
+    }
+
+    /**
+     * Builds a task from the values in its columns.
+     */
+    private static Task view(byte flag, long start, long end, int id, String description) {
+        Task task = switch (flag & TYPE_MASK) {
+        case DEADLINE -> new Deadline(description, toDateTime(start));
+        case EVENT -> event(flag, description, toDateTime(start), toDateTime(end));
+        default -> new Todo(description);
+        };
+        if ((flag & DONE) != 0) {
+            task.markAsDone();
+        }
+        task.setId(id);
+        return task;
+    }
+
+    private static Event event(byte flag, String description, LocalDateTime start, LocalDateTime end) {
+        int recurrenceCode = (flag & 0xff) >> RECURRENCE_SHIFT;
+        if (recurrenceCode == 0) {
+            return new Event(description, start, end);
+        }
+        return new RecurringEvent(description, start, end, Recurrence.values()[recurrenceCode - 1]);
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * The first positions of the columns of the store, sharing their arrays and its arena.
+     */
+    private static final class Snapshot implements TaskSnapshot {
+        private final byte[] flags;
+        private final long[] starts;
+        private final long[] ends;
+        private final int[] ids;
+        private final int[] descriptionOffsets;
+        private final int[] descriptionLengths;
+        private final byte[] arena;
+        private final int size;
+
+        private Snapshot(byte[] flags, long[] starts, long[] ends, int[] ids, int[] descriptionOffsets,
+                int[] descriptionLengths, byte[] arena, int size) {
+            this.flags = flags;
+            this.starts = starts;
+            this.ends = ends;
+            this.ids = ids;
+            this.descriptionOffsets = descriptionOffsets;
+            this.descriptionLengths = descriptionLengths;
+            this.arena = arena;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, size);
+            return view(flags[index], starts[index], ends[index], ids[index], descriptionAt(index));
+        }
+
+        @Override
+        public int idAt(int index) {
+            Objects.checkIndex(index, size);
+            return ids[index];
+        }
+
+        @Override
+        public String descriptionAt(int index) {
+            Objects.checkIndex(index, size);
+            return new String(arena, descriptionOffsets[index], descriptionLengths[index], StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package tasklist;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import tasks.Event;
+
+/**
+ * An interval tree over events, for finding the events that cover an instant or overlap a period.
+ * <p>
+ * The events are kept in a treap ordered by start time (ties broken by task ID), and every node
+ * also records the latest end time in its subtree. A query can then skip any subtree whose latest
+ * end is before the period of interest, and any right subtree whose earliest start is after it, so
+ * it visits O(log n + k) nodes for k results in expectation.
+ * <p>
+ * Nodes hold the ID of an event and its times as epoch seconds rather than the event itself, so the
+ * tree does not keep task objects alive.
+ */
+class IntervalTree {
+    private static final class Node {
+        private final int id;
+        private final long start;
+        private final long end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(Event event) {
+            this.id = event.getId();
+            this.start = epochSecond(event.getStartDateTime());
+            this.end = epochSecond(event.getEndDateTime());
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    /**
+     * Adds an event to the tree.
+     *
+     * @param event the event to add; must already have an ID
+     */
+    void add(Event event) {
+        Node node = new Node(event);
+        Node[] parts = split(root, node.start, node.id);
+        root = merge(merge(parts[0], node), parts[1]);
+        size++;
+    }
+
+    /**
+     * Removes an event from the tree, if it is in it.
+     *
+     * @param event the event to remove
+     */
+    void remove(Event event) {
+        long start = epochSecond(event.getStartDateTime());
+        Node[] parts = split(root, start, event.getId());
+        Node[] rest = split(parts[1], start, event.getId() + 1);
+        if (rest[0] != null) {
+            size--;
+        }
+        root = merge(parts[0], rest[1]);
+    }
+
+    /**
+     * Removes every event from the tree.
+     */
+    void clear() {
+        root = null;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the IDs of the events that are in progress at the given instant, including events that
+     * start or end exactly then, ordered by start time.
+     *
+     * @param instant the instant to look up
+     * @return the IDs of the events covering the instant
+     */
+    int[] covering(LocalDateTime instant) {
+        long time = epochSecond(instant);
+        IdBuffer result = new IdBuffer();
+        collect(root, time, time, true, result);
+        return result.toArray();
+    }
+
+    /**
+     * Returns the IDs of the events that share some time with the given period, ordered by start time.
+     * Periods that only touch, such as one ending at 10:00 and another starting at 10:00, do not overlap.
+     *
+     * @param start the start of the period
+     * @param end the end of the period
+     * @return the IDs of the events overlapping the period
+     */
+    int[] overlapping(LocalDateTime start, LocalDateTime end) {
+        IdBuffer result = new IdBuffer();
+        collect(root, epochSecond(start), epochSecond(end), false, result);
+        return result.toArray();
+    }
+
+    /**
+     * Adds the IDs of the events in a subtree that intersect the period from {@code start} to
+     * {@code end} to the result, in order.
+     *
+     * @param isClosed whether events that only touch the period at an endpoint count
+     */
+    private static void collect(Node node, long start, long end, boolean isClosed, IdBuffer result) {
+        if (node == null || endsBefore(node.maxEnd, start, isClosed)) {
+            return;
+        }
+        collect(node.left, start, end, isClosed, result);
+        if (startsAfter(node.start, end, isClosed)) {
+            // Every event in the right subtree starts even later
+            return;
+        }
+        if (!endsBefore(node.end, start, isClosed)) {
+            result.add(node.id);
+        }
+        collect(node.right, start, end, isClosed, result);
+    }
+
+    private static boolean endsBefore(long end, long start, boolean isClosed) {
+        return isClosed ? end < start : end <= start;
+    }
+
+    private static boolean startsAfter(long start, long end, boolean isClosed) {
+        return isClosed ? start > end : start >= end;
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static Node update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+        return node;
+    }
+
+    /**
+     * Splits a tree into the nodes ordered before the key ({@code start}, {@code id}) and the rest.
+     */
+    private static Node[] split(Node node, long start, int id) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (node.start > start || (node.start == start && node.id >= id)) {
+            Node[] parts = split(node.left, start, id);
+            node.left = parts[1];
+            return new Node[] {parts[0], update(node)};
+        }
+        Node[] parts = split(node.right, start, id);
+        node.right = parts[0];
+        return new Node[] {update(node), parts[1]};
+    }
+
+    /**
+     * Joins two trees, with every node of {@code left} ordered before every node of {@code right}.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    /**
+     * A growable array of IDs for collecting query results.
+     */
+    private static final class IdBuffer {
+        private int[] ids = new int[8];
+        private int size;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
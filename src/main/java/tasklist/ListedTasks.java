@@ -0,0 +1,47 @@
+package tasklist;
+
+import java.util.List;
+
+/**
+ * Tasks picked out of a {@link TaskList} by a search or a change, with their positions and their list
+ * items.
+ * <p>
+ * Both are taken from the same state of the list, so a change made by another thread in between can
+ * neither pair a position with another task nor leave a position pointing past the end of the list. A
+ * {@code ListedTasks} does not change afterwards.
+ */
+public final class ListedTasks {
+    private final List<Integer> indexes;
+    private final List<String> items;
+
+    ListedTasks(List<Integer> indexes, List<String> items) {
+        this.indexes = List.copyOf(indexes);
+        this.items = List.copyOf(items);
+    }
+
+    /**
+     * Returns the positions of the tasks in the list as it was when they were picked out.
+     *
+     * @return the 0-based indexes of the tasks
+     */
+    public List<Integer> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * Returns the tasks formatted as list items, in the same order as their positions.
+     *
+     * @return the list items
+     */
+    public List<String> getItems() {
+        return items;
+    }
+
+    public int size() {
+        return indexes.size();
+    }
+
+    public boolean isEmpty() {
+        return indexes.isEmpty();
+    }
+}
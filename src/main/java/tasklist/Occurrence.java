@@ -0,0 +1,42 @@
+package tasklist;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A task found by a time query, with the time it was found at: the due time of a deadline, the start of
+ * an event, or the start of one occurrence of a recurring event. A recurring event can be found once for
+ * each of its occurrences in the period asked about.
+ */
+public final class Occurrence {
+    private final int index;
+    private final LocalDateTime start;
+
+    Occurrence(int index, LocalDateTime start) {
+        this.index = index;
+        this.start = start;
+    }
+
+    /**
+     * Returns the position of the task in the list.
+     *
+     * @return the 0-based index of the task
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the positions of the tasks of some occurrences, in the same order.
+     *
+     * @param occurrences the occurrences
+     * @return the 0-based index of the task of each occurrence
+     */
+    public static List<Integer> indexesOf(List<Occurrence> occurrences) {
+        return occurrences.stream().map(Occurrence::getIndex).toList();
+    }
+}
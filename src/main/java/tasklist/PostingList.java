@@ -0,0 +1,110 @@
+package tasklist;
+
+import java.util.Arrays;
+
+/**
+ * A sorted set of task IDs, stored as a growable {@code int} array.
+ * <p>
+ * Task IDs are handed out in increasing order, so adding the ID of a new task is an append.
+ * Removing an ID shifts the tail of the array, which is cheap because a single posting list
+ * only holds the tasks that share one token.
+ */
+class PostingList {
+    private int[] ids = new int[4];
+    private int size;
+
+    /**
+     * Adds an ID, keeping the list sorted. Adding an ID that is already present has no effect.
+     *
+     * @param id the ID to add
+     */
+    void add(int id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            insertAt(-position - 1, id);
+            return;
+        }
+        insertAt(size, id);
+    }
+
+    /**
+     * Removes an ID, if present.
+     *
+     * @param id the ID to remove
+     */
+    void remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return ids.length;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a copy of the IDs in ascending order.
+     *
+     * @return the sorted IDs
+     */
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Returns the IDs of a sorted array that are also in this list.
+     * <p>
+     * Each ID of {@code candidates} is looked for by galloping forward from the previous match,
+     * so intersecting a short array with a long list only touches a small part of the list.
+     *
+     * @param candidates a sorted array of IDs
+     * @return the sorted IDs present in both
+     */
+    int[] retainAll(int[] candidates) {
+        int[] result = new int[Math.min(candidates.length, size)];
+        int count = 0;
+        int low = 0;
+        for (int id : candidates) {
+            int step = 1;
+            int high = low;
+            while (high < size && ids[high] < id) {
+                low = high + 1;
+                high += step;
+                step *= 2;
+            }
+            int position = Arrays.binarySearch(ids, low, Math.min(high + 1, size), id);
+            if (position >= 0) {
+                result[count++] = id;
+                low = position + 1;
+            } else {
+                low = -position - 1;
+            }
+            if (low >= size) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void insertAt(int position, int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+}
@@ -0,0 +1,223 @@
+package tasklist;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import tasks.Recurrence;
+import tasks.RecurringEvent;
+import tasks.Task;
+
+/**
+ * An index of recurring events, for finding their occurrences in a period without ever storing them.
+ * <p>
+ * Each {@link RecurringEvent} is kept as its rule: the start of its first occurrence, how long each
+ * occurrence lasts and how often it repeats. A query works out the number of the first occurrence it
+ * needs from the rule with {@link Recurrence#firstFrom(LocalDateTime, LocalDateTime)}, in constant
+ * time, and then only steps through the occurrences inside the period. Finding k occurrences among r
+ * rules then takes O((r + k) log r) time however far the period is from the first occurrences, and the
+ * index takes memory for r rules however many occurrences they have.
+ * <p>
+ * Recurring events are left out of the {@link TimeIndex} and {@link IntervalTree}, which each hold one entry
+ * per time; the task list merges their results with those of this index.
+ */
+class RecurrenceIndex {
+    // Rules by task ID, so that rules with occurrences at the same time are visited in order of ID
+    private final TreeMap<Integer, Rule> rules = new TreeMap<>();
+
+    /**
+     * Indexes a recurring event, or updates its rule if it is already indexed.
+     *
+     * @param event the event to index; must already have an ID
+     */
+    void add(RecurringEvent event) {
+        rules.put(event.getId(), new Rule(event));
+    }
+
+    /**
+     * Removes a task from the index, if it is in it.
+     *
+     * @param task the task to remove
+     */
+    void remove(Task task) {
+        rules.remove(task.getId());
+    }
+
+    /**
+     * Removes every rule from the index.
+     */
+    void clear() {
+        rules.clear();
+    }
+
+    int size() {
+        return rules.size();
+    }
+
+    /**
+     * Returns the occurrences that start in the given range, in order of start and then of task ID.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive, or null for no end
+     * @param limit the maximum number of occurrences to return
+     * @param isUndoneOnly whether to leave out the occurrences of events marked as done
+     * @return at most {@code limit} occurrences
+     */
+    Occurrences between(LocalDateTime from, LocalDateTime to, int limit, boolean isUndoneOnly) {
+        Occurrences result = new Occurrences();
+        // The next occurrence of each rule, ordered by start and then by ID
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>();
+        for (Rule rule : rules.values()) {
+            if (!isUndoneOnly || !rule.isDone) {
+                Cursor cursor = new Cursor(rule, rule.recurrence.firstFrom(rule.start, from));
+                if (to == null || !cursor.start.isAfter(to)) {
+                    cursors.add(cursor);
+                }
+            }
+        }
+        while (result.size < limit && !cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            result.add(cursor.rule.id, cursor.start);
+            Cursor next = new Cursor(cursor.rule, cursor.n + 1);
+            if (to == null || !next.start.isAfter(to)) {
+                cursors.add(next);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the occurrences in progress at the given instant, including those that start or end
+     * exactly then, in order of start and then of task ID.
+     *
+     * @param instant the instant to look up
+     * @return the occurrences covering the instant
+     */
+    Occurrences covering(LocalDateTime instant) {
+        return intersecting(instant, instant, true, Task.NO_ID);
+    }
+
+    /**
+     * Returns the occurrences that share some time with the given period, in order of start and then of
+     * task ID. Periods that only touch do not overlap, as in {@link IntervalTree}.
+     *
+     * @param start the start of the period
+     * @param end the end of the period
+     * @param excludedId the ID of a task to leave out, or {@link Task#NO_ID}
+     * @return the occurrences overlapping the period
+     */
+    Occurrences overlapping(LocalDateTime start, LocalDateTime end, int excludedId) {
+        return intersecting(start, end, false, excludedId);
+    }
+
+    private Occurrences intersecting(LocalDateTime start, LocalDateTime end, boolean isClosed, int excludedId) {
+        Occurrences result = new Occurrences();
+        // Occurrences all last as long, so the last one to start in time is the last one to end
+        LocalDateTime limit = isClosed ? end.plusNanos(1) : end;
+        for (Rule rule : rules.values()) {
+            long n = rule.recurrence.firstFrom(rule.start, limit) - 1;
+            if (rule.id == excludedId || n < 0) {
+                continue;
+            }
+            LocalDateTime occurrenceStart = rule.recurrence.occurrence(rule.start, n);
+            LocalDateTime occurrenceEnd = occurrenceStart.plus(rule.length);
+            if (isClosed ? !occurrenceEnd.isBefore(start) : occurrenceEnd.isAfter(start)) {
+                result.add(rule.id, occurrenceStart);
+            }
+        }
+        result.sort();
+        return result;
+    }
+
+    /**
+     * The rule of a recurring event, copied from it so that the index does not keep the task alive.
+     */
+    private static final class Rule {
+        private final int id;
+        private final LocalDateTime start;
+        private final Duration length;
+        private final Recurrence recurrence;
+        private final boolean isDone;
+
+        private Rule(RecurringEvent event) {
+            this.id = event.getId();
+            this.start = event.getStartDateTime();
+            this.length = Duration.between(event.getStartDateTime(), event.getEndDateTime());
+            this.recurrence = event.getRecurrence();
+            this.isDone = event.isDone();
+        }
+    }
+
+    /**
+     * The n-th occurrence of a rule, while a query steps through the occurrences of every rule together.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Rule rule;
+        private final long n;
+        private final LocalDateTime start;
+
+        private Cursor(Rule rule, long n) {
+            this.rule = rule;
+            this.n = n;
+            this.start = rule.recurrence.occurrence(rule.start, n);
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Integer.compare(rule.id, other.rule.id);
+        }
+    }
+
+    /**
+     * The task IDs and start times of the occurrences found by a query, in parallel arrays.
+     */
+    static final class Occurrences {
+        private int[] ids = new int[8];
+        private LocalDateTime[] starts = new LocalDateTime[8];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int idAt(int i) {
+            return ids[i];
+        }
+
+        LocalDateTime startAt(int i) {
+            return starts[i];
+        }
+
+        private void add(int id, LocalDateTime start) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+            }
+            ids[size] = id;
+            starts[size++] = start;
+        }
+
+        /**
+         * Orders the occurrences by start and then by ID; there are as many as there are rules at most.
+         */
+        private void sort() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> starts[a].equals(starts[b])
+                    ? Integer.compare(ids[a], ids[b]) : starts[a].compareTo(starts[b]));
+            int[] sortedIds = new int[ids.length];
+            LocalDateTime[] sortedStarts = new LocalDateTime[starts.length];
+            for (int i = 0; i < size; i++) {
+                sortedIds[i] = ids[order[i]];
+                sortedStarts[i] = starts[order[i]];
+            }
+            ids = sortedIds;
+            starts = sortedStarts;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package tasklist;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import tasks.Deadline;
+import tasks.Event;
+import tasks.Task;
+import tasks.Todo;
+
+/**
+ * The position of a task in the sorted order of a task list, computed once from the task's type and times.
+ * <p>
+ * Tasks are ordered by type rank first (todos, then deadlines, then events), then by the due time of a
+ * deadline or the start of an event, then by the end of an event. Times are kept as epoch seconds, so
+ * comparing two keys never has to look at the task or its {@link LocalDateTime}s again. Todos all share
+ * one key, so sorting (which is stable) keeps them in the order they were added.
+ */
+final class SortKey implements Comparable<SortKey> {
+    private static final SortKey TODO_KEY = new SortKey(0, 0, 0);
+    private static final SortKey UNKNOWN_KEY = new SortKey(Integer.MAX_VALUE, 0, 0);
+
+    private final int rank;
+    private final long time;
+    private final long endTime;
+
+    private SortKey(int rank, long time, long endTime) {
+        this.rank = rank;
+        this.time = time;
+        this.endTime = endTime;
+    }
+
+    /**
+     * Computes the sort key of a task.
+     *
+     * @param task the task
+     * @return the key of the task
+     */
+    static SortKey of(Task task) {
+        if (task instanceof Todo) {
+            return TODO_KEY;
+        }
+        if (task instanceof Deadline deadline) {
+            return new SortKey(1, epochSecond(deadline.getDeadline()), 0);
+        }
+        if (task instanceof Event event) {
+            return new SortKey(2, epochSecond(event.getStartDateTime()), epochSecond(event.getEndDateTime()));
+        }
+        // Unknown kinds go last
+        return UNKNOWN_KEY;
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Override
+    public int compareTo(SortKey other) {
+        if (rank != other.rank) {
+            return Integer.compare(rank, other.rank);
+        }
+        if (time != other.time) {
+            return Long.compare(time, other.time);
+        }
+        return Long.compare(endTime, other.endTime);
+    }
+}
@@ -0,0 +1,166 @@
+package tasklist;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import tasks.Deadline;
+import tasks.DescriptionPool;
+import tasks.Task;
+import tasks.TaskType;
+
+/**
+ * Running counts of the tasks in a list, updated as tasks are added, removed, marked and unmarked so
+ * that {@link TaskCounts} can be produced without looking at the tasks.
+ * <p>
+ * Tasks are counted by type and done status. Deadlines that are not done are also counted by the day
+ * they are due, and the number due before a cutoff day is kept as a running total: moving the cutoff
+ * to a later day adds the days passed over, so as days go by each day is added once. Descriptions are
+ * counted by a 64-bit fingerprint of their value rather than by the strings themselves, which would
+ * keep every description alive after its tasks are gone, against the weak references of the
+ * {@link DescriptionPool}. This gives the number of distinct descriptions and, if the store shares
+ * pooled descriptions between its tasks, the memory saved by sharing them.
+ * <p>
+ * The methods are synchronized, since reading the counts for a new day moves the cutoff.
+ */
+class TaskCounter {
+    private final int[] doneByType = new int[TaskType.values().length];
+    private final int[] undoneByType = new int[TaskType.values().length];
+    // The number of deadlines that are not done, by the day they are due
+    private final TreeMap<LocalDate, Integer> undoneDeadlinesByDay = new TreeMap<>();
+    // The day before which deadlines count as overdue, or null until the counts are first read
+    private LocalDate cutoff;
+    // The number of deadlines that are not done and are due before the cutoff
+    private int overdueCount;
+    // The number of tasks with each description, by fingerprint
+    private final Map<Long, Integer> descriptionCounts = new HashMap<>();
+    private final boolean isSharingDescriptions;
+    private long bytesShared;
+
+    /**
+     * Creates a counter with nothing counted.
+     *
+     * @param isSharingDescriptions whether tasks with equal descriptions share one string, so that every
+     *     repeat of a description saves a copy
+     */
+    TaskCounter(boolean isSharingDescriptions) {
+        this.isSharingDescriptions = isSharingDescriptions;
+    }
+
+    /**
+     * Counts a task that has been added to the list.
+     *
+     * @param task the added task
+     */
+    synchronized void add(Task task) {
+        count(task, task.isDone(), 1);
+        int copies = descriptionCounts.merge(fingerprint(task.getDescription()), 1, Integer::sum);
+        if (copies > 1 && isSharingDescriptions) {
+            bytesShared += DescriptionPool.sizeOf(task.getDescription());
+        }
+    }
+
+    /**
+     * Stops counting a task that has been removed from the list.
+     *
+     * @param task the removed task
+     */
+    synchronized void remove(Task task) {
+        count(task, task.isDone(), -1);
+        long fingerprint = fingerprint(task.getDescription());
+        int copies = descriptionCounts.merge(fingerprint, -1, Integer::sum);
+        if (copies == 0) {
+            descriptionCounts.remove(fingerprint);
+        } else if (isSharingDescriptions) {
+            bytesShared -= DescriptionPool.sizeOf(task.getDescription());
+        }
+    }
+
+    /**
+     * Moves a task from the undone counts to the done counts, or back.
+     *
+     * @param task the task whose status changed
+     * @param isDone the status the task was given
+     */
+    synchronized void setDone(Task task, boolean isDone) {
+        count(task, !isDone, -1);
+        count(task, isDone, 1);
+    }
+
+    /**
+     * Stops counting every task.
+     */
+    synchronized void clear() {
+        Arrays.fill(doneByType, 0);
+        Arrays.fill(undoneByType, 0);
+        undoneDeadlinesByDay.clear();
+        cutoff = null;
+        overdueCount = 0;
+        descriptionCounts.clear();
+        bytesShared = 0;
+    }
+
+    /**
+     * Returns the current counts, with deadlines due before the given day counted as overdue.
+     *
+     * @param today the current day
+     * @return the counts
+     */
+    synchronized TaskCounts getCounts(LocalDate today) {
+        moveCutoff(today);
+        return new TaskCounts(doneByType, undoneByType, overdueCount,
+                undoneDeadlinesByDay.getOrDefault(today, 0), descriptionCounts.size(), bytesShared);
+    }
+
+    private void count(Task task, boolean isDone, int delta) {
+        int type = task.getTaskType().ordinal();
+        if (isDone) {
+            doneByType[type] += delta;
+            return;
+        }
+        undoneByType[type] += delta;
+        if (task instanceof Deadline deadline) {
+            LocalDate day = deadline.getDeadline().toLocalDate();
+            undoneDeadlinesByDay.merge(day, delta, Integer::sum);
+            if (undoneDeadlinesByDay.get(day) == 0) {
+                undoneDeadlinesByDay.remove(day);
+            }
+            if (cutoff != null && day.isBefore(cutoff)) {
+                overdueCount += delta;
+            }
+        }
+    }
+
+    private void moveCutoff(LocalDate today) {
+        if (cutoff == null) {
+            overdueCount = sum(undoneDeadlinesByDay.headMap(today));
+        } else if (today.isAfter(cutoff)) {
+            overdueCount += sum(undoneDeadlinesByDay.subMap(cutoff, today));
+        } else if (today.isBefore(cutoff)) {
+            overdueCount -= sum(undoneDeadlinesByDay.subMap(today, cutoff));
+        }
+        cutoff = today;
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of a description. Two distinct descriptions in one list are
+     * practically never given the same fingerprint.
+     */
+    private static long fingerprint(String description) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < description.length(); i++) {
+            hash = (hash ^ description.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static int sum(Map<LocalDate, Integer> counts) {
+        int sum = 0;
+        for (int count : counts.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,117 @@
+package tasklist;
+
+import tasks.TaskType;
+
+/**
+ * The number of tasks of each kind in a {@link TaskList} at one moment, as returned by
+ * {@link TaskList#getCounts(java.time.LocalDate)}.
+ * <p>
+ * The counts are kept up to date as the list changes, so getting them takes constant time however
+ * long the list is. A {@code TaskCounts} does not change afterwards.
+ */
+public final class TaskCounts {
+    private final int[] doneByType;
+    private final int[] undoneByType;
+    private final int overdueCount;
+    private final int dueTodayCount;
+    private final int distinctDescriptionCount;
+    private final long bytesShared;
+
+    TaskCounts(int[] doneByType, int[] undoneByType, int overdueCount, int dueTodayCount,
+            int distinctDescriptionCount, long bytesShared) {
+        this.doneByType = doneByType.clone();
+        this.undoneByType = undoneByType.clone();
+        this.overdueCount = overdueCount;
+        this.dueTodayCount = dueTodayCount;
+        this.distinctDescriptionCount = distinctDescriptionCount;
+        this.bytesShared = bytesShared;
+    }
+
+    /**
+     * Returns the number of tasks in the list.
+     *
+     * @return the number of tasks, done or not
+     */
+    public int getTotal() {
+        return getDone() + getUndone();
+    }
+
+    /**
+     * Returns the number of tasks marked as done.
+     *
+     * @return the number of done tasks of every type
+     */
+    public int getDone() {
+        int done = 0;
+        for (int count : doneByType) {
+            done += count;
+        }
+        return done;
+    }
+
+    /**
+     * Returns the number of tasks not marked as done.
+     *
+     * @return the number of tasks of every type that are not done
+     */
+    public int getUndone() {
+        int undone = 0;
+        for (int count : undoneByType) {
+            undone += count;
+        }
+        return undone;
+    }
+
+    /**
+     * Returns the number of tasks of a type marked as done.
+     *
+     * @param type the type of task
+     * @return the number of done tasks of that type
+     */
+    public int getDone(TaskType type) {
+        return doneByType[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of tasks of a type not marked as done.
+     *
+     * @param type the type of task
+     * @return the number of tasks of that type that are not done
+     */
+    public int getUndone(TaskType type) {
+        return undoneByType[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of deadlines that are not done and were due on an earlier day.
+     *
+     * @return the number of overdue deadlines
+     */
+    public int getOverdueCount() {
+        return overdueCount;
+    }
+
+    /**
+     * Returns the number of deadlines that are not done and are due on the day the counts were taken.
+     *
+     * @return the number of deadlines due that day
+     */
+    public int getDueTodayCount() {
+        return dueTodayCount;
+    }
+
+    public int getDistinctDescriptionCount() {
+        return distinctDescriptionCount;
+    }
+
+    /**
+     * Estimates the memory saved by tasks with the same description sharing one {@link String}: the size
+     * of every copy of a description after the first. This is 0 for a store that does not share
+     * descriptions, such as the columnar store.
+     *
+     * @return the estimated bytes saved
+     */
+    public long getBytesShared() {
+        return bytesShared;
+    }
+}
@@ -1,18 +1,36 @@
 package tasklist;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
 import java.util.stream.IntStream;
 
 import errors.InvalidIndexException;
+import errors.InvalidTaskIdException;
+import errors.LogosException;
 
 import localstorage.Storage;
 
 import tasks.Deadline;
+import tasks.DescriptionPool;
 import tasks.Event;
+import tasks.Recurrence;
+import tasks.RecurringEvent;
 import tasks.Task;
 import tasks.Todo;
 
@@ -23,21 +41,113 @@ import tasks.Todo;
  * This class serves as the in-memory task manager and handles persistence
  * through a {@link Storage} instance. Tasks can be created, listed,
  * marked as done/undone, and deleted. All operations are saved
- * to local storage automatically.
+ * to local storage automatically; single-task changes are passed to the
+ * storage individually so that it can persist them without rewriting every task.
+ * <p>
+ * Every task is given an ID when it is loaded or added. Tasks can be referred to either by their
+ * current position or by their ID (see {@link TaskRef}); unlike positions, IDs do not change when
+ * other tasks are deleted or the list is sorted. IDs are assigned afresh, in list order, each time
+ * the tasks are loaded, so right after startup a task's ID equals its position.
+ * <p>
+ * A {@code TaskList} can be shared between threads. Every change takes the write lock of a
+ * {@link StampedLock}, so changes, and the storage writes that persist them, happen one at a time.
+ * A change only returns once it is on disk; with write-behind storage, it waits for its batch to be
+ * written after releasing the lock, so that other changes can join the batch meanwhile.
+ * Reads work on an immutable snapshot of the list, an array of the tasks in list order that is built
+ * once after each change and then shared by every reader, so listing tasks never blocks a writer.
+ * Queries that go through the search, time or event indexes hold the read lock only while they
+ * look up positions; {@link #size()} is an optimistic read.
+ * <p>
+ * A {@link RecurringEvent} is kept as a single task and indexed by its rule in a {@link RecurrenceIndex},
+ * so time queries work out its occurrences in the period they cover instead of storing every occurrence.
+ * <p>
+ * The tasks are kept in a {@link TaskStore}. By default this is a {@link TaskSequence} of task objects;
+ * setting the {@code logos.tasks.store} system property to {@code columnar} keeps them in a
+ * {@link ColumnarTaskStore} instead, which takes several times less memory but makes inserting and
+ * deleting away from the end of the list O(n).
+ * <p>
+ * Every change is also recorded in an undo history of {@link Change}s, up to the depth set by the
+ * {@code logos.undo.depth} system property (50 by default; 0 turns undo off). Undoing or redoing a
+ * change applies its inverse, or the change itself again, and saves it like any other change, so the
+ * storage journal records it without rewriting the data file. The history is not kept across restarts.
+ * <p>
+ * Done tasks can be moved out of the list into the archive of the {@link Storage}, so that the list, its
+ * indexes and the data file only hold the tasks still in use. The archive is only read when archived
+ * tasks are listed or searched.
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
+    private TaskStore tasks;
     private Storage storage;
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final VocabularyIndex vocabulary = new VocabularyIndex();
+    private final TimeIndex timeIndex = new TimeIndex();
+    // The deadlines and one-off events that are not done, for finding the next tasks without skipping done ones
+    private final TimeIndex undoneTimeIndex = new TimeIndex();
+    private final TaskCounter counter;
+    private final IntervalTree eventIntervals = new IntervalTree();
+    private final RecurrenceIndex recurrences = new RecurrenceIndex();
+    private volatile boolean isKeepingSorted;
+
+    private final StampedLock lock = new StampedLock();
+    private final Object snapshotLock = new Object();
+    // The tasks in list order as of the last change, or null if it has not been built since; never modified
+    private volatile TaskSnapshot snapshot;
+
+    /** Roughly how many tasks can be walked in the time it takes to locate and check one task by its ID. */
+    private static final int INDEX_LOOKUPS_PER_WALK = 64;
+
+    /** How far past the first occurrence of a recurring event its occurrences are checked for clashes. */
+    private static final Period CLASH_HORIZON = Period.ofYears(1);
+
+    /** The longest query a fuzzy search matches exactly, since one edit would match most one- or two-letter words. */
+    private static final int EXACT_FUZZY_QUERY_LENGTH = 2;
+
+    /** The longest query a fuzzy search allows only one edit for, since two would match most short words. */
+    private static final int SHORT_FUZZY_QUERY_LENGTH = 4;
+
+    /**
+     * The number of tasks from which a walk over the whole list is split across the common fork-join pool.
+     * Below it, the cost of splitting the work and merging the results outweighs the gain; see
+     * {@code ParallelScanBenchmark} for where the crossover lies. Set by the {@code logos.find.parallelThreshold}
+     * system property.
+     */
+    static final int PARALLEL_SCAN_THRESHOLD = Integer.getInteger("logos.find.parallelThreshold", 20_000);
+    private static final boolean HAS_SPARE_PROCESSORS = Runtime.getRuntime().availableProcessors() > 1;
+
+    private static final int DEFAULT_UNDO_DEPTH = 50;
+    private final int undoDepth;
+    // The most recent change first; both are only used while holding the write lock
+    private final Deque<Change> undoHistory = new ArrayDeque<>();
+    private final Deque<Change> redoHistory = new ArrayDeque<>();
+
+    /**
+     * The number of done tasks from which they are all archived when the list is loaded, or 0 to never
+     * archive them automatically. Set by the {@code logos.archive.doneThreshold} system property.
+     */
+    private static final int AUTO_ARCHIVE_THRESHOLD = Integer.getInteger("logos.archive.doneThreshold", 0);
 
     /**
      * Creates a new {@code TaskList} bound to the given storage.
      * Initially, the list is empty until tasks are loaded from storage.
+     * Keep-sorted mode starts on if the {@code logos.tasks.keepSorted} system property is {@code true}.
      *
      * @param storage the storage used for persisting tasks
      */
     public TaskList(Storage storage) {
-        this.tasks = new ArrayList<Task>();
+        this(storage, "columnar".equals(System.getProperty("logos.tasks.store"))
+                ? new ColumnarTaskStore()
+                : new TaskSequence());
+    }
+
+    /**
+     * Creates a new, empty {@code TaskList} that keeps its tasks in the given store.
+     */
+    TaskList(Storage storage, TaskStore tasks) {
+        this.tasks = tasks;
         this.storage = storage;
+        this.counter = new TaskCounter(tasks.isSharingDescriptions());
+        this.isKeepingSorted = Boolean.getBoolean("logos.tasks.keepSorted");
+        this.undoDepth = Math.max(0, Integer.getInteger("logos.undo.depth", DEFAULT_UNDO_DEPTH));
     }
 
     /**
@@ -46,15 +156,54 @@ public class TaskList {
      * @return the size of the task list
      */
     public int size() {
-        return tasks.size();
+        long stamp = lock.tryOptimisticRead();
+        int size = tasks.size();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                size = tasks.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return size;
     }
 
     /**
      * Loads tasks from the bound storage into this task list.
      * Tasks already in memory are preserved and new ones are appended.
+     * The search, time and event indexes are rebuilt afterwards. In keep-sorted mode, the loaded
+     * tasks are sorted if they are not in order already. If at least {@code logos.archive.doneThreshold}
+     * tasks are done, they are then archived.
      */
     public void loadFromStorgae() {
-        storage.loadTasks(tasks);
+        long stamp = lock.writeLock();
+        try {
+            storage.loadTasks(tasks);
+            trigramIndex.clear();
+            vocabulary.clear();
+            timeIndex.clear();
+            undoneTimeIndex.clear();
+            counter.clear();
+            eventIntervals.clear();
+            recurrences.clear();
+            for (Task task : tasks) {
+                index(task);
+            }
+            if (isKeepingSorted) {
+                sortInPlace();
+            }
+            if (AUTO_ARCHIVE_THRESHOLD > 0
+                    && counter.getCounts(LocalDate.now()).getDone() >= AUTO_ARCHIVE_THRESHOLD) {
+                archiveDone();
+            }
+            undoHistory.clear();
+            redoHistory.clear();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            unlockWrite(stamp);
+        }
     }
 
     /**
@@ -66,17 +215,132 @@ public class TaskList {
         storage.saveTasks(tasks);
     }
 
+    /**
+     * Blocks until every change made to this task list has been written to storage.
+     *
+     * @throws IOException if pending changes could not be written
+     */
+    public void flushStorage() throws IOException {
+        storage.flush();
+    }
+
     /**
      * Returns all tasks formatted as user-friendly list items.
      *
      * @return a list of string representations of tasks
      */
     public List<String> listTasks() {
-        return tasks.stream()
-                .map(Task::getAsListItem)
+        TaskSnapshot view = snapshot();
+        return IntStream.range(0, view.size())
+                .mapToObj(index -> view.get(index).getAsListItem())
                 .toList();
     }
 
+    /**
+     * Returns the tasks in a range of positions, formatted as list items one at a time as the iterator
+     * is advanced. Only the tasks that are iterated over are formatted, so showing one page of a long
+     * list costs the same as showing a short one.
+     * <p>
+     * The tasks are taken from a snapshot of the list as it was when this method was called, so later
+     * changes do not affect an iteration in progress. A range extending past the end of the list is
+     * cut short.
+     * </p>
+     *
+     * @param fromIndex the 0-based position of the first task, inclusive
+     * @param toIndex the 0-based position after the last task, exclusive
+     * @return an iterator over the formatted tasks in the range
+     */
+    public Iterator<String> listItems(int fromIndex, int toIndex) {
+        TaskSnapshot view = snapshot();
+        int end = Math.min(toIndex, view.size());
+        return new Iterator<>() {
+            private int next = fromIndex;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public String next() {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+                return view.get(next++).getAsListItem();
+            }
+        };
+    }
+
+    /**
+     * Returns the tasks in list order as of the last completed change, building the snapshot if
+     * the list has changed since it was last built.
+     */
+    private TaskSnapshot snapshot() {
+        TaskSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long stamp = lock.readLock();
+        try {
+            return snapshotLocked();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the snapshot of the tasks in list order. The caller must hold the read or write lock.
+     */
+    private TaskSnapshot snapshotLocked() {
+        TaskSnapshot current = snapshot;
+        if (current == null) {
+            // Readers share the read lock, so only let one of them build the snapshot
+            synchronized (snapshotLock) {
+                current = snapshot;
+                if (current == null) {
+                    current = tasks.snapshot();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Releases the write lock after a change, discarding the snapshot of the old list first.
+     */
+    private void unlockWrite(long stamp) {
+        snapshot = null;
+        lock.unlockWrite(stamp);
+    }
+
+    /**
+     * Releases the write lock after a change, as {@link #unlockWrite(long)} does, and then waits until the
+     * change is on disk, so that it is never acknowledged before it is saved. With write-behind storage,
+     * the wait happens outside the lock, so changes made by other threads meanwhile join the same batch.
+     */
+    private void commitWrite(long stamp) throws IOException {
+        long mark = storage.markChanges();
+        unlockWrite(stamp);
+        storage.awaitWritten(mark);
+    }
+
+    /**
+     * Returns the number of tasks of each kind, including how many deadlines are overdue. The counts are
+     * kept up to date as the list changes, so this takes constant time however long the list is.
+     *
+     * @param today the current day; deadlines due before it count as overdue
+     * @return the counts
+     */
+    public TaskCounts getCounts(LocalDate today) {
+        long stamp = lock.readLock();
+        try {
+            return counter.getCounts(today);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
     /**
      * Adds a new {@link Todo} task and saves the updated list.
      *
@@ -85,9 +349,8 @@ public class TaskList {
      * @throws IOException if an error occurs while saving to storage
      */
     public Todo addTodo(String taskName) throws IOException {
-        Todo newTodo = new Todo(taskName);
-        tasks.add(newTodo);
-        saveToStorage();
+        Todo newTodo = new Todo(DescriptionPool.intern(taskName));
+        addTask(newTodo);
         return newTodo;
     }
 
@@ -100,9 +363,8 @@ public class TaskList {
      * @throws IOException if an error occurs while saving to storage
      */
     public Deadline addDeadline(String taskName, LocalDateTime deadline) throws IOException {
-        Deadline newDeadline = new Deadline(taskName, deadline);
-        tasks.add(newDeadline);
-        saveToStorage();
+        Deadline newDeadline = new Deadline(DescriptionPool.intern(taskName), deadline);
+        addTask(newDeadline);
         return newDeadline;
     }
 
@@ -116,77 +378,407 @@ public class TaskList {
      * @throws IOException if an error occurs while saving to storage
      */
     public Event addEvent(String taskName, LocalDateTime startDateTime, LocalDateTime endDateTime) throws IOException {
-        Event newEvent = new Event(taskName, startDateTime, endDateTime);
-        tasks.add(newEvent);
-        saveToStorage();
+        Event newEvent = new Event(DescriptionPool.intern(taskName), startDateTime, endDateTime);
+        addTask(newEvent);
         return newEvent;
     }
 
     /**
-     * Marks the task at the given index as done, if it is not already.
+     * Adds a new {@link RecurringEvent} task and saves the updated list. The event is stored as one
+     * rule, however many times it repeats.
      *
-     * @param taskIndex the 1-based index of the task to mark
-     * @return the task that was marked
-     * @throws InvalidIndexException if the index is out of range
+     * @param taskName the description of the event task
+     * @param startDateTime the start date and time of the first occurrence
+     * @param endDateTime the end date and time of the first occurrence
+     * @param recurrence how often the event repeats
+     * @return the newly created {@code RecurringEvent}
      * @throws IOException if an error occurs while saving to storage
      */
-    public Task markTask(int taskIndex) throws InvalidIndexException, IOException {
-        if (taskIndex > tasks.size() | taskIndex <= 0) {
-            throw new InvalidIndexException(taskIndex);
+    public RecurringEvent addRecurringEvent(String taskName, LocalDateTime startDateTime, LocalDateTime endDateTime,
+            Recurrence recurrence) throws IOException {
+        RecurringEvent newEvent = new RecurringEvent(DescriptionPool.intern(taskName), startDateTime, endDateTime,
+                recurrence);
+        addTask(newEvent);
+        return newEvent;
+    }
+
+    /**
+     * Adds a new task to the list, indexes it and saves the addition. The task is appended, or
+     * inserted at its sorted position if keep-sorted mode is on.
+     */
+    private void addTask(Task task) throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            if (!isKeepingSorted) {
+                tasks.add(task);
+                index(task);
+                storage.saveAddition(tasks, task);
+                record(Change.insertion(tasks.size() - 1, task));
+                return;
+            }
+            int position = tasks.sortedPosition(task);
+            tasks.add(position, task);
+            index(task);
+            storage.saveInsertion(tasks, position);
+            record(Change.insertion(position, task));
+        } finally {
+            commitWrite(stamp);
         }
-        assert taskIndex >= 1 && taskIndex <= tasks.size() : "Index out of bounds for task list";
-        Task selectedTask = tasks.get(taskIndex - 1);
+    }
 
-        if (selectedTask.isDone()) {
-            return selectedTask;
+    private void index(Task task) {
+        trigramIndex.add(task);
+        vocabulary.add(task);
+        timeIndex.add(task);
+        if (!task.isDone()) {
+            undoneTimeIndex.add(task);
+        }
+        counter.add(task);
+        if (task instanceof RecurringEvent recurring) {
+            recurrences.add(recurring);
+        } else if (task instanceof Event event) {
+            eventIntervals.add(event);
         }
+    }
 
-        selectedTask.markAsDone();
-        saveToStorage();
-        return selectedTask;
+    private void unindex(Task task) {
+        trigramIndex.remove(task);
+        vocabulary.remove(task);
+        timeIndex.remove(task);
+        undoneTimeIndex.remove(task);
+        counter.remove(task);
+        if (task instanceof RecurringEvent) {
+            recurrences.remove(task);
+        } else if (task instanceof Event event) {
+            eventIntervals.remove(event);
+        }
+    }
+
+    /**
+     * Marks the referenced task as done, if it is not already.
+     *
+     * @param taskRef the position or ID of the task to mark
+     * @return the task that was marked
+     * @throws LogosException if no task has the given position or ID
+     * @throws IOException if an error occurs while saving to storage
+     */
+    public Task markTask(TaskRef taskRef) throws LogosException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            int index = resolve(taskRef);
+            Task selectedTask = tasks.get(index);
+
+            if (selectedTask.isDone()) {
+                return selectedTask;
+            }
+
+            setDoneAt(index, true);
+            storage.saveStatusChange(tasks, index);
+            record(Change.statusChange(new int[] {index}, true));
+            return tasks.get(index);
+        } finally {
+            commitWrite(stamp);
+        }
     }
 
     /**
-     * Marks the task at the given index as not done, if it is currently done.
+     * Marks the referenced task as not done, if it is currently done.
      *
-     * @param taskIndex the 1-based index of the task to unmark
+     * @param taskRef the position or ID of the task to unmark
      * @return the task that was unmarked
-     * @throws InvalidIndexException if the index is out of range
+     * @throws LogosException if no task has the given position or ID
      * @throws IOException if an error occurs while saving to storage
      */
-    public Task unmarkTask(int taskIndex) throws InvalidIndexException, IOException {
-        if (taskIndex > tasks.size() | taskIndex <= 0) {
-            throw new InvalidIndexException(taskIndex);
+    public Task unmarkTask(TaskRef taskRef) throws LogosException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            int index = resolve(taskRef);
+            Task selectedTask = tasks.get(index);
+
+            if (!selectedTask.isDone()) {
+                return selectedTask;
+            }
+
+            setDoneAt(index, false);
+            storage.saveStatusChange(tasks, index);
+            record(Change.statusChange(new int[] {index}, false));
+            return tasks.get(index);
+        } finally {
+            commitWrite(stamp);
         }
-        assert taskIndex >= 1 && taskIndex <= tasks.size() : "Index out of bounds for task list";
-        Task selectedTask = tasks.get(taskIndex - 1);
+    }
 
-        if (!selectedTask.isDone()) {
+    /**
+     * Deletes the referenced task from the list and storage.
+     * <p>
+     * Removing a task takes O(log n) time, however long the list is.
+     *
+     * @param taskRef the position or ID of the task to delete
+     * @return the task that was removed
+     * @throws LogosException if no task has the given position or ID
+     * @throws IOException if an error occurs while saving to storage
+     */
+    public Task deleteTask(TaskRef taskRef) throws LogosException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            int index = resolve(taskRef);
+            Task selectedTask = tasks.remove(index);
+            unindex(selectedTask);
+            storage.saveDeletion(tasks, index);
+            record(Change.deletion(new int[] {index}, new Task[] {selectedTask}));
             return selectedTask;
+        } finally {
+            commitWrite(stamp);
         }
+    }
 
-        selectedTask.markAsNotDone();
-        saveToStorage();
-        return selectedTask;
+    /**
+     * Marks every selected task as done, persisting the changes in a single write.
+     *
+     * @param selection the tasks to mark
+     * @return the selected tasks as they are after the change, in ascending order of position
+     * @throws LogosException if a selected position or ID does not exist; nothing is changed then
+     * @throws IOException if an error occurs while saving to storage
+     */
+    public ListedTasks markTasks(TaskSelection selection) throws LogosException, IOException {
+        return setDone(selection, true);
     }
 
     /**
-     * Deletes the task at the given index from the list and storage.
+     * Marks every selected task as not done, persisting the changes in a single write.
      *
-     * @param taskIndex the 1-based index of the task to delete
-     * @return the task that was removed
-     * @throws InvalidIndexException if the index is out of range
+     * @param selection the tasks to unmark
+     * @return the selected tasks as they are after the change, in ascending order of position
+     * @throws LogosException if a selected position or ID does not exist; nothing is changed then
+     * @throws IOException if an error occurs while saving to storage
+     */
+    public ListedTasks unmarkTasks(TaskSelection selection) throws LogosException, IOException {
+        return setDone(selection, false);
+    }
+
+    /**
+     * Sets the done status of the task at a position, and updates the index of undone tasks, the rules of recurring
+     * events and the counts to match.
+     * The caller must hold the write lock.
+     */
+    private void setDoneAt(int index, boolean isDone) {
+        tasks.setDone(index, isDone);
+        Task task = tasks.get(index);
+        if (isDone) {
+            undoneTimeIndex.remove(task);
+        } else {
+            undoneTimeIndex.add(task);
+        }
+        if (task instanceof RecurringEvent recurring) {
+            recurrences.add(recurring);
+        }
+        counter.setDone(task, isDone);
+    }
+
+    private ListedTasks setDone(TaskSelection selection, boolean isDone) throws LogosException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            int[] indexes = resolve(selection);
+            int[] changed = new int[indexes.length];
+            int changedCount = 0;
+            for (int index : indexes) {
+                if (tasks.get(index).isDone() != isDone) {
+                    setDoneAt(index, isDone);
+                    changed[changedCount++] = index;
+                }
+            }
+            if (changedCount > 0) {
+                changed = Arrays.copyOf(changed, changedCount);
+                storage.saveStatusChanges(tasks, changed);
+                record(Change.statusChange(changed, isDone));
+            }
+            return listedLocked(Arrays.stream(indexes).boxed().toList());
+        } finally {
+            commitWrite(stamp);
+        }
+    }
+
+    /**
+     * Deletes every selected task from the list, persisting the deletions in a single write.
+     * <p>
+     * The selection is resolved against the list before anything is removed, and the tasks are then
+     * removed from the last to the first, so removing one task never shifts the position of a task
+     * that is still to be removed.
+     *
+     * @param selection the tasks to delete
+     * @return the removed tasks, in the order they were in the list
+     * @throws LogosException if a selected position or ID does not exist; nothing is deleted then
      * @throws IOException if an error occurs while saving to storage
      */
-    public Task deleteTask(int taskIndex) throws InvalidIndexException, IOException {
-        if (taskIndex > tasks.size() | taskIndex <= 0) {
+    public List<Task> deleteTasks(TaskSelection selection) throws LogosException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            int[] indexes = resolve(selection);
+            Task[] removed = removeAll(indexes);
+            if (removed.length > 0) {
+                record(Change.deletion(indexes, removed));
+            }
+            return List.of(removed);
+        } finally {
+            commitWrite(stamp);
+        }
+    }
+
+    /**
+     * Moves every done task out of the list and into the archive.
+     * <p>
+     * The remaining tasks are copied back into the store in one pass rather than removing the done
+     * tasks one at a time, which would shift the rest of a columnar store once for every done task.
+     * Archiving cannot be undone, so the undo and redo histories are cleared.
+     *
+     * @return the archived tasks, in the order they were in the list
+     * @throws IOException if an error occurs while writing the archive or saving to storage
+     */
+    public List<Task> archiveDoneTasks() throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            List<Task> archived = archiveDone();
+            if (!archived.isEmpty()) {
+                undoHistory.clear();
+                redoHistory.clear();
+            }
+            return archived;
+        } finally {
+            commitWrite(stamp);
+        }
+    }
+
+    /**
+     * Archives the done tasks. The caller must hold the write lock.
+     */
+    private List<Task> archiveDone() throws IOException {
+        List<Task> kept = new ArrayList<>(tasks.size());
+        List<Task> archived = new ArrayList<>();
+        for (Task task : tasks) {
+            (task.isDone() ? archived : kept).add(task);
+        }
+        if (archived.isEmpty()) {
+            return archived;
+        }
+        tasks.clear();
+        tasks.addAll(kept);
+        for (Task task : archived) {
+            unindex(task);
+        }
+        storage.archiveTasks(tasks, archived);
+        return archived;
+    }
+
+    /**
+     * Returns every archived task formatted as a list item, in the order the tasks were archived.
+     * The archive is read from storage on each call.
+     *
+     * @return the archived tasks as list items
+     * @throws IOException if the archive cannot be read
+     */
+    public List<String> listArchivedTasks() throws IOException {
+        return storage.loadArchivedTasks().stream()
+                .map(Task::getAsListItem)
+                .toList();
+    }
+
+    /**
+     * Finds the archived tasks whose descriptions contain every word of the given search query, matched
+     * as by {@link #findIndexes(String)}. The archive is read from storage and checked task by task.
+     *
+     * @param searchWord the query to search for
+     * @return the matching archived tasks as list items, in the order they were archived
+     * @throws IOException if the archive cannot be read
+     */
+    public List<String> findArchivedTasks(String searchWord) throws IOException {
+        String[] words = searchWord.toLowerCase().trim().split("\\s+");
+        return storage.loadArchivedTasks().stream()
+                .filter(task -> containsAll(task.getDescription(), words))
+                .map(Task::getAsListItem)
+                .toList();
+    }
+
+    /**
+     * Removes the tasks at the given positions, from the last to the first, and saves the removals.
+     * The caller must hold the write lock.
+     *
+     * @param indexes the 0-based positions of the tasks to remove, in ascending order
+     * @return the removed tasks, in the same order
+     */
+    private Task[] removeAll(int[] indexes) throws IOException {
+        Task[] removed = new Task[indexes.length];
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            removed[i] = tasks.remove(indexes[i]);
+            unindex(removed[i]);
+        }
+        storage.saveDeletions(tasks, indexes);
+        return removed;
+    }
+
+    /**
+     * Inserts tasks at the given positions, from the first to the last, and saves the insertions.
+     * The caller must hold the write lock.
+     *
+     * @param indexes the 0-based positions the tasks are to have once all are inserted, in ascending order
+     * @param inserted the tasks to insert, in the same order
+     */
+    private void insertAll(int[] indexes, Task[] inserted) throws IOException {
+        for (int i = 0; i < indexes.length; i++) {
+            tasks.add(indexes[i], inserted[i]);
+            index(inserted[i]);
+        }
+        storage.saveInsertions(tasks, indexes);
+    }
+
+    /**
+     * Returns the distinct 0-based positions of the selected tasks in ascending order.
+     *
+     * @throws InvalidIndexException if a selected position is out of range
+     * @throws InvalidTaskIdException if a selected ID is not used by any task
+     */
+    private int[] resolve(TaskSelection selection) throws InvalidIndexException, InvalidTaskIdException {
+        BitSet selected = new BitSet(tasks.size());
+        if (selection.isDoneTasks()) {
+            int i = 0;
+            for (Task task : tasks) {
+                if (task.isDone()) {
+                    selected.set(i);
+                }
+                i++;
+            }
+            return selected.stream().toArray();
+        }
+        for (TaskRef ref : selection.getRefs()) {
+            selected.set(resolve(ref));
+        }
+        for (int[] range : selection.getRanges()) {
+            if (range[0] <= 0 || range[1] > tasks.size()) {
+                throw new InvalidIndexException(range[0] <= 0 ? range[0] : range[1]);
+            }
+            selected.set(range[0] - 1, range[1]);
+        }
+        return selected.stream().toArray();
+    }
+
+    /**
+     * Returns the current 0-based position of the referenced task.
+     *
+     * @throws InvalidIndexException if the reference is a position that is out of range
+     * @throws InvalidTaskIdException if the reference is an ID that no task has
+     */
+    private int resolve(TaskRef taskRef) throws InvalidIndexException, InvalidTaskIdException {
+        if (taskRef.isId()) {
+            int index = tasks.indexOfId(taskRef.getValue());
+            if (index < 0) {
+                throw new InvalidTaskIdException(taskRef.getValue());
+            }
+            return index;
+        }
+        int taskIndex = taskRef.getValue();
+        if (taskIndex > tasks.size() || taskIndex <= 0) {
             throw new InvalidIndexException(taskIndex);
         }
-        assert taskIndex >= 1 && taskIndex <= tasks.size() : "Index out of bounds for task list";
-        Task selectedTask = tasks.get(taskIndex - 1);
-        tasks.remove(taskIndex - 1);
-        saveToStorage();
-        return selectedTask;
+        return taskIndex - 1;
     }
 
     /**
@@ -194,6 +786,9 @@ public class TaskList {
      * <p>
      * Each index refers to a position in the internal {@code tasks} list, and
      * the resulting strings are obtained by calling {@link Task#getAsListItem()}.
+     * Only the given tasks are looked up, without building a snapshot of the list.
+     * The positions are those of the list now, so if another thread may have changed the list since
+     * the indexes were found, use a method that returns {@link ListedTasks} instead.
      * </p>
      *
      * @param indexes the list of 0-based indexes pointing to tasks in the task list
@@ -201,31 +796,484 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if any index is invalid for the current task list
      */
     public List<String> filterByIndexes(List<Integer> indexes) {
-        return indexes.stream()
-                .map(tasks::get)
-                .map(Task::getAsListItem)
-                .toList();
+        long stamp = lock.readLock();
+        try {
+            return itemsAt(indexes, tasks::get);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
-     * Finds the indexes of tasks whose descriptions contain the given search word.
+     * Returns the tasks at some positions with their list items, read from the current tasks. The
+     * caller must hold the read or write lock.
+     */
+    private ListedTasks listedLocked(List<Integer> indexes) {
+        return new ListedTasks(indexes, itemsAt(indexes, tasks::get));
+    }
+
+    private static List<String> itemsAt(List<Integer> indexes, IntFunction<Task> taskAt) {
+        List<String> items = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            items.add(taskAt.apply(index).getAsListItem());
+        }
+        return items;
+    }
+
+    /**
+     * Finds the indexes of tasks whose descriptions contain every word of the given search query.
      * <p>
-     * The search is case-insensitive. Returned indexes are 0-based and refer to the
-     * positions of matching tasks in the underlying {@code tasks} list.
+     * The search is case-insensitive and matches words anywhere in a description, including inside
+     * longer words (e.g. {@code port} matches "report"). Candidates are narrowed down with a trigram
+     * index and then checked exactly; if no query word has at least three characters, every task is
+     * checked instead. Walks over long lists run in parallel. Returned indexes are 0-based, in ascending
+     * order, and refer to the positions of matching tasks in the underlying {@code tasks} list.
      * </p>
      *
-     * @param searchWord the keyword to search for within each task's description
-     * @return a list of 0-based indexes of tasks whose descriptions contain the search word,
-     *         or an empty list if no matches are found
+     * @param searchWord the query to search for
+     * @return a list of 0-based indexes of matching tasks, or an empty list if no matches are found
      */
     public List<Integer> findIndexes(String searchWord) {
-        final String q = searchWord.toLowerCase();
-        return IntStream.range(0, tasks.size())
-                .filter(i -> tasks.get(i).getDescription().toLowerCase().contains(q))
+        return find(searchWord, false).getIndexes();
+    }
+
+    /**
+     * Finds the tasks whose descriptions contain every word of the given search query, as for
+     * {@link #findIndexes(String)}, with their list items taken from the same state of the list as
+     * their positions.
+     *
+     * @param searchWord the query to search for
+     * @return the matching tasks, in ascending order of position
+     */
+    public ListedTasks findTasks(String searchWord) {
+        return find(searchWord, true);
+    }
+
+    private ListedTasks find(String searchWord, boolean isListing) {
+        String[] words = searchWord.toLowerCase().trim().split("\\s+");
+        int[] candidateIds;
+        TaskSnapshot view;
+        long stamp = lock.readLock();
+        try {
+            candidateIds = trigramIndex.candidates(words);
+            if (candidateIds != null && candidateIds.length < tasks.size() / INDEX_LOOKUPS_PER_WALK) {
+                List<Integer> indexes = new ArrayList<>();
+                for (int id : candidateIds) {
+                    if (containsAll(tasks.getById(id).getDescription(), words)) {
+                        indexes.add(tasks.indexOfId(id));
+                    }
+                }
+                indexes.sort(null);
+                return isListing ? listedLocked(indexes) : new ListedTasks(indexes, List.of());
+            }
+            view = snapshotLocked();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        // The walk only needs the snapshot, so it runs without holding the lock
+        List<Integer> indexes = scanIndexes(view, words, candidateIds,
+                HAS_SPARE_PROCESSORS && view.size() >= PARALLEL_SCAN_THRESHOLD);
+        return new ListedTasks(indexes, isListing ? itemsAt(indexes, view::get) : List.of());
+    }
+
+    /**
+     * Finds the indexes of tasks with a word in their description that is spelled like the given word.
+     * <p>
+     * A word matches if it is within one edit (a character inserted, deleted or substituted) of a query of
+     * three or four characters, or two edits of a longer query, ignoring case. Queries of one or two
+     * characters only match the same word, since almost every short word is one edit away. The words are looked up
+     * in a {@link VocabularyIndex} of every word in the list, so only part of the vocabulary is compared
+     * with the query. Returned indexes are 0-based and ranked by the distance of each task's closest word,
+     * then by position.
+     * </p>
+     *
+     * @param searchWord the word to search for
+     * @return a list of 0-based indexes of matching tasks, or an empty list if no matches are found
+     */
+    public List<Integer> findFuzzyIndexes(String searchWord) {
+        return findFuzzy(searchWord, false).getIndexes();
+    }
+
+    /**
+     * Finds the tasks with a word in their description that is spelled like the given word, as for
+     * {@link #findFuzzyIndexes(String)}, with their list items taken from the same state of the list as
+     * their positions.
+     *
+     * @param searchWord the word to search for
+     * @return the matching tasks, closest first
+     */
+    public ListedTasks findFuzzyTasks(String searchWord) {
+        return findFuzzy(searchWord, true);
+    }
+
+    private ListedTasks findFuzzy(String searchWord, boolean isListing) {
+        String query = searchWord.toLowerCase().trim();
+        int maxDistance;
+        if (query.length() <= EXACT_FUZZY_QUERY_LENGTH) {
+            maxDistance = 0;
+        } else if (query.length() <= SHORT_FUZZY_QUERY_LENGTH) {
+            maxDistance = 1;
+        } else {
+            maxDistance = 2;
+        }
+        long stamp = lock.readLock();
+        try {
+            // The closest distance of each task, filled in closest word first
+            Map<Integer, Integer> distances = new HashMap<>();
+            for (VocabularyIndex.Match match : vocabulary.search(query, maxDistance)) {
+                for (int id : vocabulary.idsOf(match.getWord())) {
+                    distances.putIfAbsent(id, match.getDistance());
+                }
+            }
+            long[] ranked = new long[distances.size()];
+            int count = 0;
+            for (Map.Entry<Integer, Integer> entry : distances.entrySet()) {
+                ranked[count++] = (long) entry.getValue() << 32 | tasks.indexOfId(entry.getKey());
+            }
+            Arrays.sort(ranked);
+            List<Integer> indexes = new ArrayList<>(ranked.length);
+            for (long key : ranked) {
+                indexes.add((int) key);
+            }
+            return isListing ? listedLocked(indexes) : new ListedTasks(indexes, List.of());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the indexes of tasks whose descriptions contain every given word in one walk over the list.
+     * With many candidates, this is cheaper than locating each candidate by its ID.
+     * <p>
+     * A parallel walk splits the positions between the threads of the common fork-join pool, and the
+     * results are still returned in ascending order.
+     *
+     * @param view a snapshot of the tasks in list order
+     * @param words the lowercase words that must all appear in a description
+     * @param candidateIds the sorted IDs of the only tasks that need to be checked, or null to check all
+     * @param isParallel whether to walk the list in parallel
+     */
+    static List<Integer> scanIndexes(TaskSnapshot view, String[] words, int[] candidateIds, boolean isParallel) {
+        BitSet candidates = candidateIds == null ? null : new BitSet();
+        if (candidates != null) {
+            for (int id : candidateIds) {
+                candidates.set(id);
+            }
+        }
+        IntStream positions = IntStream.range(0, view.size());
+        if (isParallel) {
+            positions = positions.parallel();
+        }
+        return positions
+                .filter(i -> (candidates == null || candidates.get(view.idAt(i)))
+                        && containsAll(view.descriptionAt(i), words))
                 .boxed()
                 .toList();
     }
 
+    private static boolean containsAll(String description, String[] words) {
+        for (String word : words) {
+            if (!containsIgnoreCase(description, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a description contains a word, ignoring case. Unlike lowercasing the description
+     * first, this compares it in place and allocates nothing: the next occurrences of the word's first
+     * character, in lower and upper case, are found with {@link String#indexOf(int, int)}, and the rest of
+     * the word is compared at each of them. Query words are lowercased with {@link String#toLowerCase()},
+     * so only characters whose lowercase form is a single character can match.
+     *
+     * @param description the text to search
+     * @param word the lowercase word to look for
+     */
+    static boolean containsIgnoreCase(String description, String word) {
+        int length = word.length();
+        if (length == 0) {
+            return true;
+        }
+        char lower = word.charAt(0);
+        char upper = Character.toUpperCase(lower);
+        int last = description.length() - length;
+        int nextLower = description.indexOf(lower);
+        int nextUpper = upper == lower ? -1 : description.indexOf(upper);
+        while (nextLower >= 0 || nextUpper >= 0) {
+            int i = nextUpper < 0 || (nextLower >= 0 && nextLower < nextUpper) ? nextLower : nextUpper;
+            if (i > last) {
+                return false;
+            }
+            if (matchesRestAt(description, i, word)) {
+                return true;
+            }
+            if (i == nextLower) {
+                nextLower = description.indexOf(lower, i + 1);
+            } else {
+                nextUpper = description.indexOf(upper, i + 1);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the characters of a description after {@code offset} match the lowercase word after
+     * its first character, ignoring case. Characters are only lowercased when they differ, so matching
+     * lowercase text costs one comparison per character.
+     */
+    private static boolean matchesRestAt(String description, int offset, String word) {
+        for (int j = 1; j < word.length(); j++) {
+            char c = description.charAt(offset + j);
+            char w = word.charAt(j);
+            if (c != w && Character.toLowerCase(c) != w) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the indexes of deadlines due, and events starting, within the given range.
+     * <p>
+     * The tasks are looked up in a time index, so this takes O(log n + k log n) time for k results
+     * instead of scanning and sorting the whole list. A recurring event is found once for each of its
+     * occurrences in the range, which are worked out from its rule as the range needs them. Returned
+     * indexes are 0-based and ordered by the time of their tasks, earliest first.
+     * </p>
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @return a list of 0-based indexes of the tasks in the range, in chronological order
+     */
+    public List<Integer> findDueIndexes(LocalDateTime from, LocalDateTime to) {
+        return Occurrence.indexesOf(findDueOccurrences(from, to));
+    }
+
+    /**
+     * Finds the deadlines due, and the events and occurrences of recurring events starting, within the
+     * given range, as for {@link #findDueIndexes(LocalDateTime, LocalDateTime)}.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @return the occurrences in the range, in chronological order
+     */
+    public List<Occurrence> findDueOccurrences(LocalDateTime from, LocalDateTime to) {
+        long stamp = lock.readLock();
+        try {
+            return merge(timeIndex.between(from, to), recurrences.between(from, to, Integer.MAX_VALUE, false),
+                    Integer.MAX_VALUE);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the indexes of the first deadlines and events at or after the given time. A recurring event
+     * is found once for each of its occurrences among them. Returned indexes are 0-based and ordered by
+     * the time of their tasks, earliest first.
+     *
+     * @param from the earliest time to include, usually the current time
+     * @param count the maximum number of tasks to return
+     * @return a list of at most {@code count} 0-based indexes, in chronological order
+     */
+    public List<Integer> findUpcomingIndexes(LocalDateTime from, int count) {
+        return Occurrence.indexesOf(findUpcomingOccurrences(from, count));
+    }
+
+    /**
+     * Finds the first deadlines, events and occurrences of recurring events at or after the given time,
+     * as for {@link #findUpcomingIndexes(LocalDateTime, int)}.
+     *
+     * @param from the earliest time to include, usually the current time
+     * @param count the maximum number of occurrences to return
+     * @return at most {@code count} occurrences, in chronological order
+     */
+    public List<Occurrence> findUpcomingOccurrences(LocalDateTime from, int count) {
+        long stamp = lock.readLock();
+        try {
+            return merge(timeIndex.after(from, count), recurrences.between(from, null, count, false), count);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the indexes of the first deadlines and events at or after the given time that are not done.
+     * <p>
+     * Unlike {@link #findUpcomingIndexes(LocalDateTime, int)}, done tasks are left out. The tasks are
+     * taken from a second {@link TimeIndex} that only holds the tasks that are not done, kept up to date as
+     * tasks are added, deleted, marked and unmarked. The search starts at the given time, so this takes
+     * O(log n + k) time for k results plus a lookup of each result's position, however many tasks are
+     * overdue, and neither sorts nor saves the list. A recurring event is found once for each of its
+     * occurrences among them. Returned indexes are 0-based and ordered by the time of their tasks,
+     * earliest first.
+     * </p>
+     *
+     * @param from the earliest time to include, usually the current time
+     * @param count the maximum number of tasks to return
+     * @return a list of at most {@code count} 0-based indexes, in chronological order
+     */
+    public List<Integer> findNextIndexes(LocalDateTime from, int count) {
+        return Occurrence.indexesOf(findNextOccurrences(from, count));
+    }
+
+    /**
+     * Finds the first deadlines, events and occurrences of recurring events at or after the given time
+     * that are not done, as for {@link #findNextIndexes(LocalDateTime, int)}.
+     *
+     * @param from the earliest time to include, usually the current time
+     * @param count the maximum number of occurrences to return
+     * @return at most {@code count} occurrences, in chronological order
+     */
+    public List<Occurrence> findNextOccurrences(LocalDateTime from, int count) {
+        long stamp = lock.readLock();
+        try {
+            return merge(undoneTimeIndex.after(from, count), recurrences.between(from, null, count, true), count);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the indexes of the events in progress at the given instant, including events that
+     * start or end exactly then.
+     * <p>
+     * The events are looked up in an interval tree, so this takes O(log n + k log n) time for k
+     * results, and the rule of each recurring event is checked for an occurrence covering the instant.
+     * Returned indexes are 0-based and ordered by the start of their events.
+     * </p>
+     *
+     * @param instant the instant to look up
+     * @return a list of 0-based indexes of the events covering the instant
+     */
+    public List<Integer> findEventIndexesAt(LocalDateTime instant) {
+        return Occurrence.indexesOf(findEventOccurrencesAt(instant));
+    }
+
+    /**
+     * Finds the events and occurrences of recurring events in progress at the given instant, as for
+     * {@link #findEventIndexesAt(LocalDateTime)}.
+     *
+     * @param instant the instant to look up
+     * @return the occurrences covering the instant, ordered by their start
+     */
+    public List<Occurrence> findEventOccurrencesAt(LocalDateTime instant) {
+        long stamp = lock.readLock();
+        try {
+            return merge(eventIntervals.covering(instant), recurrences.covering(instant), Integer.MAX_VALUE);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the indexes of the other events that overlap the given event in time, as for
+     * {@link #findClashingOccurrences(Event)}.
+     *
+     * @param event an event in this list
+     * @return a list of 0-based indexes of the clashing events, ordered by the start of their clash
+     */
+    public List<Integer> findClashingIndexes(Event event) {
+        return Occurrence.indexesOf(findClashingOccurrences(event));
+    }
+
+    /**
+     * Finds the other events that overlap the given event in time, each with the occurrence that clashes
+     * first. Events that only touch, with one ending when the other starts, do not overlap. A recurring
+     * event clashes if any of its occurrences overlaps the event. For a recurring event, only its
+     * occurrences starting within a year of the first are checked, since its rule repeats forever.
+     *
+     * @param event an event in this list
+     * @return the first clashing occurrence of each clashing event, ordered by their start
+     */
+    public List<Occurrence> findClashingOccurrences(Event event) {
+        long stamp = lock.readLock();
+        try {
+            LocalDateTime start = event.getStartDateTime();
+            if (!(event instanceof RecurringEvent recurring)) {
+                return clashesLocked(start, event.getEndDateTime(), event.getId());
+            }
+            Duration length = Duration.between(start, event.getEndDateTime());
+            LocalDateTime horizon = start.plus(CLASH_HORIZON);
+            Recurrence recurrence = recurring.getRecurrence();
+            // The first clash with each event, by position, found occurrence by occurrence
+            Map<Integer, Occurrence> firstClashes = new HashMap<>();
+            for (long n = 0; recurrence.occurrence(start, n).isBefore(horizon); n++) {
+                LocalDateTime occurrenceStart = recurrence.occurrence(start, n);
+                for (Occurrence clash : clashesLocked(occurrenceStart, occurrenceStart.plus(length), event.getId())) {
+                    firstClashes.putIfAbsent(clash.getIndex(), clash);
+                }
+            }
+            List<Occurrence> clashes = new ArrayList<>(firstClashes.values());
+            clashes.sort(Comparator.comparing(Occurrence::getStart).thenComparingInt(Occurrence::getIndex));
+            return clashes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the events and occurrences that overlap a period, leaving out one task. The caller must hold
+     * the read lock.
+     */
+    private List<Occurrence> clashesLocked(LocalDateTime start, LocalDateTime end, int excludedId) {
+        int[] eventIds = Arrays.stream(eventIntervals.overlapping(start, end))
+                .filter(id -> id != excludedId)
+                .toArray();
+        return merge(eventIds, recurrences.overlapping(start, end, excludedId), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the tasks of some occurrences formatted as list items, each showing the times of its
+     * occurrence.
+     *
+     * @param occurrences occurrences found by this list
+     * @return the list items, in the same order
+     */
+    public List<String> filterOccurrences(List<Occurrence> occurrences) {
+        TaskSnapshot view = snapshot();
+        return occurrences.stream()
+                .map(occurrence -> {
+                    Task task = view.get(occurrence.getIndex());
+                    return task instanceof RecurringEvent recurring
+                            ? recurring.getOccurrenceAsListItem(occurrence.getStart())
+                            : task.getAsListItem();
+                })
+                .toList();
+    }
+
+    /**
+     * Merges the IDs of one-off tasks, ordered by time and then ID, with occurrences of recurring events in
+     * the same order, into occurrences at the current positions of their tasks. The time of a one-off task
+     * is the one it is indexed by. The caller must hold the read lock.
+     */
+    private List<Occurrence> merge(int[] ids, RecurrenceIndex.Occurrences recurring, int limit) {
+        List<Occurrence> merged = new ArrayList<>(Math.min(limit, ids.length + recurring.size()));
+        int i = 0;
+        int j = 0;
+        Occurrence oneOff = i < ids.length ? oneOffOccurrence(ids[i]) : null;
+        while (merged.size() < limit && (oneOff != null || j < recurring.size())) {
+            boolean isOneOffFirst = oneOff != null && (j == recurring.size()
+                    || oneOff.getStart().isBefore(recurring.startAt(j))
+                    || oneOff.getStart().equals(recurring.startAt(j)) && ids[i] < recurring.idAt(j));
+            if (isOneOffFirst) {
+                merged.add(oneOff);
+                i++;
+                oneOff = i < ids.length ? oneOffOccurrence(ids[i]) : null;
+            } else {
+                merged.add(new Occurrence(tasks.indexOfId(recurring.idAt(j)), recurring.startAt(j)));
+                j++;
+            }
+        }
+        return merged;
+    }
+
+    private Occurrence oneOffOccurrence(int id) {
+        int index = tasks.indexOfId(id);
+        return new Occurrence(index, TimeIndex.timeOf(tasks.get(index)));
+    }
+
     /**
      * Sorts the in-memory task list with the following precedence and then saves:
      * <ol>
@@ -233,64 +1281,169 @@ public class TaskList {
      *   <li>Deadlines next, ascending by deadline datetime</li>
      *   <li>Events last, ascending by start datetime, then by end datetime</li>
      * </ol>
-     * When comparing a deadline against an event, the deadline's datetime is
-     * compared against the event's start datetime.
+     * The order is given by the precomputed {@link SortKey} of each task. If the list is already
+     * in this order, nothing is changed or saved.
      *
+     * @return true if the tasks were reordered, false if they were already sorted
      * @throws IOException if an error occurs while saving to storage
      */
-    public void sortTasks() throws IOException {
-        Comparator<Task> cmp = (a, b) -> {
-            int ra = rank(a);
-            int rb = rank(b);
-            if (ra != rb) return Integer.compare(ra, rb);
-
-            // Same rank → type-specific comparison
-            if (a instanceof Todo && b instanceof Todo) {
-                // Keep insertion order for Todos; List.sort is stable.
-                return 0;
+    public boolean sortTasks() throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            if (tasks.isSortedByKey()) {
+                return false;
             }
+            int[] previousOrder = new int[tasks.size()];
+            TaskSnapshot view = snapshotLocked();
+            for (int i = 0; i < previousOrder.length; i++) {
+                previousOrder[i] = view.idAt(i);
+            }
+            sortInPlace();
+            record(Change.reordering(previousOrder));
+            return true;
+        } finally {
+            commitWrite(stamp);
+        }
+    }
 
-            if (a instanceof Deadline && b instanceof Deadline) {
-                LocalDateTime deadlineA = ((Deadline) a).getDeadline();
-                LocalDateTime deadlineB = ((Deadline) b).getDeadline();
-                return deadlineA.compareTo(deadlineB);
+    /**
+     * Sorts and saves the tasks unless they are already sorted. The caller must hold the write lock.
+     */
+    private boolean sortInPlace() throws IOException {
+        if (tasks.isSortedByKey()) {
+            return false;
+        }
+        tasks.sortByKey();
+        saveToStorage();
+        return true;
+    }
+
+    /**
+     * Undoes the most recent change that has not been undone yet, and saves the list as it was before it.
+     *
+     * @return what the undone change did, e.g. {@code deleted 3 tasks}
+     * @throws LogosException if there is no change to undo
+     * @throws IOException if an error occurs while saving to storage
+     */
+    public String undo() throws LogosException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            Change change = undoHistory.poll();
+            if (change == null) {
+                throw new LogosException("There is nothing to undo!");
             }
+            apply(change, true);
+            redoHistory.push(change);
+            return change.getDescription();
+        } finally {
+            commitWrite(stamp);
+        }
+    }
 
-            if (a instanceof Event && b instanceof Event) {
-                Event eventA = (Event) a;
-                Event eventB = (Event) b;
-                int byStart = eventA.getStartDateTime().compareTo(eventB.getStartDateTime());
-                return (byStart != 0) ? byStart : eventA.getEndDateTime().compareTo(eventB.getEndDateTime());
+    /**
+     * Makes the most recently undone change again. Any other change made since the undo clears the
+     * changes that could be redone.
+     *
+     * @return what the redone change did, e.g. {@code deleted 3 tasks}
+     * @throws LogosException if there is no change to redo
+     * @throws IOException if an error occurs while saving to storage
+     */
+    public String redo() throws LogosException, IOException {
+        long stamp = lock.writeLock();
+        try {
+            Change change = redoHistory.poll();
+            if (change == null) {
+                throw new LogosException("There is nothing to redo!");
             }
+            apply(change, false);
+            undoHistory.push(change);
+            return change.getDescription();
+        } finally {
+            commitWrite(stamp);
+        }
+    }
 
-            // Cross-type within same rank (Deadline vs Event)
-            if (a instanceof Deadline && b instanceof Event) {
-                LocalDateTime deadlineA = ((Deadline) a).getDeadline();
-                LocalDateTime eventBStart = ((Event) b).getStartDateTime();
-                return deadlineA.compareTo(eventBStart);
+    /**
+     * Adds a change to the undo history, dropping the oldest change if the history is full, and clears
+     * the redo history. The caller must hold the write lock.
+     */
+    private void record(Change change) {
+        redoHistory.clear();
+        if (undoDepth == 0) {
+            return;
+        }
+        if (undoHistory.size() == undoDepth) {
+            undoHistory.removeLast();
+        }
+        undoHistory.push(change);
+    }
+
+    /**
+     * Applies a recorded change, or its inverse, to the list and saves it. The caller must hold the write lock.
+     *
+     * @param isInverse whether to undo the change rather than make it again
+     */
+    private void apply(Change change, boolean isInverse) throws IOException {
+        switch (change.getKind()) {
+        case INSERTION, DELETION -> {
+            boolean isInsertion = (change.getKind() == Change.Kind.INSERTION) != isInverse;
+            if (isInsertion) {
+                insertAll(change.getIndexes(), change.getTasks());
+            } else {
+                removeAll(change.getIndexes());
+            }
+        }
+        case STATUS -> {
+            boolean isDone = change.isDone() != isInverse;
+            for (int index : change.getIndexes()) {
+                setDoneAt(index, isDone);
             }
-            if (a instanceof Event && b instanceof Deadline) {
-                LocalDateTime eventAStart = ((Event) a).getStartDateTime();
-                LocalDateTime deadlineB = ((Deadline) b).getDeadline();
-                return eventAStart.compareTo(deadlineB);
+            storage.saveStatusChanges(tasks, change.getIndexes());
+        }
+        case REORDERING -> {
+            if (isInverse) {
+                restoreOrder(change.getIndexes());
+            } else {
+                tasks.sortByKey();
             }
+            saveToStorage();
+        }
+        default -> throw new IllegalStateException("Unknown change: " + change.getKind());
+        }
+    }
 
-            // Fallback: keep order
-            return 0;
-        };
+    /**
+     * Puts the tasks back in the given order of IDs. The caller must hold the write lock.
+     */
+    private void restoreOrder(int[] ids) {
+        Task[] ordered = new Task[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ordered[i] = tasks.getById(ids[i]);
+        }
+        tasks.clear();
+        for (Task task : ordered) {
+            tasks.add(task);
+        }
+    }
 
-        // TimSort used by List.sort is stable → Todos keep relative order
-        tasks.sort(cmp);
-        saveToStorage();
+    /**
+     * Turns keep-sorted mode on or off. While it is on, new tasks are inserted at their sorted
+     * position instead of being appended, in O(log n) time, so a sorted list stays sorted. Turning
+     * it on does not sort the list by itself; call {@link #sortTasks()} first.
+     *
+     * @param isKeepingSorted whether new tasks should be inserted in sorted order
+     */
+    public void setKeepingSorted(boolean isKeepingSorted) {
+        this.isKeepingSorted = isKeepingSorted;
     }
 
-    /** Returns a type rank: lower comes first (Todo → Deadline → Event). */
-    private static int rank(Task t) {
-        if (t instanceof Todo) return 0;
-        if (t instanceof Deadline) return 1;
-        if (t instanceof Event) return 2;
-        // Unknown kinds go last by default
-        return Integer.MAX_VALUE;
+    /**
+     * Returns whether new tasks are inserted at their sorted position.
+     *
+     * @return true if keep-sorted mode is on
+     */
+    public boolean isKeepingSorted() {
+        return isKeepingSorted;
     }
 
 }
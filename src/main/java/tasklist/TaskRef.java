@@ -0,0 +1,50 @@
+package tasklist;
+
+/**
+ * Refers to a task either by its 1-based position in the list or by its stable ID.
+ * <p>
+ * Positions shift when earlier tasks are deleted or the list is sorted, while an ID keeps
+ * referring to the same task for as long as it is in the list. IDs are written as {@code #id}.
+ */
+public final class TaskRef {
+    private final int value;
+    private final boolean isId;
+
+    private TaskRef(int value, boolean isId) {
+        this.value = value;
+        this.isId = isId;
+    }
+
+    /**
+     * Returns a reference to the task at the given position.
+     *
+     * @param index the 1-based position of the task
+     * @return the reference
+     */
+    public static TaskRef ofIndex(int index) {
+        return new TaskRef(index, false);
+    }
+
+    /**
+     * Returns a reference to the task with the given ID.
+     *
+     * @param id the ID of the task
+     * @return the reference
+     */
+    public static TaskRef ofId(int id) {
+        return new TaskRef(id, true);
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public boolean isId() {
+        return isId;
+    }
+
+    @Override
+    public String toString() {
+        return isId ? "#" + value : String.valueOf(value);
+    }
+}
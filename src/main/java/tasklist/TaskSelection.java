@@ -0,0 +1,106 @@
+package tasklist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Selects a group of tasks for a batch operation such as {@code mark 1-200}, {@code delete 3,7,9-12}
+ * or {@code delete /done}.
+ * <p>
+ * A selection is either every task that is done, or any mix of single {@link TaskRef}s and ranges of
+ * 1-based positions. Ranges are kept as their two ends rather than expanded, and every position or ID
+ * is resolved against the list as it is before the operation, so deleting several tasks at once does
+ * not shift the positions of the tasks that are still to be deleted.
+ */
+public final class TaskSelection {
+    private final boolean isDoneTasks;
+    private final List<TaskRef> refs = new ArrayList<>();
+    private final List<int[]> ranges = new ArrayList<>();
+
+    private TaskSelection(boolean isDoneTasks) {
+        this.isDoneTasks = isDoneTasks;
+    }
+
+    /**
+     * Creates an empty selection, to which tasks and ranges can be added.
+     */
+    public TaskSelection() {
+        this(false);
+    }
+
+    /**
+     * Returns a selection of every task that is done.
+     *
+     * @return the selection
+     */
+    public static TaskSelection doneTasks() {
+        return new TaskSelection(true);
+    }
+
+    /**
+     * Returns a selection of a single task.
+     *
+     * @param ref the position or ID of the task
+     * @return the selection
+     */
+    public static TaskSelection of(TaskRef ref) {
+        TaskSelection selection = new TaskSelection();
+        selection.add(ref);
+        return selection;
+    }
+
+    /**
+     * Adds a single task to the selection.
+     *
+     * @param ref the position or ID of the task
+     * @return this selection
+     */
+    public TaskSelection add(TaskRef ref) {
+        refs.add(ref);
+        return this;
+    }
+
+    /**
+     * Adds every task between two positions to the selection.
+     *
+     * @param first the 1-based position of the first task, inclusive
+     * @param last the 1-based position of the last task, inclusive
+     * @return this selection
+     * @throws IllegalArgumentException if {@code first} is after {@code last}
+     */
+    public TaskSelection addRange(int first, int last) {
+        if (first > last) {
+            throw new IllegalArgumentException("Range " + first + "-" + last + " is reversed");
+        }
+        ranges.add(new int[] {first, last});
+        return this;
+    }
+
+    public boolean isDoneTasks() {
+        return isDoneTasks;
+    }
+
+    List<TaskRef> getRefs() {
+        return refs;
+    }
+
+    List<int[]> getRanges() {
+        return ranges;
+    }
+
+    @Override
+    public String toString() {
+        if (isDoneTasks) {
+            return "/done";
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        for (TaskRef ref : refs) {
+            joiner.add(ref.toString());
+        }
+        for (int[] range : ranges) {
+            joiner.add(range[0] + "-" + range[1]);
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,395 @@
+package tasklist;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import tasks.Task;
+
+/**
+ * A {@link TaskStore} that keeps {@link Task} objects in a tree, so that every change takes O(log n) time.
+ * <p>
+ * The order is kept in an implicit treap: a randomly balanced binary tree in which a node's
+ * position is given by the sizes of the subtrees to its left rather than by a key. Getting,
+ * inserting and removing at a position therefore take O(log n) expected time instead of the O(n)
+ * element shifts of an {@link java.util.ArrayList}. Each node also points to its parent, so the
+ * current position of a task can be found from its ID in O(log n) by walking up to the root.
+ * <p>
+ * Walking the tree touches nodes scattered across the heap, so the tasks are also copied into an
+ * array in list order the first time they are read after a change. Until the next change, getting
+ * by position and iterating use that array.
+ * <p>
+ * Each node also caches the {@link SortKey} of its task, so a sorted list can be kept sorted by
+ * inserting at the position found by descending the tree, in O(log n) key comparisons.
+ */
+class TaskSequence extends TaskStore {
+    private static final class Node {
+        private Task task;
+        // The sort key of the task, computed the first time it is needed
+        private SortKey key;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+        private Node parent;
+
+        private Node(Task task) {
+            this.task = task;
+        }
+    }
+
+    private final Map<Integer, Node> nodesById = new HashMap<>();
+    private Node root;
+    private int nextId = 1;
+    // The tasks in list order, or null if the list has changed since the array was built; never modified
+    private volatile Task[] ordered;
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Task get(int index) {
+        if (ordered != null) {
+            checkIndex(index);
+            return ordered[index];
+        }
+        return nodeAt(index).task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Node node = nodeAt(index);
+        Task previous = node.task;
+        nodesById.remove(previous.getId());
+        node.task = task;
+        node.key = null;
+        register(node);
+        ordered = null;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node node = new Node(task);
+        register(node);
+        Node[] parts = split(root, index);
+        root = merge(merge(parts[0], node), parts[1]);
+        root.parent = null;
+        ordered = null;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkIndex(index);
+        Node[] parts = split(root, index);
+        Node[] rest = split(parts[1], 1);
+        Node removed = rest[0];
+        root = merge(parts[0], rest[1]);
+        if (root != null) {
+            root.parent = null;
+        }
+        nodesById.remove(removed.task.getId());
+        ordered = null;
+        modCount++;
+        return removed.task;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        nodesById.clear();
+        ordered = null;
+        modCount++;
+    }
+
+    @Override
+    public void sort(Comparator<? super Task> comparator) {
+        Task[] sorted = ordered().clone();
+        Arrays.sort(sorted, comparator);
+        clear();
+        for (Task task : sorted) {
+            add(task);
+        }
+    }
+
+    /**
+     * {@inheritDoc} The tree is rebuilt from its existing nodes, so the cached keys of the tasks are not lost.
+     */
+    @Override
+    void sortByKey() {
+        Node[] nodes = new Node[size()];
+        int i = 0;
+        for (Node node = first(root); node != null; node = successor(node)) {
+            nodes[i++] = node;
+        }
+        Arrays.sort(nodes, Comparator.comparing(TaskSequence::keyOf));
+        root = null;
+        for (Node node : nodes) {
+            node.left = null;
+            node.right = null;
+            node.size = 1;
+            root = merge(root, node);
+            root.parent = null;
+        }
+        ordered = null;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc} The tasks are kept as they are given, pooled descriptions included.
+     */
+    @Override
+    boolean isSharingDescriptions() {
+        return true;
+    }
+
+    @Override
+    boolean isSortedByKey() {
+        SortKey previous = null;
+        for (Node node = first(root); node != null; node = successor(node)) {
+            SortKey key = keyOf(node);
+            if (previous != null && key.compareTo(previous) < 0) {
+                return false;
+            }
+            previous = key;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} The position is found by descending the tree once, comparing the cached keys.
+     */
+    @Override
+    int sortedPosition(Task task) {
+        SortKey key = SortKey.of(task);
+        int index = 0;
+        Node node = root;
+        while (node != null) {
+            if (key.compareTo(keyOf(node)) < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return index;
+    }
+
+    private static SortKey keyOf(Node node) {
+        if (node.key == null) {
+            node.key = SortKey.of(node.task);
+        }
+        return node.key;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private final Task[] snapshot = ordered();
+            private final int expectedModCount = modCount;
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < snapshot.length;
+            }
+
+            @Override
+            public Task next() {
+                if (next >= snapshot.length) {
+                    throw new NoSuchElementException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                return snapshot[next++];
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        return ordered().clone();
+    }
+
+    /**
+     * {@inheritDoc} The snapshot shares the array of tasks in list order, which is never modified once
+     * built; later changes to the list build a new array. The tasks themselves are shared too, so the
+     * snapshot shows their current done status.
+     */
+    @Override
+    TaskSnapshot snapshot() {
+        return TaskSnapshot.of(ordered());
+    }
+
+    /**
+     * Returns the tasks in list order, copying them out of the tree if the list has changed.
+     */
+    private Task[] ordered() {
+        if (ordered == null) {
+            Task[] tasks = new Task[size()];
+            int i = 0;
+            for (Node node = first(root); node != null; node = successor(node)) {
+                tasks[i++] = node.task;
+            }
+            ordered = tasks;
+        }
+        return ordered;
+    }
+
+    @Override
+    Task getById(int id) {
+        Node node = nodesById.get(id);
+        return node == null ? null : node.task;
+    }
+
+    @Override
+    int indexOfId(int id) {
+        Node node = nodesById.get(id);
+        if (node == null) {
+            return -1;
+        }
+        int index = size(node.left);
+        for (Node child = node, parent = node.parent; parent != null; child = parent, parent = parent.parent) {
+            if (parent.right == child) {
+                index += size(parent.left) + 1;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    void setDone(int index, boolean isDone) {
+        Task task = get(index);
+        if (isDone) {
+            task.markAsDone();
+        } else {
+            task.markAsNotDone();
+        }
+    }
+
+    private void register(Node node) {
+        if (node.task.getId() == Task.NO_ID) {
+            node.task.setId(nextId++);
+        } else {
+            nextId = Math.max(nextId, node.task.getId() + 1);
+        }
+        nodesById.put(node.task.getId(), node);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    private Node nodeAt(int index) {
+        checkIndex(index);
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Recomputes the size of a node and points its children back at it.
+     */
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+        return node;
+    }
+
+    /**
+     * Splits a tree into the first {@code count} nodes and the rest. The roots of both
+     * parts may still point to their old parents; callers reset the parent of the final root.
+     */
+    private static Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (size(node.left) >= count) {
+            Node[] parts = split(node.left, count);
+            node.left = parts[1];
+            if (parts[0] != null) {
+                parts[0].parent = null;
+            }
+            return new Node[] {parts[0], update(node)};
+        }
+        Node[] parts = split(node.right, count - size(node.left) - 1);
+        node.right = parts[0];
+        if (parts[1] != null) {
+            parts[1].parent = null;
+        }
+        return new Node[] {update(node), parts[1]};
+    }
+
+    /**
+     * Joins two trees, with every node of {@code left} ordered before every node of {@code right}.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static Node first(Node node) {
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static Node successor(Node node) {
+        if (node.right != null) {
+            return first(node.right);
+        }
+        Node child = node;
+        Node parent = node.parent;
+        while (parent != null && parent.right == child) {
+            child = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+}
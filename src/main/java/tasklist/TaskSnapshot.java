@@ -0,0 +1,72 @@
+package tasklist;
+
+import tasks.Task;
+
+/**
+ * An unchanging view of the tasks in a {@link TaskStore}, in list order, as they were when the snapshot
+ * was taken. Snapshots are shared between threads without locking, so later changes to the store must
+ * never show through, except that a store may show the current done status of a task.
+ */
+interface TaskSnapshot {
+    /**
+     * Returns the number of tasks in the snapshot.
+     *
+     * @return the number of tasks
+     */
+    int size();
+
+    /**
+     * Returns the task at a position. Depending on the store, this may be a new view of the task on
+     * every call.
+     *
+     * @param index the 0-based position of the task
+     * @return the task
+     */
+    Task get(int index);
+
+    /**
+     * Returns the ID of the task at a position, without necessarily creating the task.
+     *
+     * @param index the 0-based position of the task
+     * @return the ID of the task
+     */
+    int idAt(int index);
+
+    /**
+     * Returns the description of the task at a position, without necessarily creating the task.
+     *
+     * @param index the 0-based position of the task
+     * @return the description of the task
+     */
+    String descriptionAt(int index);
+
+    /**
+     * Returns a snapshot backed by an array of tasks. The array must not be modified afterwards.
+     *
+     * @param tasks the tasks in list order
+     * @return the snapshot
+     */
+    static TaskSnapshot of(Task[] tasks) {
+        return new TaskSnapshot() {
+            @Override
+            public int size() {
+                return tasks.length;
+            }
+
+            @Override
+            public Task get(int index) {
+                return tasks[index];
+            }
+
+            @Override
+            public int idAt(int index) {
+                return tasks[index].getId();
+            }
+
+            @Override
+            public String descriptionAt(int index) {
+                return tasks[index].getDescription();
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package tasklist;
+
+import java.util.AbstractList;
+
+import tasks.Task;
+
+/**
+ * The in-memory representation of the tasks behind a {@link TaskList}: an ordered list of tasks that
+ * also finds tasks by ID.
+ * <p>
+ * Tasks without an ID are given the next free one when they are added, and IDs are never reused.
+ * A store may keep tasks in a form other than {@link Task} objects, in which case the tasks it
+ * returns are views created on demand, and changing a view does not change the store. The done
+ * status of a stored task is therefore only changed through {@link #setDone(int, boolean)}.
+ */
+abstract class TaskStore extends AbstractList<Task> {
+    /**
+     * Returns the task with the given ID, or null if no task in the list has it.
+     *
+     * @param id the ID of the task
+     * @return the task, or null
+     */
+    abstract Task getById(int id);
+
+    /**
+     * Returns the current 0-based position of the task with the given ID.
+     *
+     * @param id the ID of the task
+     * @return the position of the task, or -1 if no task in the list has the ID
+     */
+    abstract int indexOfId(int id);
+
+    /**
+     * Sets the done status of the task at a position.
+     *
+     * @param index the 0-based position of the task
+     * @param isDone the new done status
+     */
+    abstract void setDone(int index, boolean isDone);
+
+    /**
+     * Returns the position at which a task should be inserted to keep a list that is sorted by
+     * {@link SortKey} sorted. The task goes after every task with an equal key, as a stable sort would
+     * place it.
+     *
+     * @param task the task to be inserted
+     * @return the 0-based insertion position
+     */
+    abstract int sortedPosition(Task task);
+
+    /**
+     * Stably sorts the list by the {@link SortKey}s of its tasks, keeping their IDs.
+     */
+    abstract void sortByKey();
+
+    /**
+     * Returns whether the tasks are in the order given by their {@link SortKey}s.
+     *
+     * @return true if no task has a smaller key than the task before it
+     */
+    abstract boolean isSortedByKey();
+
+    /**
+     * Returns whether tasks with equal descriptions share one {@link String} while they are in the store,
+     * as tasks holding descriptions from the {@link tasks.DescriptionPool} do.
+     *
+     * @return true if the store keeps the description instances it is given
+     */
+    abstract boolean isSharingDescriptions();
+
+    /**
+     * Returns a snapshot of the tasks in list order that later changes to the store do not affect.
+     *
+     * @return the snapshot
+     */
+    abstract TaskSnapshot snapshot();
+}
@@ -0,0 +1,116 @@
+package tasklist;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import tasks.Deadline;
+import tasks.Event;
+import tasks.RecurringEvent;
+import tasks.Task;
+
+/**
+ * An index of deadlines and events ordered by time.
+ * <p>
+ * Deadlines are keyed by their due date and time, events by their start. Each key maps to a
+ * {@link PostingList} of the IDs of the tasks at that time. Because the keys are kept in a
+ * {@link TreeMap}, the tasks in a time range are found in O(log n + k) for k results, without
+ * looking at tasks outside the range. Todos have no time and are not indexed, and neither are recurring
+ * events, which have a time for each occurrence and are indexed by their rule in a {@link RecurrenceIndex}.
+ */
+class TimeIndex {
+    private final TreeMap<LocalDateTime, PostingList> postings = new TreeMap<>();
+
+    /**
+     * Indexes a task by its time, if it has one.
+     *
+     * @param task the task to index; must already have an ID
+     */
+    void add(Task task) {
+        LocalDateTime time = timeOf(task);
+        if (time != null) {
+            postings.computeIfAbsent(time, t -> new PostingList()).add(task.getId());
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task the task to remove
+     */
+    void remove(Task task) {
+        LocalDateTime time = timeOf(task);
+        PostingList list = time == null ? null : postings.get(time);
+        if (list != null) {
+            list.remove(task.getId());
+            if (list.isEmpty()) {
+                postings.remove(time);
+            }
+        }
+    }
+
+    /**
+     * Removes every task from the index.
+     */
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Returns the IDs of the tasks whose time lies in the given range, in chronological order.
+     * Tasks at the same time are ordered by ID.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @return the IDs of the tasks in the range
+     */
+    int[] between(LocalDateTime from, LocalDateTime to) {
+        return collect(postings.subMap(from, true, to, true), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the IDs of the first tasks at or after the given time, in chronological order.
+     *
+     * @param from the earliest time to include
+     * @param count the maximum number of IDs to return
+     * @return the IDs of at most {@code count} tasks
+     */
+    int[] after(LocalDateTime from, int count) {
+        return collect(postings.tailMap(from, true), count);
+    }
+
+    private static int[] collect(NavigableMap<LocalDateTime, PostingList> range, int limit) {
+        int[] ids = new int[0];
+        int count = 0;
+        for (PostingList list : range.values()) {
+            int[] atTime = list.toArray();
+            int taken = Math.min(atTime.length, limit - count);
+            if (count + taken > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(count + taken, ids.length * 2));
+            }
+            System.arraycopy(atTime, 0, ids, count, taken);
+            count += taken;
+            if (count == limit) {
+                break;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Returns the time a task is indexed by, or null if it has none.
+     *
+     * @param task the task
+     * @return the due time of a deadline, the start of a one-off event, or null for other tasks
+     */
+    static LocalDateTime timeOf(Task task) {
+        if (task instanceof Deadline deadline) {
+            return deadline.getDeadline();
+        }
+        if (task instanceof Event event && !(task instanceof RecurringEvent)) {
+            return event.getStartDateTime();
+        }
+        return null;
+    }
+}
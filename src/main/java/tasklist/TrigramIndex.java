@@ -0,0 +1,156 @@
+package tasklist;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import tasks.Task;
+
+/**
+ * An index from every three-character sequence (trigram) in task descriptions to the IDs of the
+ * tasks that contain it.
+ * <p>
+ * A description can only contain a word as a substring if it contains every trigram of that word,
+ * so intersecting the {@link PostingList}s of the word's trigrams yields a small set of candidates
+ * that can then be checked exactly. Words shorter than three characters have no trigrams and
+ * cannot be looked up. Descriptions are lower-cased and split at whitespace before indexing, so
+ * trigrams never span two words.
+ */
+class TrigramIndex {
+    /** The length of the sequences in the index. */
+    static final int GRAM_LENGTH = 3;
+
+    // Rough per-object sizes on a 64-bit JVM with compressed references, used for estimates only
+    private static final int MAP_ENTRY_BYTES = 32 + 16;
+    private static final int POSTING_LIST_BYTES = 24 + 16;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    /**
+     * Indexes every trigram in the description of a task.
+     *
+     * @param task the task to index; must already have an ID
+     */
+    void add(Task task) {
+        for (long trigram : trigramsOf(task.getDescription().toLowerCase())) {
+            postings.computeIfAbsent(trigram, t -> new PostingList()).add(task.getId());
+        }
+    }
+
+    /**
+     * Removes a task from the posting list of every trigram in its description.
+     *
+     * @param task the task to remove
+     */
+    void remove(Task task) {
+        for (long trigram : trigramsOf(task.getDescription().toLowerCase())) {
+            PostingList list = postings.get(trigram);
+            if (list != null) {
+                list.remove(task.getId());
+                if (list.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every task from the index.
+     */
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Returns the IDs of the tasks that may contain every given word, judging by trigrams alone.
+     * Every task that does contain all the words is included, but some of the returned tasks may not.
+     *
+     * @param words lower-case words without whitespace
+     * @return the candidate IDs in ascending order, or null if no word is long enough to be looked up
+     */
+    int[] candidates(String... words) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String word : words) {
+            trigrams.addAll(trigramsOf(word));
+        }
+        if (trigrams.isEmpty()) {
+            return null;
+        }
+
+        PostingList[] lists = new PostingList[trigrams.size()];
+        int i = 0;
+        for (long trigram : trigrams) {
+            PostingList list = postings.get(trigram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists[i++] = list;
+        }
+        // Intersecting the shortest lists first keeps every intermediate result small
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+        int[] result = lists[0].toArray();
+        for (int j = 1; j < lists.length && result.length > 0; j++) {
+            result = lists[j].retainAll(result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct trigrams in the index.
+     *
+     * @return the number of posting lists
+     */
+    int trigramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Returns the total number of IDs across all posting lists.
+     *
+     * @return the number of postings
+     */
+    long postingCount() {
+        long count = 0;
+        for (PostingList list : postings.values()) {
+            count += list.size();
+        }
+        return count;
+    }
+
+    /**
+     * Estimates the heap memory used by the index, including map entries, boxed keys and the
+     * spare capacity of the posting arrays.
+     *
+     * @return the estimated size in bytes
+     */
+    long estimateBytes() {
+        long bytes = 16L + 4L * Integer.highestOneBit(Math.max(1, postings.size()) * 2);
+        for (PostingList list : postings.values()) {
+            bytes += MAP_ENTRY_BYTES + POSTING_LIST_BYTES + 4L * list.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the distinct trigrams of the whitespace-separated words in the given text.
+     */
+    private static Set<Long> trigramsOf(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        int wordStart = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && !Character.isWhitespace(text.charAt(i))) {
+                continue;
+            }
+            for (int start = wordStart; start + GRAM_LENGTH <= i; start++) {
+                trigrams.add(((long) text.charAt(start) << 32)
+                        | ((long) text.charAt(start + 1) << 16)
+                        | text.charAt(start + 2));
+            }
+            wordStart = i + 1;
+        }
+        return trigrams;
+    }
+}
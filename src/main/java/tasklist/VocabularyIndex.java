@@ -0,0 +1,379 @@
+package tasklist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import tasks.Task;
+
+/**
+ * An index of the distinct words in task descriptions, for finding words within a small edit distance
+ * of a query word, such as "meeting" for "meetng".
+ * <p>
+ * Each word maps to a {@link PostingList} of the IDs of the tasks that use it, and the words are also
+ * kept in a BK-tree: every child of a node is filed under its Levenshtein distance from the node's word.
+ * By the triangle inequality, a word within distance k of the query can only be under a child whose
+ * distance from the node is within k of the query's own distance from it, so a search only follows those
+ * children and compares the query with a part of the vocabulary.
+ * <p>
+ * A search still compares the query with thousands of words, so the tree is laid out for that: nodes are
+ * numbered and their fields kept in parallel arrays, with children linked through first-child and
+ * next-sibling numbers, and the characters of every word are stored one after another in a single array.
+ * Following a node then reads a few arrays instead of a node object, a string and its bytes scattered
+ * over the heap. Distances are computed with the bit-parallel algorithm of {@link Query}.
+ * <p>
+ * BK-trees cannot remove words. A word whose last task is removed stays in the tree but is skipped by
+ * searches until a task uses it again, and the tree is rebuilt from the live words once the dead ones
+ * outnumber them.
+ */
+class VocabularyIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_WORDS_TO_REBUILD = 1024;
+    private static final int NONE = -1;
+
+    /**
+     * A word found by a search, and its distance from the query.
+     */
+    static final class Match {
+        private final String word;
+        private final int distance;
+
+        private Match(String word, int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+
+        String getWord() {
+            return word;
+        }
+
+        int getDistance() {
+            return distance;
+        }
+    }
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    // Words in the tree whose posting lists are empty
+    private int deadCount;
+
+    // The tree, one entry per node; node 0 is the root
+    private int nodeCount;
+    private int[] wordOffsets = new int[16];
+    private int[] wordLengths = new int[16];
+    private int[] firstChildren = new int[16];
+    private int[] nextSiblings = new int[16];
+    // The distance from each node's word to its parent's, which is what it is filed under
+    private int[] distances = new int[16];
+    // The largest distance any child of each node is filed under, which bounds the distances worth computing
+    private int[] maxChildDistances = new int[16];
+    private PostingList[] nodePostings = new PostingList[16];
+    private char[] characters = new char[256];
+    private int characterCount;
+
+    /**
+     * Indexes every word in the description of a task.
+     *
+     * @param task the task to index; must already have an ID
+     */
+    void add(Task task) {
+        for (String word : wordsOf(task.getDescription())) {
+            PostingList list = postings.get(word);
+            if (list == null) {
+                list = new PostingList();
+                postings.put(word, list);
+                insert(word, list);
+            } else if (list.isEmpty()) {
+                deadCount--;
+            }
+            list.add(task.getId());
+        }
+    }
+
+    /**
+     * Removes a task from the posting list of every word in its description.
+     *
+     * @param task the task to remove
+     */
+    void remove(Task task) {
+        for (String word : wordsOf(task.getDescription())) {
+            PostingList list = postings.get(word);
+            if (list != null && !list.isEmpty()) {
+                list.remove(task.getId());
+                if (list.isEmpty()) {
+                    deadCount++;
+                }
+            }
+        }
+        int liveCount = postings.size() - deadCount;
+        if (deadCount >= MIN_WORDS_TO_REBUILD && deadCount > liveCount) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Removes every word from the index.
+     */
+    void clear() {
+        postings.clear();
+        deadCount = 0;
+        clearTree();
+    }
+
+    /**
+     * Returns the number of distinct words used by at least one task.
+     *
+     * @return the size of the vocabulary
+     */
+    int size() {
+        return postings.size() - deadCount;
+    }
+
+    /**
+     * Finds the words used by some task that are within an edit distance of the query.
+     *
+     * @param query a lowercase word
+     * @param maxDistance the largest number of single-character insertions, deletions and substitutions allowed
+     * @return the matching words, closest first
+     */
+    List<Match> search(String query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (nodeCount == 0) {
+            return matches;
+        }
+        Query compiled = new Query(query);
+        int[] pending = new int[64];
+        int pendingCount = 0;
+        pending[pendingCount++] = 0;
+        while (pendingCount > 0) {
+            int node = pending[--pendingCount];
+            int distance = compiled.distanceTo(characters, wordOffsets[node], wordLengths[node],
+                    maxDistance + maxChildDistances[node]);
+            if (distance <= maxDistance && !nodePostings[node].isEmpty()) {
+                matches.add(new Match(new String(characters, wordOffsets[node], wordLengths[node]), distance));
+            }
+            for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+                if (Math.abs(distances[child] - distance) <= maxDistance) {
+                    if (pendingCount == pending.length) {
+                        pending = Arrays.copyOf(pending, pendingCount * 2);
+                    }
+                    pending[pendingCount++] = child;
+                }
+            }
+        }
+        matches.sort((a, b) -> a.distance != b.distance
+                ? Integer.compare(a.distance, b.distance)
+                : a.word.compareTo(b.word));
+        return matches;
+    }
+
+    /**
+     * Returns the IDs of the tasks that use a word.
+     *
+     * @param word a word returned by a search
+     * @return the IDs in ascending order
+     */
+    int[] idsOf(String word) {
+        PostingList list = postings.get(word);
+        return list == null ? new int[0] : list.toArray();
+    }
+
+    private void insert(String word, PostingList list) {
+        int node = addNode(word, list);
+        if (node == 0) {
+            return;
+        }
+        Query compiled = new Query(word);
+        int parent = 0;
+        while (true) {
+            // No two words are further apart than the longer one is long, so this computes the exact distance
+            int limit = Math.max(word.length(), wordLengths[parent]);
+            int distance = compiled.distanceTo(characters, wordOffsets[parent], wordLengths[parent], limit);
+            int child = firstChildren[parent];
+            while (child != NONE && distances[child] != distance) {
+                child = nextSiblings[child];
+            }
+            if (child == NONE) {
+                distances[node] = distance;
+                nextSiblings[node] = firstChildren[parent];
+                firstChildren[parent] = node;
+                maxChildDistances[parent] = Math.max(maxChildDistances[parent], distance);
+                return;
+            }
+            parent = child;
+        }
+    }
+
+    /**
+     * Appends a node with no children for a word and returns its number.
+     */
+    private int addNode(String word, PostingList list) {
+        if (nodeCount == wordOffsets.length) {
+            int capacity = nodeCount * 2;
+            wordOffsets = Arrays.copyOf(wordOffsets, capacity);
+            wordLengths = Arrays.copyOf(wordLengths, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            maxChildDistances = Arrays.copyOf(maxChildDistances, capacity);
+            nodePostings = Arrays.copyOf(nodePostings, capacity);
+        }
+        if (characterCount + word.length() > characters.length) {
+            characters = Arrays.copyOf(characters, Math.max(characters.length * 2, characterCount + word.length()));
+        }
+        word.getChars(0, word.length(), characters, characterCount);
+        int node = nodeCount++;
+        wordOffsets[node] = characterCount;
+        wordLengths[node] = word.length();
+        firstChildren[node] = NONE;
+        nextSiblings[node] = NONE;
+        distances[node] = 0;
+        maxChildDistances[node] = 0;
+        nodePostings[node] = list;
+        characterCount += word.length();
+        return node;
+    }
+
+    private void clearTree() {
+        Arrays.fill(nodePostings, 0, nodeCount, null);
+        nodeCount = 0;
+        characterCount = 0;
+    }
+
+    private void rebuild() {
+        postings.values().removeIf(PostingList::isEmpty);
+        deadCount = 0;
+        clearTree();
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            insert(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * A word prepared for computing its distance to many others.
+     * <p>
+     * Words of up to 64 characters use the bit-parallel algorithm of Myers, as formulated by Hyyrö: each
+     * column of the dynamic programming table is held as bit vectors of its differences from one row to the
+     * next, so a whole column is computed with a dozen word-wide operations instead of one step per
+     * character of the query. Longer words fall back to
+     * {@link #distance(String, char[], int, int, int, int[], int[])}.
+     */
+    static final class Query {
+        private final String word;
+        // For each character, the bit vector of the positions in the word where it occurs
+        private final long[] asciiMasks = new long[128];
+        private final Map<Character, Long> otherMasks = new HashMap<>();
+        private final int[] previousRow;
+        private final int[] currentRow;
+
+        Query(String word) {
+            this.word = word;
+            if (word.length() <= Long.SIZE) {
+                previousRow = null;
+                currentRow = null;
+                for (int i = 0; i < word.length(); i++) {
+                    char c = word.charAt(i);
+                    if (c < asciiMasks.length) {
+                        asciiMasks[c] |= 1L << i;
+                    } else {
+                        otherMasks.merge(c, 1L << i, (a, b) -> a | b);
+                    }
+                }
+            } else {
+                previousRow = new int[word.length() + 1];
+                currentRow = new int[word.length() + 1];
+            }
+        }
+
+        /**
+         * Returns the Levenshtein distance from this word to the characters {@code text[offset, offset + length)},
+         * or {@code limit + 1} if it is more than {@code limit}, in which case it may stop early.
+         */
+        int distanceTo(char[] text, int offset, int length, int limit) {
+            int m = word.length();
+            if (m > Long.SIZE) {
+                return distance(word, text, offset, length, limit, previousRow, currentRow);
+            }
+            if (m == 0) {
+                return Math.min(length, limit + 1);
+            }
+            long lastBit = 1L << (m - 1);
+            long positiveVertical = -1L;
+            long negativeVertical = 0L;
+            int score = m;
+            for (int j = 0; j < length; j++) {
+                char c = text[offset + j];
+                long equal = c < asciiMasks.length ? asciiMasks[c] : otherMasks.getOrDefault(c, 0L);
+                long xVertical = equal | negativeVertical;
+                long xHorizontal = (((equal & positiveVertical) + positiveVertical) ^ positiveVertical) | equal;
+                long positiveHorizontal = negativeVertical | ~(xHorizontal | positiveVertical);
+                long negativeHorizontal = positiveVertical & xHorizontal;
+                if ((positiveHorizontal & lastBit) != 0) {
+                    score++;
+                } else if ((negativeHorizontal & lastBit) != 0) {
+                    score--;
+                }
+                // The top row of the table grows by one in every column, so a one is shifted in
+                positiveHorizontal = (positiveHorizontal << 1) | 1L;
+                negativeHorizontal <<= 1;
+                positiveVertical = negativeHorizontal | ~(xVertical | positiveHorizontal);
+                negativeVertical = positiveHorizontal & xVertical;
+                // Each remaining character can lower the distance by at most one
+                if (score - (length - j - 1) > limit) {
+                    return limit + 1;
+                }
+            }
+            return Math.min(score, limit + 1);
+        }
+    }
+
+    /**
+     * Returns the Levenshtein distance between a word and the characters {@code b[offset, offset + length)},
+     * or {@code limit + 1} if it is more than {@code limit}, in which case it stops as soon as every cell of
+     * a row exceeds the limit. The rows are scratch space of at least {@code a.length() + 1} elements, so
+     * that comparing one word with many does not allocate for each of them.
+     */
+    static int distance(String a, char[] b, int offset, int length, int limit, int[] previousRow,
+            int[] currentRow) {
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        for (int i = 0; i <= a.length(); i++) {
+            previous[i] = i;
+        }
+        for (int j = 1; j <= length; j++) {
+            current[0] = j;
+            int rowMin = j;
+            char c = b[offset + j - 1];
+            for (int i = 1; i <= a.length(); i++) {
+                int substitution = previous[i - 1] + (a.charAt(i - 1) == c ? 0 : 1);
+                int value = Math.min(substitution, Math.min(previous[i], current[i - 1]) + 1);
+                current[i] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[a.length()], limit + 1);
+    }
+
+    /**
+     * Returns the distinct lowercase words of a description, split at anything other than letters and digits.
+     */
+    static Set<String> wordsOf(String description) {
+        Set<String> words = new HashSet<>();
+        for (String word : WORD_SEPARATOR.split(description.toLowerCase())) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
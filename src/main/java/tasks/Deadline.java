@@ -51,7 +51,7 @@ public class Deadline extends Task {
             return null;
         }
         
-        String description = parts[2];
+        String description = DescriptionPool.intern(parts[2]);
         LocalDateTime by = LocalDateTime.parse(parts[3]);
 
         // Create Deadline Object
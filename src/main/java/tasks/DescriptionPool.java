@@ -0,0 +1,104 @@
+package tasks;
+
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A pool of task descriptions, so that tasks with identical descriptions share a single {@link String}.
+ * <p>
+ * Task lists often repeat descriptions ("standup", "pay rent"), and every task loaded from storage or
+ * typed in would otherwise hold its own copy. Descriptions passed through {@link #intern(String)} are
+ * looked up in the pool and the first instance seen is returned instead. The JVM already stores the
+ * characters of a string as one byte each when they all fit in Latin-1, so sharing the instance is
+ * what saves the remaining memory.
+ * <p>
+ * The pool holds its strings weakly, so a description is dropped from it once no task uses it any more.
+ * It is safe to use from several threads.
+ */
+public final class DescriptionPool {
+    private static final Map<String, WeakReference<String>> POOL = new WeakHashMap<>();
+
+    private DescriptionPool() {
+    }
+
+    /**
+     * Returns the pooled instance of a description, adding it to the pool if it is not there yet.
+     *
+     * @param description the description to look up; may be null
+     * @return a string equal to {@code description} that is shared by every caller, or null
+     */
+    public static String intern(String description) {
+        if (description == null) {
+            return null;
+        }
+        synchronized (POOL) {
+            WeakReference<String> ref = POOL.get(description);
+            String pooled = ref == null ? null : ref.get();
+            if (pooled == null) {
+                POOL.put(description, new WeakReference<>(description));
+                pooled = description;
+            }
+            return pooled;
+        }
+    }
+
+    /**
+     * Returns the number of distinct descriptions in the pool.
+     *
+     * @return the size of the pool
+     */
+    public static int size() {
+        synchronized (POOL) {
+            return POOL.size();
+        }
+    }
+
+    /**
+     * Estimates the heap taken by a string: its object header and fields, and its array of one byte per
+     * character if every character is Latin-1 or two bytes per character otherwise.
+     *
+     * @param string the string to measure
+     * @return the estimated size in bytes
+     */
+    public static long sizeOf(String string) {
+        boolean isLatin1 = string.chars().allMatch(c -> c <= 0xff);
+        long arrayBytes = 16 + (long) string.length() * (isLatin1 ? 1 : 2);
+        return 24 + (arrayBytes + 7) / 8 * 8;
+    }
+
+    /**
+     * Counts how much memory a group of tasks saves by sharing description instances.
+     */
+    public static final class Stats {
+        private final Map<String, Boolean> seen = new IdentityHashMap<>();
+        private int taskCount;
+        private long bytesSaved;
+
+        /**
+         * Adds the description of one task. A description that is the same instance as one already added
+         * counts as saved, since without sharing it would be a separate copy.
+         *
+         * @param description the description of the task
+         */
+        public void add(String description) {
+            taskCount++;
+            if (seen.put(description, Boolean.TRUE) != null) {
+                bytesSaved += sizeOf(description);
+            }
+        }
+
+        public int getTaskCount() {
+            return taskCount;
+        }
+
+        public int getDistinctCount() {
+            return seen.size();
+        }
+
+        public long getBytesSaved() {
+            return bytesSaved;
+        }
+    }
+}
@@ -62,7 +62,7 @@ public class Event extends Task {
             return null;
         }
         
-        String description = parts[2];
+        String description = DescriptionPool.intern(parts[2]);
         LocalDateTime startDateTime = LocalDateTime.parse(parts[3]);
         LocalDateTime endDateTime = LocalDateTime.parse(parts[4]);
 
@@ -0,0 +1,84 @@
+package tasks;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * How often a {@link RecurringEvent} repeats.
+ * <p>
+ * The n-th occurrence of a rule is its first occurrence moved on by n periods in one step, rather than
+ * by one period n times, so a monthly event on the 31st falls on the last day of shorter months and is
+ * back on the 31st the month after.
+ */
+public enum Recurrence {
+    DAY(ChronoUnit.DAYS),
+    WEEK(ChronoUnit.WEEKS),
+    MONTH(ChronoUnit.MONTHS),
+    YEAR(ChronoUnit.YEARS);
+
+    private final ChronoUnit unit;
+    private final String keyword;
+
+    Recurrence(ChronoUnit unit) {
+        this.unit = unit;
+        this.keyword = name().toLowerCase();
+    }
+
+    /**
+     * Returns the word for the period, as typed after {@code /every}.
+     *
+     * @return the lower-case name of the period, e.g. {@code week}
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Returns the recurrence with the given keyword, ignoring case.
+     *
+     * @param keyword a period such as {@code day} or {@code week}
+     * @return the matching recurrence, or null if there is none
+     */
+    public static Recurrence fromKeyword(String keyword) {
+        for (Recurrence recurrence : values()) {
+            if (recurrence.getKeyword().equalsIgnoreCase(keyword)) {
+                return recurrence;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the start of an occurrence.
+     *
+     * @param first the start of the first occurrence
+     * @param n the 0-based number of the occurrence
+     * @return the start of the n-th occurrence
+     */
+    public LocalDateTime occurrence(LocalDateTime first, long n) {
+        return first.plus(n, unit);
+    }
+
+    /**
+     * Returns the number of the first occurrence that starts at or after the given time. Only a couple
+     * of occurrences around the time are computed, however far it is from the first.
+     *
+     * @param first the start of the first occurrence
+     * @param time the time to look from
+     * @return the 0-based number of the first occurrence starting at or after {@code time}
+     */
+    public long firstFrom(LocalDateTime first, LocalDateTime time) {
+        if (!time.isAfter(first)) {
+            return 0;
+        }
+        // Whole periods between the two times; clamped month ends can put the answer one either side
+        long n = unit.between(first, time);
+        while (n > 0 && !occurrence(first, n - 1).isBefore(time)) {
+            n--;
+        }
+        while (occurrence(first, n).isBefore(time)) {
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,111 @@
+package tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * An event that repeats every day, week, month or year, kept as a single rule rather than as one
+ * {@link Event} per occurrence.
+ * <p>
+ * The start and end of the event are those of its first occurrence; every later occurrence lasts as
+ * long and starts one {@link Recurrence} period after the one before. The rule has no last occurrence.
+ * Occurrences are never stored: the task list works out the ones a query needs from the rule, so a
+ * weekly meeting costs the same whether it is looked at for a week or for years. Marking a recurring
+ * event as done marks the whole series.
+ */
+public class RecurringEvent extends Event {
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
+
+    private final Recurrence recurrence;
+
+    /**
+     * Creates a recurring event.
+     *
+     * @param description the description of the event
+     * @param startDateTime the start of the first occurrence
+     * @param endDateTime the end of the first occurrence
+     * @param recurrence how often the event repeats
+     */
+    public RecurringEvent(String description, LocalDateTime startDateTime, LocalDateTime endDateTime,
+            Recurrence recurrence) {
+        super(description, startDateTime, endDateTime);
+        this.recurrence = recurrence;
+    }
+
+    public Recurrence getRecurrence() {
+        return this.recurrence;
+    }
+
+    /**
+     * Returns the end of the occurrence that starts at the given time.
+     *
+     * @param occurrenceStart the start of an occurrence
+     * @return the time the occurrence ends
+     */
+    public LocalDateTime getOccurrenceEnd(LocalDateTime occurrenceStart) {
+        return occurrenceStart.plus(Duration.between(getStartDateTime(), getEndDateTime()));
+    }
+
+    @Override
+    public String getAsListItem() {
+        return getOccurrenceAsListItem(getStartDateTime());
+    }
+
+    /**
+     * Returns the event formatted as a list item, with the times of one of its occurrences.
+     *
+     * @param occurrenceStart the start of the occurrence to show
+     * @return the list item for that occurrence
+     */
+    public String getOccurrenceAsListItem(LocalDateTime occurrenceStart) {
+        return String.format("[%s] [%s] %s (from: %s, to: %s, every %s)",
+                this.getTaskTypeIcon(),
+                this.getStatusIcon(),
+                this.getDescription(),
+                occurrenceStart.format(DISPLAY_FORMAT),
+                getOccurrenceEnd(occurrenceStart).format(DISPLAY_FORMAT),
+                this.recurrence.getKeyword());
+    }
+
+    @Override
+    public String getTaskTypeIcon() {
+        return "R";
+    }
+
+    /**
+     * Parses a recurring event from a line in the format of {@link #toStorageLine()}.
+     *
+     * @param storageLine the stored line
+     * @return the event, or null if the line is malformed
+     */
+    public static RecurringEvent fromStorageLine(String storageLine) {
+        String[] parts = storageLine.split(" \\| ");
+
+        boolean isMarkedDone;
+        try {
+            isMarkedDone = Integer.parseInt(parts[1]) == 1;
+        } catch (NumberFormatException e) {
+            System.out.println("INVALID STORAGE FORMAT");
+            return null;
+        }
+        Recurrence recurrence = parts.length > 5 ? Recurrence.fromKeyword(parts[5].trim()) : null;
+        if (recurrence == null) {
+            System.out.println("INVALID STORAGE FORMAT");
+            return null;
+        }
+
+        String description = DescriptionPool.intern(parts[2]);
+        RecurringEvent event = new RecurringEvent(description, LocalDateTime.parse(parts[3]),
+                LocalDateTime.parse(parts[4]), recurrence);
+        if (isMarkedDone) {
+            event.markAsDone();
+        }
+        return event;
+    }
+
+    @Override
+    public String toStorageLine() {
+        return super.toStorageLine() + " | " + this.recurrence.getKeyword();
+    }
+}
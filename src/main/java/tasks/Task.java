@@ -3,8 +3,12 @@ package tasks;
 import errors.LogosException;
 
 public abstract class Task {
+    public static final int NO_ID = 0;
+
     protected String description;
-    protected boolean isDone;
+    protected volatile boolean isDone;
+    // Assigned by the task list when the task is added; not part of the stored task
+    private int id = NO_ID;
 
     public Task(String description) {
         this.description = description;
@@ -19,6 +23,7 @@ public abstract class Task {
             case 'T' -> Todo.fromStorageLine(storageLine);
             case 'D' -> Deadline.fromStorageLine(storageLine);
             case 'E' -> Event.fromStorageLine(storageLine);
+            case 'R' -> RecurringEvent.fromStorageLine(storageLine);
             default  -> throw new LogosException("Unknown task type: " + taskType);
         };
     }
@@ -43,6 +48,14 @@ public abstract class Task {
         return this.description;
     }
 
+    public int getId() {
+        return this.id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public abstract TaskType getTaskType();
 
     public abstract String getAsListItem();
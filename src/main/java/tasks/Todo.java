@@ -35,7 +35,7 @@ public class Todo extends Task {
             return null;
         }
         
-        String description = parts[2];
+        String description = DescriptionPool.intern(parts[2]);
 
         // Create Todo Object
         Todo todo = new Todo(description);
@@ -1,9 +1,13 @@
 package ui;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
 import java.util.ArrayList;
 
+import tasklist.TaskCounts;
+import tasks.TaskType;
+
 /**
  * Handles all user interface interactions in the terminal.
  * <p>
@@ -19,6 +23,8 @@ import java.util.ArrayList;
 public class Ui {
     private final static int INDENT_LENGTH = 4;
     private final static int LINE_LENGTH = 80;
+    /** The most list items kept in a response for the GUI; longer lists are only printed in full. */
+    private final static int MAX_GUI_LIST_ITEMS = 200;
     private final Scanner sc = new Scanner(System.in);
 
     /**
@@ -46,18 +52,29 @@ public class Ui {
      * @param messages the lines of text to display
      */
     public String respond(String... messages) {
-        String indent = " ".repeat(INDENT_LENGTH);
-        String dividerLine = "-".repeat(LINE_LENGTH);
-        System.out.println(indent + dividerLine);
+        printDivider();
         for (String message : messages) {
-            for (String line : message.split("\n")) {
-                System.out.println(indent + line);
-            }
+            printMessage(message);
         }
-        System.out.println(indent + dividerLine);
+        printDivider();
         return (getGuiResponse(messages));
     }
 
+    private void printDivider() {
+        System.out.println(" ".repeat(INDENT_LENGTH) + "-".repeat(LINE_LENGTH));
+    }
+
+    private void printMessage(String message) {
+        String indent = " ".repeat(INDENT_LENGTH);
+        if (message.indexOf('\n') < 0) {
+            System.out.println(indent + message);
+            return;
+        }
+        for (String line : message.split("\n")) {
+            System.out.println(indent + line);
+        }
+    }
+
     /**
      * Displays one or more messages for the GUI
      *
@@ -72,31 +89,70 @@ public class Ui {
     }
 
     /**
-     * Displays a welcome message with the chatbot’s logo, name,
-     * and a list of example commands.
+     * Displays a welcome message with the chatbot’s logo, name, a summary
+     * of the tasks left to do, and a list of example commands.
      *
      * @param chatbotLogo the ASCII logo of the chatbot
      * @param chatbotName the display name of the chatbot
+     * @param counts the counts of the tasks in the task list
      */
-    public String showWelcome(String chatbotLogo, String chatbotName) {
+    public String showWelcome(String chatbotLogo, String chatbotName, TaskCounts counts) {
         System.out.println("Welcome to...\n" + chatbotLogo);
         return respond(
                 "Hello! I'm " + chatbotName + " :) Your friendly chatbot task manager.",
+                summarize(counts),
                 "",
                 "Here are some commands you can try:",
                 "-> todo <desc>                             : Add a simple task",
                 "-> deadline <desc> /by <time>              : Add a task with a deadline (<yyyy-MM-dd HHmm>)",
                 "-> event <desc> /from <start> /to <end>    : Add an event with a start and end time (<yyyy-MM-dd HHmm>)",
+                "-> event ... /every <period>               : Repeat an event every day, week, month or year",
                 "-> list                                    : Show all tasks",
-                "-> mark <taskNumber>                       : Mark a task as done",
-                "-> unmark <taskNumber>                     : Mark a task as not done",
-                "-> delete <taskNumber>                     : Delete a task",
+                "-> list /page <n> /size <k>                : Show one page of tasks (<k> defaults to 20)",
+                "-> list /archived                          : Show archived tasks (also takes /page and /size)",
+                "-> mark <tasks>                            : Mark tasks as done (<tasks>: 3, #12, 1-5, 2,4,7-9 or /done)",
+                "-> unmark <tasks>                          : Mark tasks as not done",
+                "-> delete <tasks>                          : Delete tasks",
                 "-> find <keyword>                          : Find tasks containing a keyword",
+                "-> find ~<word>                            : Find tasks with a word spelled like <word>, closest first",
+                "-> find /all <keyword>                     : Find tasks containing a keyword, including archived tasks",
                 "-> sort                                    : Sort tasks (Todos first, then Deadlines and Events in chronological order)",
+                "-> sort /keep | sort /off                  : Keep new tasks in sorted order, or stop doing so",
+                "-> due /from <start> /to <end>             : Show deadlines and events in a time range (<yyyy-MM-dd HHmm>)",
+                "-> upcoming <count>                        : Show the next deadlines and events from now",
+                "-> next <count>                            : Show the next deadlines and events from now that are not done",
+                "-> at <time>                               : Show events in progress at a time (<yyyy-MM-dd HHmm>)",
+                "-> stats                                   : Show statistics about your task list",
+                "-> archive                                 : Move all done tasks into the archive",
+                "-> undo | redo                             : Undo your last change, or redo a change you undid",
                 "-> bye                                     : Exit the program"
         );
     }
 
+    /**
+     * Summarizes the tasks left to do in one line, e.g.
+     * {@code You have 3 tasks to do: 1 todo and 2 deadlines (1 overdue).}
+     */
+    private static String summarize(TaskCounts counts) {
+        if (counts.getUndone() == 0) {
+            return counts.getTotal() == 0 ? "You have no tasks yet." : "You have done all your tasks!";
+        }
+        List<String> parts = new ArrayList<>();
+        for (TaskType type : TaskType.values()) {
+            if (counts.getUndone(type) > 0) {
+                parts.add(plural(counts.getUndone(type), type.name().toLowerCase()));
+            }
+        }
+        String last = parts.remove(parts.size() - 1);
+        String breakdown = parts.isEmpty() ? last : String.join(", ", parts) + " and " + last;
+        String overdue = counts.getOverdueCount() == 0 ? "" : String.format(" (%d overdue)", counts.getOverdueCount());
+        return String.format("You have %s to do: %s%s.", plural(counts.getUndone(), "task"), breakdown, overdue);
+    }
+
+    private static String plural(int count, String noun) {
+        return count + " " + noun + (count == 1 ? "" : "s");
+    }
+
     /**
      * Displays a numbered list of items with a pretext message.
      *
@@ -104,12 +160,46 @@ public class Ui {
      * @param pretext the header or description shown before the list
      */
     public String showList(List<String> list, String pretext) {
-        List<String> lines = new ArrayList<>();
-        lines.add(pretext);
-        for (int i = 0; i < list.size(); i++) {
-            lines.add((i + 1) + ". " + list.get(i));
+        return streamList(list.iterator(), 1, pretext);
+    }
+
+    /**
+     * Displays a numbered list of items, printing each item as soon as it is taken from the iterator,
+     * so that no more than one item needs to be held in memory at a time.
+     * <p>
+     * The returned response for the GUI keeps at most {@value #MAX_GUI_LIST_ITEMS} items, followed by a
+     * line saying how many more were printed, so a very long list does not flood the dialog.
+     * </p>
+     *
+     * @param items the items to display, in order
+     * @param firstNumber the number shown next to the first item
+     * @param pretext the header or description shown before the list
+     * @param footers lines shown after the list
+     * @return the response for the GUI
+     */
+    public String streamList(Iterator<String> items, int firstNumber, String pretext, String... footers) {
+        StringBuilder guiResponse = new StringBuilder(pretext);
+        printDivider();
+        printMessage(pretext);
+        int count = 0;
+        while (items.hasNext()) {
+            String line = (firstNumber + count) + ". " + items.next();
+            printMessage(line);
+            if (count < MAX_GUI_LIST_ITEMS) {
+                guiResponse.append("\n").append(line);
+            }
+            count++;
         }
-        return respond(lines.toArray(new String[0]));
+        if (count > MAX_GUI_LIST_ITEMS) {
+            guiResponse.append("\n").append(String.format(
+                    "... and %d more. Use 'list /page <n>' to see them a page at a time.", count - MAX_GUI_LIST_ITEMS));
+        }
+        for (String footer : footers) {
+            printMessage(footer);
+            guiResponse.append("\n").append(footer);
+        }
+        printDivider();
+        return guiResponse.toString();
     }
 
     /**
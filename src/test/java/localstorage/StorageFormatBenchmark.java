@@ -0,0 +1,98 @@
+package localstorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import tasks.Deadline;
+import tasks.Event;
+import tasks.Task;
+import tasks.Todo;
+
+/**
+ * Compares the save and load throughput of the text and binary storage formats.
+ * <p>
+ * Run with {@code ./gradlew benchmark -Pbenchmark=localstorage.StorageFormatBenchmark}, optionally
+ * passing the number of tasks as {@code -PbenchmarkArgs=<n>}.
+ */
+public class StorageFormatBenchmark {
+    private static final int DEFAULT_TASK_COUNT = 200_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional number of tasks to save and load
+     * @throws IOException if the temporary data files cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASK_COUNT;
+        List<Task> tasks = generateTasks(taskCount);
+        Path directory = Files.createTempDirectory("logos-benchmark");
+        try {
+            System.out.printf("%,d tasks, best of %d rounds%n", taskCount, MEASURED_ROUNDS);
+            for (StorageFormat format : StorageFormat.values()) {
+                run(format, tasks, directory);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static void run(StorageFormat format, List<Task> tasks, Path directory) throws IOException {
+        String filePath = directory.resolve("tasks-" + format.name().toLowerCase() + ".txt").toString();
+        Storage storage = new Storage(filePath, format, false);
+
+        long bestSave = Long.MAX_VALUE;
+        long bestLoad = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            storage.saveTasks(tasks);
+            long saved = System.nanoTime();
+            List<Task> loaded = new ArrayList<>(tasks.size());
+            storage.loadTasks(loaded);
+            long end = System.nanoTime();
+
+            if (loaded.size() != tasks.size()) {
+                throw new IllegalStateException("Loaded " + loaded.size() + " of " + tasks.size() + " tasks");
+            }
+            if (round >= WARMUP_ROUNDS) {
+                bestSave = Math.min(bestSave, saved - start);
+                bestLoad = Math.min(bestLoad, end - saved);
+            }
+        }
+
+        long fileSize = Files.size(Path.of(filePath.replace(".txt", format.getExtension())));
+        System.out.printf("%-7s  size %,12d B  save %8.1f ms (%,10.0f tasks/s)  load %8.1f ms (%,10.0f tasks/s)%n",
+                format.name().toLowerCase(), fileSize,
+                bestSave / 1e6, tasks.size() / (bestSave / 1e9),
+                bestLoad / 1e6, tasks.size() / (bestLoad / 1e9));
+    }
+
+    private static List<Task> generateTasks(int count) {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = switch (i % 3) {
+            case 0 -> new Todo("read chapter " + i);
+            case 1 -> new Deadline("submit assignment " + i, base.plusMinutes(i * 37L));
+            default -> new Event("project meeting " + i, base.plusHours(i), base.plusHours(i + 1));
+            };
+            if (i % 4 == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
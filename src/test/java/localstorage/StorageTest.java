@@ -0,0 +1,351 @@
+package localstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tasks.Deadline;
+import tasks.Event;
+import tasks.Recurrence;
+import tasks.RecurringEvent;
+import tasks.Task;
+import tasks.Todo;
+
+public class StorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String dataFile() {
+        return tempDir.resolve("tasks.txt").toString();
+    }
+
+    private static List<String> asStorageLines(List<Task> tasks) {
+        return tasks.stream().map(Task::toStorageLine).toList();
+    }
+
+    @Test
+    @DisplayName("journaled additions, status changes and deletions are replayed on load")
+    void journal_replaysMutations() throws IOException {
+        Storage storage = new Storage(dataFile());
+        List<Task> tasks = new ArrayList<>();
+
+        Todo first = new Todo("first");
+        tasks.add(first);
+        storage.saveAddition(tasks, first);
+        Deadline second = new Deadline("second", LocalDateTime.of(2025, 1, 2, 18, 0));
+        tasks.add(second);
+        storage.saveAddition(tasks, second);
+        second.markAsDone();
+        storage.saveStatusChange(tasks, 1);
+        tasks.remove(0);
+        storage.saveDeletion(tasks, 0);
+
+        // Only the journal is written; the data file is left untouched
+        assertEquals(0, Files.size(Path.of(dataFile())));
+
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile()).loadTasks(loaded);
+        assertEquals(asStorageLines(tasks), asStorageLines(loaded));
+    }
+
+    @Test
+    @DisplayName("saveTasks folds the journal into the data file")
+    void saveTasks_clearsJournal() throws IOException {
+        Storage storage = new Storage(dataFile());
+        List<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("write tests");
+        tasks.add(todo);
+        storage.saveAddition(tasks, todo);
+
+        storage.saveTasks(tasks);
+
+        assertFalse(Files.exists(Path.of(dataFile() + ".journal")));
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile()).loadTasks(loaded);
+        assertEquals(asStorageLines(tasks), asStorageLines(loaded));
+    }
+
+    @Test
+    @DisplayName("a torn journal record at the end is ignored")
+    void journal_ignoresTornRecord() throws IOException {
+        Storage storage = new Storage(dataFile());
+        List<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("survives");
+        tasks.add(todo);
+        storage.saveAddition(tasks, todo);
+        Files.writeString(Path.of(dataFile() + ".journal"), "S | 0", StandardOpenOption.APPEND);
+
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile()).loadTasks(loaded);
+        assertEquals(1, loaded.size());
+        assertFalse(loaded.get(0).isDone());
+    }
+
+    @Test
+    @DisplayName("compactJournal folds the journal into the data file")
+    void compactJournal_foldsJournal() throws IOException {
+        Storage storage = new Storage(dataFile());
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Todo todo = new Todo("todo " + i);
+            tasks.add(todo);
+            storage.saveAddition(tasks, todo);
+        }
+        tasks.remove(2);
+        storage.saveDeletion(tasks, 2);
+
+        storage.compactJournal();
+
+        assertFalse(Files.exists(Path.of(dataFile() + ".journal")));
+        assertFalse(Files.exists(Path.of(dataFile() + ".compacting")));
+        assertEquals(asStorageLines(tasks), Files.readAllLines(Path.of(dataFile())));
+    }
+
+    @Test
+    @DisplayName("a fully written '.next' file replaces the data file and the compacting segment on startup")
+    void constructor_recoversInterruptedCompaction() throws IOException {
+        new Storage(dataFile());
+        Files.writeString(Path.of(dataFile() + ".compacting"), "+ | T | 0 | stale" + System.lineSeparator());
+        Files.writeString(Path.of(dataFile() + ".next"), "T | 0 | compacted" + System.lineSeparator());
+        Files.writeString(Path.of(dataFile() + ".journal"), "S | 0 | 1" + System.lineSeparator());
+
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile()).loadTasks(loaded);
+
+        assertEquals(List.of("T | 1 | compacted"), asStorageLines(loaded));
+    }
+
+    @Test
+    @DisplayName("binary format round-trips every task type")
+    void binaryFormat_roundTrip() throws IOException {
+        Storage storage = new Storage(dataFile(), StorageFormat.BINARY, false);
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("caf\u00e9 | with separator"));
+        tasks.add(new Deadline("submit", LocalDateTime.of(2025, 3, 15, 10, 0)));
+        Event event = new Event("conference", LocalDateTime.of(2025, 5, 10, 9, 0),
+                LocalDateTime.of(2025, 5, 12, 17, 30));
+        event.markAsDone();
+        tasks.add(event);
+        tasks.add(new RecurringEvent("standup", LocalDateTime.of(2025, 3, 3, 9, 30),
+                LocalDateTime.of(2025, 3, 3, 9, 45), Recurrence.MONTH));
+
+        storage.saveTasks(tasks);
+
+        Path binaryFile = tempDir.resolve("tasks.bin");
+        assertTrue(BinaryTaskFormat.isBinaryFile(binaryFile));
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile(), StorageFormat.BINARY, false).loadTasks(loaded);
+        assertEquals(asStorageLines(tasks), asStorageLines(loaded));
+    }
+
+    @Test
+    @DisplayName("a text data file and its journal are migrated to the binary format")
+    void binaryFormat_migratesTextFile() throws IOException {
+        Storage textStorage = new Storage(dataFile());
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("from snapshot"));
+        textStorage.saveTasks(tasks);
+        Todo journaled = new Todo("from journal");
+        tasks.add(journaled);
+        textStorage.saveAddition(tasks, journaled);
+
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile(), StorageFormat.BINARY, true).loadTasks(loaded);
+
+        assertEquals(asStorageLines(tasks), asStorageLines(loaded));
+        assertFalse(Files.exists(Path.of(dataFile())));
+        assertTrue(Files.exists(Path.of(dataFile() + ".migrated")));
+        assertFalse(Files.exists(Path.of(dataFile() + ".journal")));
+    }
+
+    @Test
+    @DisplayName("write-behind batches journal records until flushed")
+    void writeBehind_flushWritesPendingRecords() throws IOException {
+        Storage storage = new Storage(dataFile());
+        storage.enableWriteBehind(60_000, 1_000);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Todo todo = new Todo("todo " + i);
+            tasks.add(todo);
+            storage.saveAddition(tasks, todo);
+        }
+        assertFalse(Files.exists(Path.of(dataFile() + ".journal")));
+
+        storage.flush();
+
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile()).loadTasks(loaded);
+        assertEquals(asStorageLines(tasks), asStorageLines(loaded));
+    }
+
+    /**
+     * Writes a text data file of just over 1 MiB with lines of varying length, ending in CRLF or LF,
+     * with an unparseable line every 1000 lines, and returns the tasks the serial path reads from it.
+     */
+    private List<Task> writeLargeDataFile(Path file) throws IOException {
+        StringBuilder text = new StringBuilder();
+        int i = 0;
+        while (text.length() <= 1024 * 1024 + 4096) {
+            String line = i % 1000 == 999
+                    ? "not a task " + i
+                    : new Todo("task " + i + " " + "x".repeat(i % 37)).toStorageLine();
+            text.append(line).append(i % 3 == 0 ? "\r\n" : "\n");
+            i++;
+        }
+        Files.writeString(file, text, Charset.defaultCharset());
+
+        List<Task> expected = new ArrayList<>();
+        for (String line : Files.readAllLines(file, Charset.defaultCharset())) {
+            Task task = ChunkedTaskLoader.parseLine(line);
+            if (task != null) {
+                expected.add(task);
+            }
+        }
+        return expected;
+    }
+
+    @Test
+    @DisplayName("a data file over the parallel threshold loads in the same order as the serial path")
+    void largeTextFile_loadsInFileOrder() throws IOException {
+        Path file = Path.of(dataFile());
+        List<Task> expected = writeLargeDataFile(file);
+        assertTrue(Files.size(file) > 1024 * 1024);
+
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile(), StorageFormat.TEXT, false).loadTasks(loaded);
+        assertEquals(asStorageLines(expected), asStorageLines(loaded));
+    }
+
+    @Test
+    @DisplayName("chunks split mid-line and inside CRLF line breaks still parse every line, counting bad ones")
+    void chunkedLoader_handlesLinesAcrossChunkBoundaries() throws IOException {
+        Path file = Path.of(dataFile());
+        List<Task> expected = writeLargeDataFile(file);
+        byte[] bytes = Files.readAllBytes(file);
+        int badLineCount = (int) Files.readAllLines(file, Charset.defaultCharset()).stream()
+                .filter(line -> line.startsWith("not a task"))
+                .count();
+        assertTrue(badLineCount > 0);
+
+        boolean hasSplitInsideCrlf = false;
+        for (int chunkCount = 2; chunkCount <= 64; chunkCount++) {
+            for (int i = 1; i < chunkCount; i++) {
+                int splitPoint = (int) ((long) bytes.length * i / chunkCount);
+                hasSplitInsideCrlf |= bytes[splitPoint - 1] == '\r' && bytes[splitPoint] == '\n';
+            }
+            List<Task> loaded = new ArrayList<>();
+            int failedCount = new ChunkedTaskLoader(file, Charset.defaultCharset()).load(loaded, chunkCount);
+            assertEquals(asStorageLines(expected), asStorageLines(loaded));
+            assertEquals(badLineCount, failedCount);
+        }
+        assertTrue(hasSplitInsideCrlf);
+    }
+
+    @Test
+    @DisplayName("the journal counts the bytes it writes, as it does when replaying the file")
+    void journal_countsEncodedBytes() throws IOException {
+        Path path = tempDir.resolve("tasks.txt.journal");
+        Journal journal = new Journal(path.toString());
+        journal.append(Journal.additionRecord(new Todo("caf\u00e9 \u4f1a\u8bae")));
+        journal.appendAll(List.of(Journal.additionRecord(new Todo("r\u00e9sum\u00e9")), Journal.statusRecord(1, true)));
+        assertEquals(Files.size(path), journal.getByteCount());
+
+        Journal replayed = new Journal(path.toString());
+        replayed.replay(new ArrayList<>());
+        assertEquals(journal.getByteCount(), replayed.getByteCount());
+    }
+
+    @Test
+    @DisplayName("slotted format updates statuses in place and skips tombstones")
+    void slottedFormat_updatesInPlace() throws IOException {
+        Storage storage = new Storage(dataFile(), StorageFormat.SLOTTED, true);
+        List<Task> tasks = new ArrayList<>();
+        storage.loadTasks(tasks);
+        for (int i = 0; i < 3; i++) {
+            Todo todo = new Todo("todo " + i);
+            tasks.add(todo);
+            storage.saveAddition(tasks, todo);
+        }
+        Path slotFile = tempDir.resolve("tasks.slots");
+        long sizeBeforeUpdates = Files.size(slotFile);
+
+        tasks.get(2).markAsDone();
+        storage.saveStatusChange(tasks, 2);
+        tasks.remove(0);
+        storage.saveDeletion(tasks, 0);
+
+        assertEquals(sizeBeforeUpdates, Files.size(slotFile));
+        assertFalse(Files.exists(Path.of(slotFile + ".journal")));
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile(), StorageFormat.SLOTTED, true).loadTasks(loaded);
+        assertEquals(asStorageLines(tasks), asStorageLines(loaded));
+    }
+
+    @Test
+    @DisplayName("slotted format grows its slots for long descriptions")
+    void slottedFormat_growsSlots() throws IOException {
+        Storage storage = new Storage(dataFile(), StorageFormat.SLOTTED, false);
+        List<Task> tasks = new ArrayList<>();
+        storage.loadTasks(tasks);
+        Todo shortTodo = new Todo("short");
+        tasks.add(shortTodo);
+        storage.saveAddition(tasks, shortTodo);
+        Todo longTodo = new Todo("long ".repeat(100));
+        tasks.add(longTodo);
+        storage.saveAddition(tasks, longTodo);
+        longTodo.markAsDone();
+        storage.saveStatusChange(tasks, 1);
+
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile(), StorageFormat.SLOTTED, false).loadTasks(loaded);
+        assertEquals(asStorageLines(tasks), asStorageLines(loaded));
+    }
+
+    @Test
+    @DisplayName("archived tasks leave the data file and survive a torn batch at the end of the archive")
+    void archive_appendsBatchesAndDropsTornTail() throws IOException {
+        Storage storage = new Storage(dataFile());
+        List<Task> tasks = new ArrayList<>();
+        Todo kept = new Todo("kept");
+        Todo done = new Todo("done");
+        done.markAsDone();
+        Deadline doneDeadline = new Deadline("done deadline", LocalDateTime.of(2025, 1, 2, 18, 0));
+        doneDeadline.markAsDone();
+        tasks.add(kept);
+
+        storage.archiveTasks(tasks, List.of(done));
+        storage.archiveTasks(tasks, List.of(doneDeadline));
+        Path archive = tempDir.resolve("tasks.archive");
+        long sizeBeforeTear = Files.size(archive);
+        Files.write(archive, new byte[] {0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+        List<Task> loaded = new ArrayList<>();
+        new Storage(dataFile()).loadTasks(loaded);
+        assertEquals(asStorageLines(tasks), asStorageLines(loaded));
+        assertEquals(asStorageLines(List.of(done, doneDeadline)),
+                asStorageLines(new Storage(dataFile()).loadArchivedTasks()));
+
+        // The torn batch is cut off before the next one is appended
+        Storage reopened = new Storage(dataFile());
+        Todo later = new Todo("later");
+        later.markAsDone();
+        reopened.archiveTasks(tasks, List.of(later));
+        assertTrue(Files.size(archive) > sizeBeforeTear);
+        assertEquals(asStorageLines(List.of(done, doneDeadline, later)),
+                asStorageLines(reopened.loadArchivedTasks()));
+    }
+}
@@ -11,14 +11,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 
+import commands.AtCommand;
 import commands.ByeCommand;
 import commands.Command;
 import commands.DeadlineCommand;
 import commands.DeleteCommand;
+import commands.DueCommand;
 import commands.EventCommand;
+import commands.FindCommand;
 import commands.ListCommand;
 import commands.MarkCommand;
+import commands.RedoCommand;
+import commands.StatsCommand;
 import commands.TodoCommand;
+import commands.UndoCommand;
 import commands.UnmarkCommand;
 import errors.InvalidCommandFormatException;
 import errors.LogosException;
@@ -48,6 +54,16 @@ public class ParserTest {
         assertTrue(cmd instanceof ListCommand);
     }
 
+    @Test
+    @DisplayName("parse: LIST /page and /size -> ListCommand, bad options -> InvalidCommandFormatException")
+    void parse_list_withPage() throws LogosException {
+        assertTrue(parser.parse("list /page 2 /size 50") instanceof ListCommand);
+        assertTrue(parser.parse("list /size 5") instanceof ListCommand);
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("list /page"));
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("list /page 0"));
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("list /pages 2"));
+    }
+
     @Nested
     @DisplayName("MARK")
     class MarkTests {
@@ -58,6 +74,19 @@ public class ParserTest {
             assertTrue(cmd instanceof MarkCommand);
         }
 
+        @Test
+        @DisplayName("parse: MARK #id -> MarkCommand")
+        void parse_mark_withId() throws LogosException {
+            Command cmd = parser.parse("mark #3");
+            assertTrue(cmd instanceof MarkCommand);
+        }
+
+        @Test
+        @DisplayName("parse: MARK with bare '#' -> InvalidCommandFormatException")
+        void parse_mark_withBareHash() {
+            assertThrows(InvalidCommandFormatException.class, () -> parser.parse("mark #"));
+        }
+
         @Test
         @DisplayName("parse: MARK without number -> InvalidCommandFormatException")
         void parse_mark_withoutNumber() {
@@ -151,6 +180,17 @@ public class ParserTest {
             assertTrue(cmd instanceof EventCommand);
         }
 
+        @Test
+        @DisplayName("parse: EVENT with '/every' -> EventCommand, unknown period -> InvalidCommandFormatException")
+        void parse_event_recurring() throws LogosException {
+            assertTrue(parser.parse("event standup /from 2024-05-10 0900 /to 2024-05-10 0915 /every WEEK")
+                    instanceof EventCommand);
+            assertThrows(InvalidCommandFormatException.class,
+                    () -> parser.parse("event standup /from 2024-05-10 0900 /to 2024-05-10 0915 /every fortnight"));
+            assertThrows(InvalidCommandFormatException.class,
+                    () -> parser.parse("event standup /from 2024-05-10 0900 /to /every week"));
+        }
+
         @Test
         @DisplayName("parse: EVENT missing markers -> InvalidCommandFormatException")
         void parse_event_missingMarkers() {
@@ -205,6 +245,99 @@ public class ParserTest {
         void parse_delete_withNonNumeric() {
             assertThrows(InvalidCommandFormatException.class, () -> parser.parse("delete two"));
         }
+
+        @Test
+        @DisplayName("parse: DELETE with ranges, lists and /done -> DeleteCommand")
+        void parse_delete_withSelection() throws LogosException {
+            assertTrue(parser.parse("delete 3,7,9-12") instanceof DeleteCommand);
+            assertTrue(parser.parse("delete #4, 1-2") instanceof DeleteCommand);
+            assertTrue(parser.parse("delete /done") instanceof DeleteCommand);
+        }
+
+        @Test
+        @DisplayName("parse: DELETE with a reversed range or empty item -> InvalidCommandFormatException")
+        void parse_delete_withInvalidSelection() {
+            assertThrows(InvalidCommandFormatException.class, () -> parser.parse("delete 5-2"));
+            assertThrows(InvalidCommandFormatException.class, () -> parser.parse("delete 1,,2"));
+            assertThrows(InvalidCommandFormatException.class, () -> parser.parse("delete 1-"));
+        }
+    }
+
+    @Nested
+    @DisplayName("DUE")
+    class DueTests {
+        @Test
+        @DisplayName("parse: DUE with valid '/from' and '/to' -> DueCommand")
+        void parse_due_valid() throws LogosException {
+            Command cmd = parser.parse("due /from 2025-01-01 0000 /to 2025-01-07 2359");
+            assertTrue(cmd instanceof DueCommand);
+        }
+
+        @Test
+        @DisplayName("parse: DUE with end before start -> InvalidCommandFormatException")
+        void parse_due_endBeforeStart() {
+            assertThrows(InvalidCommandFormatException.class,
+                    () -> parser.parse("due /from 2025-01-07 0000 /to 2025-01-01 0000"));
+        }
+    }
+
+    @Test
+    @DisplayName("parse: AT with a valid date -> AtCommand")
+    void parse_at_valid() throws LogosException {
+        Command cmd = parser.parse("at 2025-01-07 1300");
+        assertTrue(cmd instanceof AtCommand);
+    }
+
+    @Test
+    @DisplayName("parse: AT with an invalid date -> InvalidCommandFormatException")
+    void parse_at_invalidDate() {
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("at tomorrow"));
+    }
+
+    @Test
+    @DisplayName("parse: dates outside the plain yyyy-MM-dd HHmm range are resolved or rejected as before")
+    void parse_dateEdgeCases() throws LogosException {
+        assertTrue(parser.parse("at 2024-02-29 0000") instanceof AtCommand);
+        // Resolved by the formatter to Feb 28 and to midnight the next day
+        assertTrue(parser.parse("at 2025-02-30 1200") instanceof AtCommand);
+        assertTrue(parser.parse("at 2025-01-07 2400") instanceof AtCommand);
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("at 2025-13-01 1200"));
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("at 2025-01-07 1260"));
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("at 2025-01-07 12:00"));
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("at 2025-01-0\uFF17 1200"));
+    }
+
+    @Test
+    @DisplayName("parse: markers are found whatever their case, with any spacing around them")
+    void parse_markersIgnoreCase() throws LogosException {
+        assertTrue(parser.parse("DEADLINE report /BY   2025-01-07 1300  ") instanceof DeadlineCommand);
+        assertTrue(parser.parse("event retro /From 2025-01-07 1300/TO 2025-01-07 1400 /Every Month")
+                instanceof EventCommand);
+        assertTrue(parser.parse("due /FROM 2025-01-07 1300 /to 2025-01-08 1300") instanceof DueCommand);
+        assertThrows(UnknownCommandException.class, () -> parser.parse("deadlines report /by 2025-01-07 1300"));
+    }
+
+    @Test
+    @DisplayName("parse: STATS -> StatsCommand; STATS with an argument -> InvalidCommandFormatException")
+    void parse_stats() throws LogosException {
+        assertTrue(parser.parse("stats") instanceof StatsCommand);
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("stats now"));
+    }
+
+    @Test
+    @DisplayName("parse: UNDO and REDO -> their commands; with an argument -> InvalidCommandFormatException")
+    void parse_undoRedo() throws LogosException {
+        assertTrue(parser.parse("undo") instanceof UndoCommand);
+        assertTrue(parser.parse("redo") instanceof RedoCommand);
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("undo 3"));
+    }
+
+    @Test
+    @DisplayName("parse: FIND ~word -> FindCommand; ~ alone or with several words -> InvalidCommandFormatException")
+    void parse_fuzzyFind() throws LogosException {
+        assertTrue(parser.parse("find ~meetng") instanceof FindCommand);
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("find ~"));
+        assertThrows(InvalidCommandFormatException.class, () -> parser.parse("find ~team meetng"));
     }
 
     @Test
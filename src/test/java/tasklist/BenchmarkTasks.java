@@ -0,0 +1,72 @@
+package tasklist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import tasks.Task;
+import tasks.Todo;
+
+/**
+ * Generates the tasks the benchmarks in this package run on, and measures the heap they take.
+ */
+final class BenchmarkTasks {
+    /** The words that generated descriptions are made of. */
+    static final String[] WORDS = {
+        "read", "write", "submit", "review", "project", "report", "meeting", "lecture", "tutorial",
+        "assignment", "quiz", "exam", "lab", "groceries", "laundry", "gym", "call", "email", "book",
+    };
+
+    private BenchmarkTasks() {
+    }
+
+    /**
+     * Returns a description of two to five random words followed by a number below 1000.
+     *
+     * @param random the source of randomness
+     * @param words the words to pick from
+     * @param isCapitalised whether to capitalise the first word, as most descriptions are
+     * @return the description
+     */
+    static String randomDescription(Random random, String[] words, boolean isCapitalised) {
+        StringBuilder description = new StringBuilder();
+        int wordCount = 2 + random.nextInt(4);
+        for (int w = 0; w < wordCount; w++) {
+            String word = words[random.nextInt(words.length)];
+            description.append(isCapitalised && w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1)
+                    : word).append(' ');
+        }
+        description.append(random.nextInt(1000));
+        return description.toString();
+    }
+
+    /**
+     * Returns todos with random descriptions, the same ones on every run.
+     *
+     * @param count the number of todos
+     * @param words the words to make the descriptions of
+     * @param isCapitalised whether to capitalise the first word of each description
+     * @return the todos, without IDs
+     */
+    static List<Task> generateTodos(int count, String[] words, boolean isCapitalised) {
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Todo(randomDescription(random, words, isCapitalised)));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the bytes of heap in use once garbage has been collected.
+     *
+     * @return the used heap in bytes
+     */
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,143 @@
+package tasklist;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import errors.LogosException;
+import localstorage.Storage;
+import localstorage.StorageFormat;
+import tasks.Task;
+
+/**
+ * Measures the throughput of a {@link TaskList} shared by several reader threads and one writer.
+ * <p>
+ * Readers run searches and show their results, and every 16th read lists every task. The writer
+ * keeps the list at a constant size by adding a task, marking it and deleting the oldest one it
+ * added. Each mix of threads runs for a fixed time and reports reads and writes per second, so the
+ * cost readers and the writer impose on each other shows up against the runs with only one kind.
+ * Writes go to a journal with write-behind enabled, so the writer is not bound by the disk.
+ * <p>
+ * Run with {@code ./gradlew benchmark -Pbenchmark=tasklist.ConcurrencyBenchmark}, optionally passing the
+ * number of tasks as {@code -PbenchmarkArgs=<n>}.
+ */
+public class ConcurrencyBenchmark {
+    private static final int DEFAULT_TASK_COUNT = 20_000;
+    private static final long RUN_MILLIS = 2_000;
+    private static final int LIST_EVERY = 16;
+    private static final String[] QUERIES = {"report", "project meeting", "quiz 42", "lab", "draft"};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional number of tasks in the list
+     * @throws IOException if the temporary data files cannot be written or read
+     * @throws InterruptedException if interrupted while waiting for a run to finish
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASK_COUNT;
+        Path directory = Files.createTempDirectory("logos-benchmark");
+        try {
+            Storage storage = new Storage(directory.resolve("tasks.txt").toString(), StorageFormat.TEXT, true);
+            storage.enableWriteBehind(50, 256);
+            storage.saveTasks(BenchmarkTasks.generateTodos(taskCount, BenchmarkTasks.WORDS, false));
+            TaskList taskList = new TaskList(storage);
+            taskList.loadFromStorgae();
+
+            System.out.printf("%,d tasks, %d ms per run, %d available processors%n", taskCount, RUN_MILLIS,
+                    Runtime.getRuntime().availableProcessors());
+            run(taskList, 1, false);
+            run(taskList, 0, true);
+            for (int readers = 1; readers <= 4; readers *= 2) {
+                run(taskList, readers, true);
+            }
+            taskList.flushStorage();
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void run(TaskList taskList, int readerCount, boolean hasWriter) throws InterruptedException {
+        AtomicBoolean isRunning = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch ready = new CountDownLatch(readerCount + (hasWriter ? 1 : 0));
+        for (int r = 0; r < readerCount; r++) {
+            int seed = r;
+            threads.add(new Thread(() -> {
+                ready.countDown();
+                read(taskList, seed, isRunning, reads);
+            }));
+        }
+        if (hasWriter) {
+            threads.add(new Thread(() -> {
+                ready.countDown();
+                write(taskList, isRunning, writes);
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        ready.await();
+        Thread.sleep(RUN_MILLIS);
+        isRunning.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("%d reader(s), %-9s %,12.0f reads/s %,12.0f writes/s%n", readerCount,
+                hasWriter ? "1 writer" : "no writer", reads.sum() * 1000.0 / RUN_MILLIS,
+                writes.sum() * 1000.0 / RUN_MILLIS);
+    }
+
+    private static void read(TaskList taskList, int seed, AtomicBoolean isRunning, LongAdder reads) {
+        Random random = new Random(seed);
+        for (long i = 1; isRunning.get(); i++) {
+            if (i % LIST_EVERY == 0) {
+                taskList.listTasks();
+            } else {
+                List<Integer> indexes = taskList.findIndexes(QUERIES[random.nextInt(QUERIES.length)]);
+                try {
+                    taskList.filterByIndexes(indexes);
+                } catch (IndexOutOfBoundsException e) {
+                    // A task was deleted between the search and showing its results; the next read retries
+                }
+            }
+            reads.increment();
+        }
+    }
+
+    private static void write(TaskList taskList, AtomicBoolean isRunning, LongAdder writes) {
+        List<Integer> added = new ArrayList<>();
+        int oldest = 0;
+        try {
+            while (isRunning.get()) {
+                Task task = taskList.addTodo("benchmark draft " + added.size());
+                added.add(task.getId());
+                taskList.markTask(TaskRef.ofId(task.getId()));
+                writes.add(2);
+                if (added.size() - oldest > 100) {
+                    taskList.deleteTask(TaskRef.ofId(added.get(oldest++)));
+                    writes.increment();
+                }
+            }
+            while (oldest < added.size()) {
+                taskList.deleteTask(TaskRef.ofId(added.get(oldest++)));
+            }
+        } catch (LogosException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package tasklist;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import localstorage.Storage;
+import localstorage.StorageFormat;
+import tasks.Task;
+
+/**
+ * Measures the latency of {@link TaskList#findIndexes(String)} against a linear scan of every description,
+ * and the memory the trigram index behind it costs per task.
+ * <p>
+ * Run with {@code ./gradlew benchmark -Pbenchmark=tasklist.FindBenchmark}, optionally passing the
+ * number of tasks as {@code -PbenchmarkArgs=<n>}.
+ */
+public class FindBenchmark {
+    private static final int DEFAULT_TASK_COUNT = 100_000;
+    private static final int ROUNDS = 200;
+    // The shared words, and some that only the queries below look for
+    private static final String[] WORDS = Stream.concat(Arrays.stream(BenchmarkTasks.WORDS),
+            Stream.of("library", "dentist", "birthday", "presentation", "draft", "slides", "budget", "invoice"))
+            .toArray(String[]::new);
+    private static final String[] QUERIES = {"report", "port", "project meeting", "cs2103t", "pres", "quiz 42", "la"};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional number of tasks to search
+     * @throws IOException if the temporary data file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASK_COUNT;
+        Path directory = Files.createTempDirectory("logos-benchmark");
+        Path dataFile = directory.resolve("tasks.bin");
+        try {
+            Storage storage = new Storage(directory.resolve("tasks.txt").toString(), StorageFormat.BINARY, false);
+            List<Task> generated = BenchmarkTasks.generateTodos(taskCount, WORDS, false);
+            storage.saveTasks(generated);
+            TaskList taskList = new TaskList(storage);
+            taskList.loadFromStorgae();
+
+            System.out.printf("%,d tasks, mean of %d rounds%n", taskCount, ROUNDS);
+            for (String query : QUERIES) {
+                run(taskList, generated, query);
+            }
+            reportMemory(generated);
+        } finally {
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void run(TaskList taskList, List<Task> tasks, String query) {
+        int matches = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            matches = taskList.findIndexes(query).size() + scan(tasks, query).size();
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            matches = taskList.findIndexes(query).size();
+        }
+        long indexed = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            scan(tasks, query);
+        }
+        long end = System.nanoTime();
+        System.out.printf("%-18s %,7d matches  index %9.3f ms  scan %9.3f ms%n", "'" + query + "'", matches,
+                (indexed - start) / 1e6 / ROUNDS, (end - indexed) / 1e6 / ROUNDS);
+    }
+
+    private static void reportMemory(List<Task> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(i + 1);
+        }
+        long before = BenchmarkTasks.usedHeap();
+        TrigramIndex index = new TrigramIndex();
+        for (Task task : tasks) {
+            index.add(task);
+        }
+        long after = BenchmarkTasks.usedHeap();
+
+        long descriptionChars = 0;
+        for (Task task : tasks) {
+            descriptionChars += task.getDescription().length();
+        }
+        System.out.printf("trigram index: %,d trigrams, %.1f postings/task, %.1f chars/description%n",
+                index.trigramCount(), (double) index.postingCount() / tasks.size(),
+                (double) descriptionChars / tasks.size());
+        System.out.printf("memory per task: %.1f B estimated, %.1f B measured (the scan needs none)%n",
+                (double) index.estimateBytes() / tasks.size(), (double) (after - before) / tasks.size());
+        index.clear();
+    }
+
+    private static List<Integer> scan(List<Task> tasks, String query) {
+        String q = query.toLowerCase();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).getDescription().toLowerCase().contains(q)) {
+                indexes.add(i);
+            }
+        }
+        return indexes;
+    }
+}
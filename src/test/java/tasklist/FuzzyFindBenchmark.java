@@ -0,0 +1,116 @@
+package tasklist;
+
+import java.util.Random;
+
+import tasks.Task;
+import tasks.Todo;
+
+/**
+ * Measures how long a fuzzy search takes on a large vocabulary.
+ * <p>
+ * A {@link VocabularyIndex} is filled with tasks made of random words, and words from it with one or two
+ * characters changed are then searched for, with the same edit distances {@code find ~<word>} allows. The
+ * mean time per search is compared with computing the distance from the query to every word in the
+ * vocabulary with the textbook dynamic programming algorithm.
+ * <p>
+ * Run with {@code ./gradlew benchmark -Pbenchmark=tasklist.FuzzyFindBenchmark}, optionally passing the
+ * number of distinct words as {@code -PbenchmarkArgs=<n>}.
+ */
+public class FuzzyFindBenchmark {
+    private static final int DEFAULT_WORD_COUNT = 100_000;
+    private static final int QUERY_COUNT = 1_000;
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional number of distinct words in the vocabulary
+     */
+    public static void main(String[] args) {
+        int wordCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_WORD_COUNT;
+        Random random = new Random(42);
+        String[] words = new String[wordCount];
+        VocabularyIndex index = new VocabularyIndex();
+        long start = System.nanoTime();
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = randomWord(random);
+            Task task = new Todo(words[i]);
+            task.setId(i + 1);
+            index.add(task);
+        }
+        System.out.printf("%,d distinct words indexed in %,d ms%n", index.size(),
+                (System.nanoTime() - start) / 1_000_000);
+
+        String[] queries = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries[i] = misspell(words[random.nextInt(wordCount)], random);
+        }
+        char[][] wordCharacters = new char[wordCount][];
+        for (int i = 0; i < wordCount; i++) {
+            wordCharacters[i] = words[i].toCharArray();
+        }
+        for (int round = 0; round < 3; round++) {
+            start = System.nanoTime();
+            long matches = 0;
+            for (String query : queries) {
+                matches += index.search(query, maxDistance(query)).size();
+            }
+            double treeMillis = (System.nanoTime() - start) / 1e6 / QUERY_COUNT;
+
+            // Checking every word is slow, so only every tenth query is run that way
+            start = System.nanoTime();
+            long scanMatches = 0;
+            for (int i = 0; i < QUERY_COUNT; i += 10) {
+                scanMatches += scan(wordCharacters, queries[i]);
+            }
+            double scanMillis = (System.nanoTime() - start) / 1e6 / (QUERY_COUNT / 10);
+            System.out.printf("BK-tree %7.3f ms/search (%.2f matches), every word %7.3f ms/search (%.2f matches)%n",
+                    treeMillis, (double) matches / QUERY_COUNT, scanMillis, (double) scanMatches / (QUERY_COUNT / 10));
+        }
+    }
+
+    private static int maxDistance(String query) {
+        return query.length() <= 4 ? 1 : 2;
+    }
+
+    private static int scan(char[][] words, String query) {
+        int maxDistance = maxDistance(query);
+        int[] previousRow = new int[query.length() + 1];
+        int[] currentRow = new int[query.length() + 1];
+        int matches = 0;
+        for (char[] word : words) {
+            if (VocabularyIndex.distance(query, word, 0, word.length, maxDistance, previousRow, currentRow)
+                    <= maxDistance) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static String randomWord(Random random) {
+        int length = 4 + random.nextInt(7);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return word.toString();
+    }
+
+    /**
+     * Changes one or two characters of a word, as a typo would.
+     */
+    private static String misspell(String word, Random random) {
+        StringBuilder misspelled = new StringBuilder(word);
+        int typos = 1 + random.nextInt(2);
+        for (int i = 0; i < typos; i++) {
+            int position = random.nextInt(misspelled.length());
+            char letter = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            switch (random.nextInt(3)) {
+            case 0 -> misspelled.setCharAt(position, letter);
+            case 1 -> misspelled.insert(position, letter);
+            default -> misspelled.deleteCharAt(position);
+            }
+        }
+        return misspelled.toString();
+    }
+}
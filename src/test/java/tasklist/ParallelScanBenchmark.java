@@ -0,0 +1,119 @@
+package tasklist;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import tasks.Task;
+
+/**
+ * Finds the list size above which walking the list in parallel makes a search faster.
+ * <p>
+ * For lists of growing size, the same search is run three ways: lowercasing every description and
+ * checking it with {@link String#contains}, as the walk used to; comparing in place with
+ * {@link TaskList#containsIgnoreCase(String, String)} on one thread; and the same split across the common
+ * fork-join pool. The bytes each single-threaded search allocates are shown too, since lowercasing copies
+ * every description. The smallest size at which the parallel walk wins is the crossover, which
+ * {@link TaskList#PARALLEL_SCAN_THRESHOLD} should be near. With a single processor the parallel walk
+ * never wins, and the task list does not use it.
+ * <p>
+ * Run with {@code ./gradlew benchmark -Pbenchmark=tasklist.ParallelScanBenchmark}, optionally passing the
+ * largest number of tasks as {@code -PbenchmarkArgs=<n>}.
+ */
+public class ParallelScanBenchmark {
+    private static final int DEFAULT_MAX_TASK_COUNT = 1_000_000;
+    private static final long MIN_MEASURED_NANOS = 200_000_000L;
+    private static final String[] QUERY = {"pro", "meet"};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional largest number of tasks to search
+     */
+    public static void main(String[] args) {
+        int maxTaskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_TASK_COUNT;
+        Task[] tasks = generateTasks(maxTaskCount);
+        System.out.printf("%d available processors, threshold %,d%n", Runtime.getRuntime().availableProcessors(),
+                TaskList.PARALLEL_SCAN_THRESHOLD);
+        System.out.printf("%10s %14s %14s %14s %16s %16s%n", "tasks", "lowercase", "in place", "parallel",
+                "lowercase alloc", "in place alloc");
+        int crossover = -1;
+        for (int count = 1_000; count <= maxTaskCount; count = count * 5 / 2) {
+            Task[] prefix = new Task[count];
+            System.arraycopy(tasks, 0, prefix, 0, count);
+            TaskSnapshot view = TaskSnapshot.of(prefix);
+            Search lowercaseSearch = () -> scanLowercase(view).size();
+            Search sequentialSearch = () -> TaskList.scanIndexes(view, QUERY, null, false).size();
+            double lowercase = measure(lowercaseSearch);
+            double sequential = measure(sequentialSearch);
+            double parallel = measure(() -> TaskList.scanIndexes(view, QUERY, null, true).size());
+            System.out.printf("%,10d %11.3f ms %11.3f ms %11.3f ms %13.1f KB %13.1f KB%n", count, lowercase,
+                    sequential, parallel, allocatedBytes(lowercaseSearch) / 1024.0,
+                    allocatedBytes(sequentialSearch) / 1024.0);
+            if (parallel >= sequential) {
+                crossover = -1;
+            } else if (crossover < 0) {
+                crossover = count;
+            }
+        }
+        System.out.println(crossover < 0
+                ? "The parallel walk was not faster at the largest size"
+                : String.format("The parallel walk was faster from %,d tasks up", crossover));
+    }
+
+    /**
+     * Returns the mean time of a search in milliseconds, repeating it until enough time has passed.
+     */
+    private static double measure(Search search) {
+        long matches = 0;
+        for (int i = 0; i < 5; i++) {
+            matches += search.run();
+        }
+        int rounds = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            matches += search.run();
+            rounds++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_MEASURED_NANOS);
+        if (matches < 0) {
+            throw new IllegalStateException();
+        }
+        return elapsed / 1e6 / rounds;
+    }
+
+    /**
+     * Returns the bytes one run of a search allocates on the calling thread.
+     */
+    private static long allocatedBytes(Search search) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        search.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static List<Integer> scanLowercase(TaskSnapshot view) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < view.size(); i++) {
+            String description = view.descriptionAt(i).toLowerCase();
+            if (description.contains(QUERY[0]) && description.contains(QUERY[1])) {
+                indexes.add(i);
+            }
+        }
+        return indexes;
+    }
+
+    private static Task[] generateTasks(int count) {
+        Task[] tasks = BenchmarkTasks.generateTodos(count, BenchmarkTasks.WORDS, true).toArray(new Task[0]);
+        for (int i = 0; i < count; i++) {
+            tasks[i].setId(i + 1);
+        }
+        return tasks;
+    }
+
+    private interface Search {
+        int run();
+    }
+}
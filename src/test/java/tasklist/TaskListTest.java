@@ -0,0 +1,611 @@
+package tasklist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import errors.InvalidIndexException;
+import errors.InvalidTaskIdException;
+import errors.LogosException;
+import localstorage.Storage;
+import tasks.DescriptionPool;
+import tasks.Event;
+import tasks.Recurrence;
+import tasks.RecurringEvent;
+import tasks.Task;
+import tasks.TaskType;
+import tasks.Todo;
+
+public class TaskListTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TaskList taskList;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        taskList = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()));
+        taskList.loadFromStorgae();
+        for (int i = 1; i <= 5; i++) {
+            taskList.addTodo("todo " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("IDs keep referring to the same task after earlier tasks are deleted")
+    void ids_stableAcrossDeletes() throws LogosException, IOException {
+        taskList.deleteTask(TaskRef.ofIndex(1));
+        taskList.deleteTask(TaskRef.ofId(3));
+
+        assertEquals("todo 4", taskList.markTask(TaskRef.ofId(4)).getDescription());
+        assertEquals("todo 4", taskList.markTask(TaskRef.ofIndex(2)).getDescription());
+        assertEquals(3, taskList.size());
+    }
+
+    @Test
+    @DisplayName("a deleted ID is rejected")
+    void ids_deletedIdRejected() throws LogosException, IOException {
+        taskList.deleteTask(TaskRef.ofId(2));
+
+        assertThrows(InvalidTaskIdException.class, () -> taskList.unmarkTask(TaskRef.ofId(2)));
+    }
+
+    @Test
+    @DisplayName("find matches every query word anywhere in a description")
+    void find_matchesSubstrings() throws LogosException, IOException {
+        taskList.addTodo("Project meeting notes");
+        taskList.addTodo("meeting with project team");
+        taskList.addTodo("project report");
+        taskList.deleteTask(TaskRef.ofIndex(1));
+
+        assertEquals(List.of(4, 5), taskList.findIndexes("MEET proj"));
+        assertEquals(List.of(6), taskList.findIndexes("port"));
+        assertEquals(List.of(0, 1, 2, 3), taskList.findIndexes("do"));
+        assertEquals(List.of(), taskList.findIndexes("meeting report"));
+    }
+
+    @Test
+    @DisplayName("due and upcoming return deadlines and events in chronological order")
+    void timeQueries_chronological() throws LogosException, IOException {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+        taskList.addDeadline("late deadline", base.plusDays(3));
+        taskList.addEvent("early event", base.plusDays(1), base.plusDays(2));
+        taskList.addDeadline("outside range", base.plusDays(30));
+        taskList.addDeadline("deleted", base.plusDays(2));
+        taskList.deleteTask(TaskRef.ofIndex(9));
+
+        assertEquals(List.of(6, 5), taskList.findDueIndexes(base, base.plusDays(7)));
+        assertEquals(List.of(5, 7), taskList.findUpcomingIndexes(base.plusDays(2), 2));
+        assertEquals(List.of(), taskList.findDueIndexes(base.plusDays(31), base.plusDays(40)));
+    }
+
+    @Test
+    @DisplayName("events covering an instant and clashing events are found")
+    void eventQueries_coverAndClash() throws LogosException, IOException {
+        LocalDateTime nine = LocalDateTime.of(2025, 3, 1, 9, 0);
+        taskList.addEvent("long workshop", nine, nine.plusHours(8));
+        taskList.addEvent("standup", nine.plusHours(1), nine.plusHours(2));
+        Event lunch = taskList.addEvent("lunch", nine.plusHours(2), nine.plusHours(3));
+
+        assertEquals(List.of(5, 6), taskList.findEventIndexesAt(nine.plusHours(1)));
+        assertEquals(List.of(5, 6, 7), taskList.findEventIndexesAt(nine.plusHours(2)));
+        // Touching the end of the standup is not a clash
+        assertEquals(List.of(5), taskList.findClashingIndexes(lunch));
+    }
+
+    @Test
+    @DisplayName("a recurring event is checked for clashes in later occurrences, up to a year ahead")
+    void recurringEvent_clashesInLaterOccurrences() throws LogosException, IOException {
+        LocalDateTime monday = LocalDateTime.of(2025, 3, 3, 18, 0);
+        // Its first occurrence is on a Wednesday, and the one in May falls on a Monday
+        taskList.addRecurringEvent("book club", LocalDateTime.of(2025, 2, 5, 18, 30),
+                LocalDateTime.of(2025, 2, 5, 20, 0), Recurrence.MONTH);
+        taskList.addEvent("dinner", monday.plusWeeks(2).plusMinutes(30), monday.plusWeeks(2).plusHours(2));
+        taskList.addEvent("far off", monday.plusWeeks(60), monday.plusWeeks(60).plusHours(1));
+        Event gym = taskList.addRecurringEvent("gym", monday, monday.plusHours(1), Recurrence.WEEK);
+
+        List<Occurrence> clashes = taskList.findClashingOccurrences(gym);
+        assertEquals(List.of(6, 5), Occurrence.indexesOf(clashes));
+        assertEquals(LocalDateTime.of(2025, 5, 5, 18, 30), clashes.get(1).getStart());
+        assertTrue(taskList.filterOccurrences(clashes).get(1).contains("from: May 05 2025"),
+                taskList.filterOccurrences(clashes).get(1));
+        // A one-off event is still checked against every occurrence of the rules
+        Event walk = taskList.addEvent("walk", monday.plusWeeks(8), monday.plusWeeks(8).plusHours(1));
+        assertEquals(List.of(8), taskList.findClashingIndexes(walk));
+    }
+
+    @Test
+    @DisplayName("keep-sorted mode inserts new tasks at their sorted position and persists it")
+    void keepSorted_insertsInOrder() throws LogosException, IOException {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+        taskList.addEvent("event", base, base.plusHours(1));
+        taskList.addDeadline("late deadline", base.plusDays(3));
+        taskList.setKeepingSorted(true);
+        assertTrue(taskList.sortTasks());
+
+        taskList.addDeadline("early deadline", base.plusDays(1));
+        taskList.addTodo("todo 6");
+        List<String> expected = taskList.listTasks();
+        assertTrue(expected.get(5).endsWith("todo 6"));
+        assertTrue(expected.get(6).contains("early deadline"));
+        assertFalse(taskList.sortTasks());
+
+        TaskList reloaded = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()));
+        reloaded.loadFromStorgae();
+        assertEquals(expected, reloaded.listTasks());
+    }
+
+    @Test
+    @DisplayName("batch deletes resolve every position before removing anything and are persisted")
+    void deleteTasks_batch() throws LogosException, IOException {
+        taskList.markTasks(new TaskSelection().addRange(4, 5));
+        List<Task> removed = taskList.deleteTasks(new TaskSelection().add(TaskRef.ofIndex(1)).addRange(3, 4));
+        assertEquals(List.of("todo 1", "todo 3", "todo 4"), removed.stream().map(Task::getDescription).toList());
+
+        assertThrows(InvalidIndexException.class, () -> taskList.deleteTasks(new TaskSelection().addRange(1, 3)));
+        assertEquals(2, taskList.size());
+        assertEquals(1, taskList.deleteTasks(TaskSelection.doneTasks()).size());
+
+        TaskList reloaded = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()));
+        reloaded.loadFromStorgae();
+        assertEquals(taskList.listTasks(), reloaded.listTasks());
+        assertEquals(1, reloaded.size());
+    }
+
+    @Test
+    @DisplayName("the columnar store behaves like the default store and persists the same tasks")
+    void columnarStore_matchesDefault() throws LogosException, IOException {
+        TaskList columnar = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()),
+                new ColumnarTaskStore());
+        columnar.loadFromStorgae();
+        assertEquals(taskList.listTasks(), columnar.listTasks());
+
+        LocalDateTime nine = LocalDateTime.of(2025, 3, 1, 9, 0);
+        Event workshop = columnar.addEvent("long workshop", nine, nine.plusHours(8));
+        columnar.addDeadline("report", nine.plusHours(1));
+        columnar.deleteTask(TaskRef.ofIndex(2));
+        assertTrue(columnar.markTask(TaskRef.ofId(workshop.getId())).isDone());
+        assertEquals(List.of(), columnar.findClashingIndexes(workshop));
+        assertEquals(List.of(5), columnar.findIndexes("port"));
+        assertTrue(columnar.sortTasks());
+        assertTrue(columnar.listTasks().get(5).contains("[X] long workshop"));
+
+        TaskList reloaded = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()));
+        reloaded.loadFromStorgae();
+        assertEquals(columnar.listTasks(), reloaded.listTasks());
+    }
+
+    @Test
+    @DisplayName("the columnar store shares its columns with a listing until a change would show through")
+    void columnarStore_listingOutlivesChanges() throws LogosException, IOException {
+        TaskList columnar = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()),
+                new ColumnarTaskStore());
+        columnar.loadFromStorgae();
+        List<String> before = columnar.listTasks();
+
+        Iterator<String> appended = columnar.listItems(0, 10);
+        columnar.addTodo("todo 6");
+        Iterator<String> deleted = columnar.listItems(0, 10);
+        columnar.deleteTask(TaskRef.ofIndex(1));
+        columnar.addDeadline("report", LocalDateTime.of(2025, 3, 1, 9, 0));
+        columnar.addTodo("todo 7");
+        Iterator<String> sorted = columnar.listItems(0, 10);
+        List<String> beforeSort = columnar.listTasks();
+        assertTrue(columnar.sortTasks());
+
+        assertEquals(before, toList(appended));
+        List<String> withSixth = new ArrayList<>(before);
+        withSixth.add("[T] [ ] todo 6");
+        assertEquals(withSixth, toList(deleted));
+        assertEquals(beforeSort, toList(sorted));
+        assertEquals("[T] [ ] todo 2", columnar.listTasks().get(0));
+    }
+
+    private static List<String> toList(Iterator<String> items) {
+        List<String> list = new ArrayList<>();
+        items.forEachRemaining(list::add);
+        return list;
+    }
+
+    @Test
+    @DisplayName("repeated descriptions are counted once, and only count as memory saved when they are shared")
+    void counts_descriptionSharing() throws LogosException, IOException {
+        TaskList tree = new TaskList(new Storage(tempDir.resolve("tree.txt").toString()), new TaskSequence());
+        TaskList columnar = new TaskList(new Storage(tempDir.resolve("columnar.txt").toString()),
+                new ColumnarTaskStore());
+        for (TaskList list : List.of(tree, columnar)) {
+            list.loadFromStorgae();
+            list.addTodo("standup");
+            list.addTodo("standup");
+            list.addTodo("standup");
+            list.addTodo("retro");
+        }
+        LocalDate today = LocalDate.of(2025, 3, 10);
+        long standupSize = DescriptionPool.sizeOf("standup");
+
+        assertEquals(2, tree.getCounts(today).getDistinctDescriptionCount());
+        assertEquals(2 * standupSize, tree.getCounts(today).getBytesShared());
+        assertEquals(2, columnar.getCounts(today).getDistinctDescriptionCount());
+        assertEquals(0, columnar.getCounts(today).getBytesShared());
+
+        tree.deleteTask(TaskRef.ofIndex(1));
+        assertEquals(standupSize, tree.getCounts(today).getBytesShared());
+        tree.deleteTasks(new TaskSelection().addRange(1, 2));
+        assertEquals(1, tree.getCounts(today).getDistinctDescriptionCount());
+        assertEquals(0, tree.getCounts(today).getBytesShared());
+    }
+
+    @Test
+    @DisplayName("with write-behind storage, every change is on disk by the time it returns")
+    void writeBehind_changesAreSavedBeforeReturning() throws Exception {
+        Storage storage = new Storage(tempDir.resolve("batched.txt").toString());
+        storage.enableWriteBehind(50, 1_000);
+        TaskList batched = new TaskList(storage);
+        batched.loadFromStorgae();
+        Task todo = batched.addTodo("saved before returning");
+        batched.markTask(TaskRef.ofId(todo.getId()));
+        assertEquals(batched.listTasks(), reload("batched.txt").listTasks());
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        runConcurrently(4, 0, failures, writer -> {
+            for (int i = 0; i < 5; i++) {
+                String description = "w" + writer + " item " + i;
+                batched.addTodo(description);
+                assertTrue(reload("batched.txt").listTasks().contains("[T] [ ] " + description), description);
+            }
+        }, reader -> { });
+        assertEquals(List.of(), List.copyOf(failures));
+        assertEquals(21, reload("batched.txt").size());
+    }
+
+    private TaskList reload(String fileName) {
+        TaskList reloaded = new TaskList(new Storage(tempDir.resolve(fileName).toString()));
+        reloaded.loadFromStorgae();
+        return reloaded;
+    }
+
+    @Test
+    @DisplayName("undo and redo reverse deletes, marks and sorts, and are persisted")
+    void undoRedo_reversesChanges() throws LogosException, IOException {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+        taskList.addDeadline("deadline", base);
+        taskList.addTodo("todo 7");
+        List<String> original = taskList.listTasks();
+        taskList.markTasks(new TaskSelection().addRange(1, 2));
+        taskList.deleteTasks(new TaskSelection().add(TaskRef.ofIndex(2)).addRange(4, 5));
+        taskList.sortTasks();
+
+        assertEquals("sorted the list", taskList.undo());
+        assertEquals("deleted 3 tasks", taskList.undo());
+        assertEquals("marked 2 tasks as done", taskList.undo());
+        assertEquals(original, taskList.listTasks());
+        assertEquals("marked 2 tasks as done", taskList.redo());
+        List<String> marked = taskList.listTasks();
+
+        TaskList reloaded = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()));
+        reloaded.loadFromStorgae();
+        assertEquals(marked, reloaded.listTasks());
+        assertEquals("todo 2", taskList.deleteTask(TaskRef.ofId(2)).getDescription());
+        // A new change clears the changes that could be redone
+        assertThrows(LogosException.class, () -> taskList.redo());
+    }
+
+    @Test
+    @DisplayName("fuzzy find matches misspelled words, closest first, and forgets deleted tasks")
+    void fuzzyFind_ranksByDistance() throws LogosException, IOException {
+        taskList.addTodo("melting pot");
+        taskList.addTodo("Meetings");
+        taskList.addTodo("Book meetng room");
+        taskList.addTodo("Project MEETING");
+
+        assertEquals(List.of(7, 8, 5, 6), taskList.findFuzzyIndexes("meetng"));
+        taskList.deleteTask(TaskRef.ofIndex(8));
+        assertEquals(List.of(7, 5, 6), taskList.findFuzzyIndexes("Meetng"));
+        assertEquals(List.of(), taskList.findFuzzyIndexes("mtg"));
+    }
+
+    @Test
+    @DisplayName("fuzzy find matches short queries exactly and allows one typo up to four letters")
+    void fuzzyFind_limitsTyposForShortQueries() throws IOException {
+        taskList.addTodo("a b");
+        taskList.addTodo("buy ink");
+        taskList.addTodo("pay rent");
+        taskList.addTodo("plan trip");
+
+        assertEquals(List.of(5), taskList.findFuzzyIndexes("a"));
+        assertEquals(List.of(), taskList.findFuzzyIndexes("x"));
+        assertEquals(List.of(), taskList.findFuzzyIndexes("by"));
+        assertEquals(List.of(6, 7), taskList.findFuzzyIndexes("bay"));
+        assertEquals(List.of(8), taskList.findFuzzyIndexes("plam"));
+        assertEquals(List.of(), taskList.findFuzzyIndexes("plxm"));
+        assertEquals(List.of(8), taskList.findFuzzyIndexes("tirpp"));
+    }
+
+    @Test
+    @DisplayName("next lists the nearest tasks that are not done, following marks, deletes and undo")
+    void next_skipsDoneAndPastTasks() throws LogosException, IOException {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 12, 0);
+        taskList.addDeadline("later", now.plusHours(3));
+        taskList.addEvent("soon", now.plusHours(1), now.plusHours(2));
+        taskList.addDeadline("overdue", now.minusHours(1));
+        taskList.addDeadline("between", now.plusHours(2));
+
+        assertEquals(List.of(6, 8, 5), taskList.findNextIndexes(now, 10));
+        taskList.markTask(TaskRef.ofId(7));
+        assertEquals(List.of(8), taskList.findNextIndexes(now, 1));
+        taskList.unmarkTask(TaskRef.ofId(7));
+        taskList.deleteTask(TaskRef.ofId(9));
+        assertEquals(List.of(6, 5), taskList.findNextIndexes(now, 10));
+        taskList.undo();
+        assertEquals(List.of(6, 8, 5), taskList.findNextIndexes(now, 10));
+        assertEquals(List.of(7, 6, 8, 5), taskList.findNextIndexes(now.minusDays(1), 10));
+    }
+
+    @Test
+    @DisplayName("a recurring event is one task whose occurrences are found by due, upcoming, next and at")
+    void recurringEvent_expandsInQueries() throws LogosException, IOException {
+        LocalDateTime monday = LocalDateTime.of(2025, 3, 3, 9, 30);
+        RecurringEvent standup = taskList.addRecurringEvent("standup", monday, monday.plusMinutes(15),
+                Recurrence.WEEK);
+        taskList.addDeadline("report", monday.plusDays(8));
+        assertEquals(7, taskList.size());
+
+        List<Occurrence> due = taskList.findDueOccurrences(monday, monday.plusDays(14));
+        assertEquals(List.of(5, 5, 6, 5), Occurrence.indexesOf(due));
+        assertEquals(monday.plusDays(7), due.get(1).getStart());
+        assertTrue(taskList.filterOccurrences(due).get(1).contains("from: Mar 10 2025"));
+        // Occurrences years away are found without going through the ones before them
+        assertEquals(List.of(5), taskList.findDueIndexes(monday.plusYears(10), monday.plusYears(10).plusDays(7)));
+        assertEquals(List.of(5), taskList.findEventIndexesAt(monday.plusWeeks(52).plusMinutes(10)));
+        assertEquals(List.of(), taskList.findEventIndexesAt(monday.plusWeeks(52).plusMinutes(20)));
+        assertEquals(List.of(5, 6), taskList.findUpcomingIndexes(monday.plusDays(1), 2));
+
+        taskList.markTask(TaskRef.ofId(standup.getId()));
+        assertEquals(List.of(6), taskList.findNextIndexes(monday, 10));
+        taskList.undo();
+        assertEquals(List.of(5, 5), taskList.findNextIndexes(monday, 2));
+        Event retro = taskList.addEvent("retro", monday.plusWeeks(3).plusMinutes(10), monday.plusWeeks(3).plusHours(1));
+        assertEquals(List.of(5), taskList.findClashingIndexes(retro));
+
+        TaskList reloaded = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()),
+                new ColumnarTaskStore());
+        reloaded.loadFromStorgae();
+        assertEquals(taskList.listTasks(), reloaded.listTasks());
+        assertEquals(due.size(), reloaded.findDueIndexes(monday, monday.plusDays(14)).size());
+    }
+
+    @Test
+    @DisplayName("readers see consistent snapshots while several writers change the list")
+    void concurrentReadersAndWriters_seeConsistentSnapshots() throws Exception {
+        int writerCount = 2;
+        int itemsPerWriter = 200;
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<List<Integer>> idsByWriter = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++) {
+            idsByWriter.add(new ArrayList<>());
+        }
+
+        // Adding, marking and unmarking never move a task, so positions found by a search stay valid
+        runConcurrently(writerCount, 3, failures, writer -> {
+            for (int i = 0; i < itemsPerWriter; i++) {
+                Task task = taskList.addTodo("w" + writer + " item " + i);
+                idsByWriter.get(writer).add(task.getId());
+                taskList.markTask(TaskRef.ofId(task.getId()));
+                if (i % 2 == 1) {
+                    taskList.unmarkTask(TaskRef.ofId(task.getId()));
+                }
+            }
+        }, reader -> {
+            List<String> items = taskList.listTasks();
+            checkSnapshot(items);
+            List<Integer> indexes = taskList.findIndexes("item");
+            List<String> found = taskList.filterByIndexes(indexes);
+            assertEquals(indexes.size(), found.size());
+            for (int i = 0; i < found.size(); i++) {
+                assertTrue(found.get(i).contains(" item "), found.get(i));
+                assertTrue(i == 0 || indexes.get(i) > indexes.get(i - 1));
+            }
+            checkFound(taskList.findTasks("item"));
+        });
+        // Deleting moves tasks, so positions are only checked together with the tasks found at them
+        runConcurrently(writerCount, 3, failures, writer -> {
+            List<Integer> ids = idsByWriter.get(writer);
+            for (int i = 0; i < ids.size(); i += 3) {
+                taskList.deleteTask(TaskRef.ofId(ids.get(i)));
+            }
+        }, reader -> {
+            checkSnapshot(taskList.listTasks());
+            checkFound(taskList.findTasks("item"));
+        });
+        assertEquals(List.of(), List.copyOf(failures));
+
+        List<String> expected = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++) {
+            for (int i = 0; i < itemsPerWriter; i++) {
+                if (i % 3 != 0) {
+                    expected.add(String.format("[T] [%s] w%d item %d", i % 2 == 0 ? "X" : " ", w, i));
+                }
+            }
+        }
+        List<String> items = taskList.listTasks();
+        assertEquals(5 + expected.size(), items.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(items.subList(5, items.size())));
+        checkSnapshot(items);
+
+        taskList.flushStorage();
+        TaskList reloaded = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()));
+        reloaded.loadFromStorgae();
+        assertEquals(items, reloaded.listTasks());
+    }
+
+    private interface Step {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Runs the writers to completion while the readers repeat their step, and records every failure.
+     */
+    private static void runConcurrently(int writerCount, int readerCount, Queue<Throwable> failures, Step writer,
+            Step reader) throws InterruptedException {
+        AtomicInteger runningWriters = new AtomicInteger(writerCount);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++) {
+            int writerIndex = w;
+            threads.add(new Thread(() -> {
+                try {
+                    writer.run(writerIndex);
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    runningWriters.decrementAndGet();
+                }
+            }));
+        }
+        for (int r = 0; r < readerCount; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    do {
+                        reader.run(0);
+                    } while (runningWriters.get() > 0);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Checks that found tasks all match the query, in order of position.
+     */
+    private static void checkFound(ListedTasks found) {
+        assertEquals(found.size(), found.getItems().size());
+        for (int i = 0; i < found.size(); i++) {
+            assertTrue(found.getItems().get(i).contains(" item "), found.getItems().get(i));
+            assertTrue(i == 0 || found.getIndexes().get(i) > found.getIndexes().get(i - 1));
+        }
+        checkWriterOrder(found.getItems());
+    }
+
+    /**
+     * Checks that a listing is one state of the list: the original todos first, then each writer's items
+     * in the order that writer added them.
+     */
+    private static void checkSnapshot(List<String> items) {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("[T] [ ] todo " + (i + 1), items.get(i));
+        }
+        checkWriterOrder(items.subList(5, items.size()));
+    }
+
+    /**
+     * Checks that the items of each writer are in the order that writer added them.
+     */
+    private static void checkWriterOrder(List<String> items) {
+        Map<String, Integer> lastItemByWriter = new HashMap<>();
+        for (String item : items) {
+            String[] words = item.substring("[T] [ ] ".length()).split(" ");
+            assertEquals("item", words[1], item);
+            int number = Integer.parseInt(words[2]);
+            Integer previous = lastItemByWriter.put(words[0], number);
+            assertTrue(previous == null || previous < number, item);
+        }
+    }
+
+    @Test
+    @DisplayName("archiving moves done tasks out of the list and its indexes, keeping the IDs of the rest")
+    void archiveDoneTasks_keepsOnlyUndoneTasks() throws LogosException, IOException {
+        taskList.markTask(TaskRef.ofIndex(2));
+        taskList.markTask(TaskRef.ofIndex(4));
+
+        assertEquals(2, taskList.archiveDoneTasks().size());
+        assertEquals(3, taskList.size());
+        assertThrows(LogosException.class, () -> taskList.undo());
+        assertEquals(List.of(), taskList.findIndexes("todo 2"));
+        assertEquals(List.of("[T] [X] todo 2"), taskList.findArchivedTasks("TODO 2"));
+        assertEquals(0, taskList.getCounts(LocalDate.now()).getDone());
+        assertEquals("todo 5", taskList.markTask(TaskRef.ofId(5)).getDescription());
+        assertEquals(6, taskList.addTodo("todo 6").getId());
+
+        TaskList reloaded = new TaskList(new Storage(tempDir.resolve("tasks.txt").toString()),
+                new ColumnarTaskStore());
+        reloaded.loadFromStorgae();
+        assertEquals(taskList.listTasks(), reloaded.listTasks());
+        assertEquals(2, reloaded.listArchivedTasks().size());
+    }
+
+    @Test
+    @DisplayName("counts follow adds, marks, deletes and undo, and overdue deadlines move with the day")
+    void counts_trackChanges() throws LogosException, IOException {
+        LocalDate today = LocalDate.of(2025, 3, 10);
+        taskList.addDeadline("last week", today.minusDays(7).atTime(9, 0));
+        taskList.addDeadline("this morning", today.atTime(9, 0));
+        taskList.addDeadline("tomorrow", today.plusDays(1).atTime(9, 0));
+        taskList.addEvent("todo 1", today.atTime(10, 0), today.atTime(11, 0));
+        taskList.markTasks(new TaskSelection().addRange(1, 2).add(TaskRef.ofId(7)));
+        taskList.deleteTask(TaskRef.ofId(3));
+
+        TaskCounts counts = taskList.getCounts(today);
+        assertEquals(8, counts.getTotal());
+        assertEquals(2, counts.getDone(TaskType.TODO));
+        assertEquals(2, counts.getUndone(TaskType.TODO));
+        assertEquals(1, counts.getDone(TaskType.DEADLINE));
+        assertEquals(1, counts.getOverdueCount());
+        assertEquals(0, counts.getDueTodayCount());
+        assertEquals(7, counts.getDistinctDescriptionCount());
+        assertEquals(2, taskList.getCounts(today.plusDays(2)).getOverdueCount());
+
+        taskList.undo();
+        taskList.undo();
+        counts = taskList.getCounts(today);
+        assertEquals(9, counts.getTotal());
+        assertEquals(0, counts.getDone());
+        assertEquals(1, counts.getDueTodayCount());
+        assertEquals(0, taskList.getCounts(today.minusDays(30)).getOverdueCount());
+    }
+
+    @Test
+    @DisplayName("the in-place case-insensitive match and the parallel walk agree with lowercasing")
+    void scan_matchesIgnoringCaseInOrder() {
+        assertTrue(TaskList.containsIgnoreCase("Weekly REPORT", "report"));
+        assertTrue(TaskList.containsIgnoreCase("pprPROp", "prop"));
+        assertFalse(TaskList.containsIgnoreCase("Report", "reports"));
+
+        Task[] tasks = new Task[1000];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Todo((i % 3 == 0 ? "Project " : "Meeting ") + i);
+            tasks[i].setId(i + 1);
+        }
+        TaskSnapshot view = TaskSnapshot.of(tasks);
+        String[] words = {"proj", "1"};
+        List<Integer> sequential = TaskList.scanIndexes(view, words, null, false);
+        assertEquals(sequential, TaskList.scanIndexes(view, words, null, true));
+        assertEquals(List.of(18, 21), TaskList.scanIndexes(view, words, new int[] {10, 19, 22}, true));
+    }
+}
@@ -0,0 +1,88 @@
+package tasklist;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import tasks.Deadline;
+import tasks.Event;
+import tasks.Task;
+import tasks.Todo;
+
+/**
+ * Compares the memory taken by the task stores and the garbage collection they cause.
+ * <p>
+ * Each store is filled with the same mix of todos, deadlines and events, and the heap in use is measured
+ * before and after (with garbage collections in between) to give the retained bytes per task. The
+ * tasks are then listed repeatedly, taking a snapshot and formatting every task as the list command
+ * does, and the time spent in garbage collection while doing so is reported.
+ * <p>
+ * Run with {@code ./gradlew benchmark -Pbenchmark=tasklist.TaskStoreBenchmark}, optionally passing the
+ * number of tasks as {@code -PbenchmarkArgs=<n>}.
+ */
+public class TaskStoreBenchmark {
+    private static final int DEFAULT_TASK_COUNT = 500_000;
+    private static final int LIST_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional number of tasks in each store
+     */
+    public static void main(String[] args) {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASK_COUNT;
+        System.out.printf("%,d tasks%n", taskCount);
+        run("tree", TaskSequence::new, taskCount);
+        run("columnar", ColumnarTaskStore::new, taskCount);
+    }
+
+    private static void run(String name, Supplier<TaskStore> storeFactory, int taskCount) {
+        long before = BenchmarkTasks.usedHeap();
+        TaskStore store = storeFactory.get();
+        Random random = new Random(42);
+        for (int i = 0; i < taskCount; i++) {
+            store.add(generateTask(random));
+        }
+        long retained = BenchmarkTasks.usedHeap() - before;
+
+        long gcMillis = gcMillis();
+        long start = System.nanoTime();
+        long characters = 0;
+        for (int round = 0; round < LIST_ROUNDS; round++) {
+            TaskSnapshot snapshot = store.snapshot();
+            for (int i = 0; i < snapshot.size(); i++) {
+                characters += snapshot.get(i).getAsListItem().length();
+            }
+        }
+        long listMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%-9s %,8.1f bytes/task, %,6d ms to list %d times (%,d ms in GC, %,d chars)%n", name,
+                (double) retained / taskCount, listMillis, LIST_ROUNDS, gcMillis() - gcMillis, characters);
+        if (store.size() != taskCount) {
+            throw new IllegalStateException("Lost tasks");
+        }
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, bean.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static Task generateTask(Random random) {
+        String description = BenchmarkTasks.randomDescription(random, BenchmarkTasks.WORDS, false);
+        LocalDateTime time = LocalDateTime.of(2025, 1, 1, 9, 0).plusMinutes(random.nextInt(500_000));
+        Task task = switch (random.nextInt(3)) {
+        case 0 -> new Todo(description);
+        case 1 -> new Deadline(description, time);
+        default -> new Event(description, time, time.plusMinutes(30 + random.nextInt(180)));
+        };
+        if (random.nextInt(4) == 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+}
@@ -0,0 +1,37 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import errors.LogosException;
+
+public class DescriptionPoolTest {
+
+    @Test
+    @DisplayName("tasks loaded with the same description share one instance")
+    void fromStorageLine_sharesDescriptions() throws LogosException {
+        Task first = Task.fromStorageLine("T | 0 | weekly report");
+        Task second = Task.fromStorageLine("D | 1 | weekly report | 2025-03-01T09:00");
+
+        assertSame(first.getDescription(), second.getDescription());
+        assertSame(first.getDescription(), DescriptionPool.intern(new String("weekly report")));
+    }
+
+    @Test
+    @DisplayName("stats count a shared description once and the rest as saved")
+    void stats_countSharedInstances() {
+        String shared = DescriptionPool.intern("pay rent");
+        DescriptionPool.Stats stats = new DescriptionPool.Stats();
+        stats.add(shared);
+        stats.add(shared);
+        stats.add(new String("pay rent"));
+
+        assertEquals(3, stats.getTaskCount());
+        assertEquals(2, stats.getDistinctCount());
+        // 24-byte String plus a 16-byte array header and 8 Latin-1 bytes
+        assertEquals(48, stats.getBytesSaved());
+    }
+}